@@ -0,0 +1,94 @@
+// Test de charge k6 : parcours de commande (lecture catalogue + création puis annulation de commande).
+//
+// Le setup porte le stock des produits 1..5 à SEED_STOCK et chaque commande créée est annulée
+// (la réservation de stock est libérée) : le test mesure le chemin nominal et non des 409.
+// Le run échoue si plus de 5 % des créations de commande sont refusées.
+//
+// Usage :
+//   k6 run -e VUS=200 -e DURATION=2m checkout.js
+//
+// Variables :
+//   MEMBERSHIP_URL (http://localhost:8081), PRODUCT_URL (http://localhost:8082),
+//   ORDER_URL (http://localhost:8083), EMAIL / PASSWORD (compte de test de data.sql),
+//   SEED_STOCK (1000000)
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const MEMBERSHIP_URL = __ENV.MEMBERSHIP_URL || 'http://localhost:8081';
+const PRODUCT_URL = __ENV.PRODUCT_URL || 'http://localhost:8082';
+const ORDER_URL = __ENV.ORDER_URL || 'http://localhost:8083';
+const PRODUCT_IDS = [1, 2, 3, 4, 5];
+
+const orderRejected = new Rate('order_rejected');
+
+export const options = {
+    scenarios: {
+        checkout: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 200),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    thresholds: {
+        order_rejected: ['rate<0.05'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function jsonHeaders(token) {
+    return {
+        'Content-Type': 'application/json',
+        Authorization: `Bearer ${token}`,
+    };
+}
+
+export function setup() {
+    const res = http.post(`${MEMBERSHIP_URL}/api/v1/auth/login`, JSON.stringify({
+        email: __ENV.EMAIL || 'alice.dupont@example.com',
+        password: __ENV.PASSWORD || 'password123',
+    }), { headers: { 'Content-Type': 'application/json' } });
+
+    if (!check(res, { 'login 200': (r) => r.status === 200 })) {
+        throw new Error(`login impossible : HTTP ${res.status}`);
+    }
+    const token = res.json('token');
+
+    // Stock de test de data.sql (~200 unités) épuisé en une seconde sous charge : on le remonte
+    for (const productId of PRODUCT_IDS) {
+        const seed = http.patch(`${PRODUCT_URL}/api/v1/products/${productId}/stock`,
+            JSON.stringify({ newStock: Number(__ENV.SEED_STOCK || 1000000) }),
+            { headers: jsonHeaders(token) });
+        if (!check(seed, { 'stock seed 200': (r) => r.status === 200 })) {
+            throw new Error(`initialisation du stock du produit ${productId} impossible : HTTP ${seed.status}`);
+        }
+    }
+
+    return { token, userId: Number(__ENV.USER_ID || 1) };
+}
+
+export default function (data) {
+    const headers = jsonHeaders(data.token);
+    const productId = PRODUCT_IDS[Math.floor(Math.random() * PRODUCT_IDS.length)];
+
+    const product = http.get(`${PRODUCT_URL}/api/v1/products/${productId}`, { headers, tags: { step: 'product' } });
+    check(product, { 'product 200': (r) => r.status === 200 });
+
+    const order = http.post(`${ORDER_URL}/api/v1/orders`, JSON.stringify({
+        userId: data.userId,
+        shippingAddress: '1 rue de Paris, 75001 Paris',
+        items: [{ productId, quantity: 1 }],
+    }), { headers, tags: { step: 'order' } });
+
+    const created = check(order, { 'order 201': (r) => r.status === 201 });
+    orderRejected.add(!created);
+    if (!created) {
+        return;
+    }
+
+    // Annulation : libère la réservation pour que le stock reste stable pendant tout le run
+    const cancel = http.patch(`${ORDER_URL}/api/v1/orders/${order.json('id')}/status`,
+        JSON.stringify({ status: 'CANCELLED' }), { headers, tags: { step: 'cancel' } });
+    check(cancel, { 'cancel 200': (r) => r.status === 200 });
+}
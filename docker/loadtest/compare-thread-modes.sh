@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compare le débit des trois services en mode threads plateforme puis threads virtuels.
+#
+# Pour chaque mode : redémarre ms-membership / ms-product / ms-order (docker compose),
+# attend qu'ils soient UP, lance checkout.js avec k6 et garde le résumé JSON.
+# En mode virtuel, -Djdk.tracePinnedThreads=short journalise tout épinglage de thread porteur.
+# Le script s'arrête si k6 échoue ses seuils (trop de commandes refusées) : le débit ne serait pas comparable.
+#
+# Usage : ./compare-thread-modes.sh [VUS] [DURATION]     (défaut : 200 2m)
+set -euo pipefail
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+COMPOSE_FILE="$DIR/../docker-compose.yml"
+VUS="${1:-200}"
+DURATION="${2:-2m}"
+
+wait_up() {
+  for port in 8081 8082 8083; do
+    until curl -fs "http://localhost:$port/actuator/health" > /dev/null; do sleep 2; done
+  done
+}
+
+for mode in platform virtual; do
+  if [ "$mode" = "virtual" ]; then
+    export VIRTUAL_THREADS_ENABLED=true JAVA_TOOL_OPTIONS="-Djdk.tracePinnedThreads=short"
+  else
+    export VIRTUAL_THREADS_ENABLED=false JAVA_TOOL_OPTIONS=""
+  fi
+
+  echo "== Mode $mode : redémarrage des services"
+  docker compose -f "$COMPOSE_FILE" up -d --force-recreate ms-membership ms-product ms-order
+  wait_up
+
+  echo "== Mode $mode : k6 ($VUS VUs, $DURATION)"
+  k6 run -e VUS="$VUS" -e DURATION="$DURATION" --summary-export "$DIR/results-$mode.json" "$DIR/checkout.js"
+done
+
+echo
+echo "== Comparaison (req/s, latence p95 en ms)"
+for mode in platform virtual; do
+  jq -r --arg mode "$mode" \
+    '"\($mode): \(.metrics.http_reqs.rate | floor) req/s, p95=\(.metrics.http_req_duration["p(95)"] | floor) ms"' \
+    "$DIR/results-$mode.json"
+done
+
+echo
+echo "== Épinglages détectés en mode virtuel (doit être vide)"
+docker compose -f "$COMPOSE_FILE" logs ms-membership ms-product ms-order | grep -i "pinned" || true
@@ -2,7 +2,9 @@ import { request } from "./http.js";
 import { BACK } from "../constants/back.js";
 
 export const orderApi = {
-  list: () => request(BACK.orders),
+  // page { items, nextCursor, hasNext } ; cursor = nextCursor de la page précédente
+  list: (cursor) =>
+    request(cursor ? `${BACK.orders}?cursor=${encodeURIComponent(cursor)}` : BACK.orders),
   create: (payload) => request(BACK.orders, { method: "POST", body: payload }),
   updateStatus: (id, status) =>
     request(`${BACK.orders}/${id}/status`, { method: "PUT", body: { status } }),
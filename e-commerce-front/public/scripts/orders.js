@@ -17,8 +17,30 @@ function renderItems(order) {
     .join("<br/>");
 }
 
+// commandes déjà chargées + curseur de la page suivante (null : dernière page atteinte)
+let loadedOrders = [];
+let nextCursor = null;
+
+// recharge depuis la première page
 async function loadOrders() {
-  const orders = await orderApi.list();
+  const page = await orderApi.list();
+  loadedOrders = page.items;
+  nextCursor = page.hasNext ? page.nextCursor : null;
+  renderOrders();
+}
+
+// ajoute la page suivante à la liste
+async function loadMoreOrders() {
+  if (!nextCursor) return;
+  const page = await orderApi.list(nextCursor);
+  loadedOrders = loadedOrders.concat(page.items);
+  nextCursor = page.hasNext ? page.nextCursor : null;
+  renderOrders();
+}
+
+function renderOrders() {
+  const orders = loadedOrders;
+  $("moreOrdersBtn").hidden = !nextCursor;
   $("table").innerHTML =
     `<tr>
       <th>ID</th><th>UserId</th><th>Status</th><th>Total</th><th>Address</th><th>Items</th><th>Actions</th>
@@ -118,6 +140,16 @@ $("orderForm").addEventListener("submit", async (e) => {
   }
 });
 
+// Page suivante
+$("moreOrdersBtn").addEventListener("click", async () => {
+  try {
+    setError("");
+    await loadMoreOrders();
+  } catch (err) {
+    setError(err.message || "Load orders failed");
+  }
+});
+
 // Cancel + Update status
 $("table").addEventListener("click", async (e) => {
   const cancelBtn = e.target.closest("button[data-cancel]");
@@ -91,7 +91,9 @@ app.delete("/api/products/:id", async (req, res) => {
 // Liste des commandes
 app.get("/api/orders", async (req, res) => {
   try {
-    const r = await axios.get(`${API.order}/api/v1/orders`);
+    // ms-order renvoie une page { items, nextCursor, hasNext } (pagination par curseur) :
+    // transmise telle quelle, le front demande la page suivante avec ?cursor=nextCursor
+    const r = await axios.get(`${API.order}/api/v1/orders`, { params: req.query });
     res.json(r.data);
   } catch (e) {
     res.status(500).json({ error: "Order service down or endpoint mismatch" });
@@ -0,0 +1,27 @@
+package com.membership.users.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO d'un changement de cycle de vie d'un utilisateur (DEACTIVATED, DELETED).
+ * L'id sert de curseur pour lire les changements suivants.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeDTO {
+
+    private Long id;
+    private Long userId;
+    private String type;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime occurredAt;
+}
@@ -4,17 +4,26 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.mapper.UserMapper;
+import com.membership.users.application.dto.UserChangeDTO;
 import com.membership.users.domain.entity.User;
+import com.membership.users.domain.entity.UserChange;
+import com.membership.users.domain.repository.UserChangeRepository;
 import com.membership.users.domain.repository.UserRepository;
 import com.membership.users.infrastructure.exception.ResourceAlreadyExistsException;
 import com.membership.users.infrastructure.exception.ResourceNotFoundException;
 
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,9 +43,14 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
     private final UserMapper userMapper;
     private final MeterRegistry meterRegistry;
 
+    /** Durée de conservation du journal des changements (bien au-delà du TTL des caches lecteurs) */
+    @Value("${app.users.changes.retention:PT24H}")
+    private Duration changesRetention = Duration.ofHours(24);
+
     /**
      * Récupère tous les utilisateurs
      */
@@ -139,6 +153,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
         userRepository.delete(user);
+        recordChange(id, UserChange.Type.DELETED);
         
         // Métrique personnalisée
         Counter.builder("users.deleted")
@@ -192,9 +207,47 @@ public class UserService {
         
         user.setActive(false);
         User deactivatedUser = userRepository.save(user);
+        recordChange(id, UserChange.Type.DEACTIVATED);
         
         log.info("Utilisateur désactivé avec succès: ID={}, Email={}", id, user.getEmail());
         
         return userMapper.toDto(deactivatedUser);
     }
+
+    /**
+     * Récupère les changements (désactivations, suppressions) postérieurs au curseur
+     */
+    public List<UserChangeDTO> getChangesAfter(Long afterId, int limit) {
+        return userChangeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(change -> UserChangeDTO.builder()
+                        .id(change.getId())
+                        .userId(change.getUserId())
+                        .type(change.getType().name())
+                        .occurredAt(change.getOccurredAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Purge périodique du journal des changements antérieurs à la rétention
+     */
+    @Scheduled(fixedDelayString = "${app.users.changes.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeOldChanges() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(changesRetention);
+        int purged = userChangeRepository.deleteOccurredBefore(cutoff);
+        if (purged > 0) {
+            log.info("{} changements d'utilisateurs purgés (antérieurs à {})", purged, cutoff);
+        }
+    }
+
+    /**
+     * Enregistre un changement dans le journal, dans la transaction de la modification
+     */
+    private void recordChange(Long userId, UserChange.Type type) {
+        userChangeRepository.save(UserChange.builder()
+                .userId(userId)
+                .type(type)
+                .build());
+    }
 }
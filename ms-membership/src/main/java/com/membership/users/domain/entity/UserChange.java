@@ -0,0 +1,48 @@
+package com.membership.users.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changement de cycle de vie d'un utilisateur (désactivation, suppression).
+ *
+ * Journal en ajout seul lu par les autres services (ms-order) pour invalider
+ * leurs caches d'utilisateurs : l'identifiant croissant sert de curseur.
+ * L'id est attribué à l'insertion, pas au commit : un lecteur doit relire une fenêtre
+ * derrière son curseur (voir UserChangePoller côté ms-order).
+ * Les changements sont purgés après app.users.changes.retention.
+ */
+@Entity
+@Table(name = "user_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private Type type;
+
+    @CreationTimestamp
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        DEACTIVATED,
+        DELETED
+    }
+}
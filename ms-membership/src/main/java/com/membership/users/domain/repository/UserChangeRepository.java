@@ -0,0 +1,32 @@
+package com.membership.users.domain.repository;
+
+import com.membership.users.domain.entity.UserChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository du journal des changements d'utilisateurs.
+ */
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    /**
+     * Changements postérieurs au curseur, dans l'ordre d'enregistrement
+     */
+    List<UserChange> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Supprime les changements enregistrés avant la date donnée (purge de rétention)
+     *
+     * @return nombre de changements supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM UserChange c WHERE c.occurredAt < :cutoff")
+    int deleteOccurredBefore(LocalDateTime cutoff);
+}
@@ -1,8 +1,10 @@
 package com.membership.users.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.membership.users.domain.entity.User;
 
@@ -45,4 +47,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT COUNT(u) FROM User u WHERE u.active = true")
     long countActiveUsers();
+
+    /**
+     * Remplace le haché du mot de passe, seulement s'il n'a pas changé entre-temps
+     * (rehash après connexion, concurrent d'un éventuel changement de mot de passe).
+     *
+     * @return nombre de lignes modifiées (0 ou 1)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :expectedHash")
+    int updatePasswordHash(Long id, String expectedHash, String newHash);
 }
@@ -0,0 +1,12 @@
+package com.membership.users.infrastructure.exception;
+
+/**
+ * Exception levée quand le pool de hachage des mots de passe est saturé
+ * (file d'attente pleine ou attente trop longue) : la connexion est refusée en 503.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Service d'authentification saturé, réessayez dans quelques instants");
+    }
+}
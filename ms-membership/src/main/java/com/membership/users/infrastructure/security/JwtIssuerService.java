@@ -3,31 +3,37 @@ package com.membership.users.infrastructure.security;
 import io.jsonwebtoken.Jwts;
 import org.springframework.stereotype.Service;
 
-import java.security.PrivateKey;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 
+/**
+ * Émission des JWT, signés avec la clé active du trousseau (SigningKeyRing),
+ * selon son algorithme (RS256, ES256 ou EdDSA, app.security.jwt.signing-algorithm).
+ * Le header porte le kid de la clé : les vérificateurs la retrouvent dans le JWKS publié.
+ */
 @Service
 public class JwtIssuerService {
 
-    private final PrivateKey privateKey;
+    private final SigningKeyRing keyRing;
 
-    public JwtIssuerService(PrivateKey privateKey) {
-        this.privateKey = privateKey;
+    public JwtIssuerService(SigningKeyRing keyRing) {
+        this.keyRing = keyRing;
     }
 
     public String generateToken(Long userId, String email, List<String> roles, long expiresInSeconds) {
         Instant now = Instant.now();
         Instant exp = now.plusSeconds(expiresInSeconds);
+        SigningKeyRing.SigningKey signingKey = keyRing.active();
 
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claim("userId", userId)
                 .claim("email", email)
                 .claim("roles", roles)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(exp))
-                .signWith(privateKey, Jwts.SIG.RS256)
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
-}
\ No newline at end of file
+}
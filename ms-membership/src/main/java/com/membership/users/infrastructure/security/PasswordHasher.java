@@ -0,0 +1,169 @@
+package com.membership.users.infrastructure.security;
+
+import com.membership.users.infrastructure.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Calculs de hachage des mots de passe (BCrypt / Argon2), sur un pool dédié et borné.
+ *
+ * - au plus max-concurrent calculs simultanés (par défaut : nombre de CPU) : une rafale
+ *   de connexions ne monopolise pas les threads des autres requêtes ;
+ * - au-delà, file d'attente bornée (queue-capacity) puis refus immédiat ;
+ * - le thread de la requête attend au plus max-wait ; dans les deux cas de saturation :
+ *   PasswordHashingBusyException (503) ;
+ * - rehash : un haché d'ancien algorithme / paramètres est recalculé en tâche de fond
+ *   après une connexion réussie, sans allonger la réponse (ignoré si le pool est saturé,
+ *   repris à la connexion suivante).
+ *
+ * Métriques : auth.password.hash{operation=matches|encode} (durée du calcul),
+ * auth.password.hash.queue, auth.password.hash.rejected.
+ */
+@Slf4j
+@Service
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor pool;
+    private final Duration maxWait;
+
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.password.hashing-pool.max-concurrent:0}") int maxConcurrent,
+                          @Value("${app.security.password.hashing-pool.queue-capacity:200}") int queueCapacity,
+                          @Value("${app.security.password.hashing-pool.max-wait:PT5S}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWait = maxWait;
+
+        int threads = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.rejected = Counter.builder("auth.password.hash.rejected")
+                .description("Calculs de hachage refusés (pool saturé)")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", pool, p -> p.getQueue().size())
+                .description("Calculs de hachage en attente")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Vérifie un mot de passe contre son haché.
+     *
+     * @throws PasswordHashingBusyException si le pool est saturé
+     */
+    public boolean matches(CharSequence rawPassword, String passwordHash) {
+        return await(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash)));
+    }
+
+    /**
+     * Hache un mot de passe avec l'algorithme et les paramètres configurés.
+     *
+     * @throws PasswordHashingBusyException si le pool est saturé
+     */
+    public String encode(CharSequence rawPassword) {
+        return await(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /** true si le haché a été produit par un autre algorithme ou des paramètres plus faibles */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    /**
+     * Recalcule le haché en tâche de fond, puis le transmet à onRehashed.
+     *
+     * @return false si le pool est saturé (le rehash sera retenté à la connexion suivante)
+     */
+    public boolean rehashAsync(CharSequence rawPassword, Consumer<String> onRehashed) {
+        try {
+            pool.execute(() -> {
+                try {
+                    onRehashed.accept(encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+                } catch (RuntimeException e) {
+                    log.warn("Rehash du mot de passe en échec : {}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    private <T> T await(Callable<T> computation) {
+        Future<T> future;
+        try {
+            future = pool.submit(computation);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Durée d'un calcul de hachage de mot de passe")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
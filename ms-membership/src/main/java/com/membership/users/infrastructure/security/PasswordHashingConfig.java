@@ -0,0 +1,57 @@
+package com.membership.users.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Hachage des mots de passe : BCrypt (coût réglable) ou Argon2id.
+ *
+ * Les hachés sont préfixés par leur algorithme ({bcrypt}..., {argon2}...) ; les hachés
+ * historiques sans préfixe sont des BCrypt. Un haché d'un autre algorithme ou de paramètres
+ * plus faibles que la configuration est recalculé à la connexion suivante (voir PasswordHasher).
+ */
+@Slf4j
+@Configuration
+public class PasswordHashingConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${app.security.password.argon2.salt-length:16}") int argon2SaltLength,
+            @Value("${app.security.password.argon2.hash-length:32}") int argon2HashLength,
+            @Value("${app.security.password.argon2.parallelism:1}") int argon2Parallelism,
+            @Value("${app.security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${app.security.password.argon2.iterations:2}") int argon2Iterations) {
+
+        String idForEncode = algorithm.trim().toLowerCase();
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode)) {
+            throw new IllegalStateException("app.security.password.algorithm invalide : " + algorithm + " (bcrypt, argon2)");
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(argon2SaltLength, argon2HashLength,
+                argon2Parallelism, argon2MemoryKib, argon2Iterations);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode,
+                Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        // hachés historiques (data.sql, comptes existants) : BCrypt sans préfixe
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("Hachage des mots de passe : {} (bcrypt strength={}, argon2 m={}KiB t={} p={})",
+                idForEncode, bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism);
+        return encoder;
+    }
+}
@@ -0,0 +1,243 @@
+package com.membership.users.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Trousseau des clés de signature des JWT, avec rotation sans redémarrage.
+ *
+ * Sources :
+ *  - par défaut, la clé du classpath (private_key.pem), kid = empreinte RFC 7638 ;
+ *  - si app.security.jwt.keys.dir est renseigné : un fichier {kid}.pem (PKCS#8) par clé,
+ *    rechargé toutes les reload-interval-ms. La clé active est celle nommée dans le
+ *    fichier active-kid du répertoire, à défaut la plus récemment modifiée.
+ *
+ * Algorithme de signature (app.security.jwt.signing-algorithm) : RS256, ES256 (P-256)
+ * ou EdDSA (Ed25519), déduit du type de chaque clé. Seule une clé de l'algorithme
+ * configuré peut être active ; les clés des autres algorithmes restent publiées, ce qui
+ * permet la migration (les tokens déjà émis restent vérifiables jusqu'à leur expiration).
+ * Sans répertoire de clés et hors RS256, le démarrage échoue : une clé générée par instance
+ * changerait d'une instance et d'un redémarrage à l'autre. En développement seulement,
+ * app.security.jwt.keys.allow-ephemeral=true génère une clé éphémère au démarrage
+ * (les tokens ne survivent pas à un redémarrage).
+ *
+ * Toutes les clés du répertoire sont publiées (JWKS, JwksController), seule la clé active signe.
+ * Rotation :
+ *  1. déposer {nouveau-kid}.pem : la clé est publiée, les vérificateurs la récupèrent
+ *     au prochain rafraîchissement ;
+ *  2. après ce délai, écrire nouveau-kid dans active-kid : les nouveaux tokens portent ce kid ;
+ *  3. après la durée de vie des tokens (1 h), supprimer l'ancienne clé.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing {
+
+    static final String ACTIVE_KID_FILE = "active-kid";
+
+    private final Path keyDir;
+    private final SignatureAlgorithm signingAlgorithm;
+    private final boolean allowEphemeralKey;
+
+    private volatile KeySet keySet;
+
+    @Autowired
+    public SigningKeyRing(PrivateKey privateKey,
+                          @Value("${app.security.jwt.keys.dir:}") String keyDir,
+                          @Value("${app.security.jwt.signing-algorithm:RS256}") String signingAlgorithm,
+                          @Value("${app.security.jwt.keys.allow-ephemeral:false}") boolean allowEphemeralKey) {
+        this(privateKey, keyDir == null || keyDir.isBlank() ? null : Path.of(keyDir), signingAlgorithm, allowEphemeralKey);
+    }
+
+    SigningKeyRing(PrivateKey classpathKey, Path keyDir, String signingAlgorithm, boolean allowEphemeralKey) {
+        this.keyDir = keyDir;
+        this.signingAlgorithm = signatureAlgorithm(signingAlgorithm);
+        this.allowEphemeralKey = allowEphemeralKey;
+        this.keySet = keyDir == null ? classpathKeySet(classpathKey) : loadDirectory();
+    }
+
+    /** Clé utilisée pour signer les nouveaux tokens */
+    public SigningKey active() {
+        return keySet.active();
+    }
+
+    /** Clés publiées aux vérificateurs (la clé active et celles encore acceptées) */
+    public List<SigningKey> published() {
+        return keySet.published();
+    }
+
+    /** Key set JSON ({"keys":[...]}) précalculé à chaque rechargement */
+    public String jwksJson() {
+        return keySet.json();
+    }
+
+    /**
+     * Relit le répertoire des clés. En cas d'erreur (répertoire vide, fichier illisible,
+     * aucune clé de l'algorithme configuré), le trousseau précédent est conservé.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.keys.reload-interval-ms:60000}")
+    public void reload() {
+        if (keyDir == null) {
+            return;
+        }
+        try {
+            KeySet reloaded = loadDirectory();
+            if (!reloaded.active().kid().equals(keySet.active().kid())
+                    || reloaded.published().size() != keySet.published().size()) {
+                log.info("Clés de signature rechargées : active={} publiées={}", reloaded.active().kid(),
+                        reloaded.published().stream().map(SigningKey::kid).toList());
+            }
+            keySet = reloaded;
+        } catch (IllegalStateException e) {
+            log.error("Rechargement des clés de signature impossible, trousseau précédent conservé", e);
+        }
+    }
+
+    private KeySet classpathKeySet(PrivateKey classpathKey) {
+        SigningKey classpath = signingKey(null, classpathKey);
+        if (classpath.algorithm().equals(signingAlgorithm)) {
+            return KeySet.of(List.of(classpath), null, signingAlgorithm);
+        }
+        if (!allowEphemeralKey) {
+            throw new IllegalStateException("app.security.jwt.signing-algorithm=" + signingAlgorithm.getId()
+                    + " exige app.security.jwt.keys.dir (clé du classpath : "
+                    + classpath.algorithm().getId() + ")");
+        }
+
+        KeyPair ephemeral = signingAlgorithm.equals(Jwts.SIG.EdDSA)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signingAlgorithm.keyPair().build();
+        SigningKey generated = signingKey(null, ephemeral.getPrivate());
+        log.warn("Aucun répertoire de clés : clé {} éphémère générée kid={} (tokens invalides après redémarrage)",
+                signingAlgorithm.getId(), generated.kid());
+        return KeySet.of(List.of(generated, classpath), null, signingAlgorithm);
+    }
+
+    private KeySet loadDirectory() {
+        List<KeyFile> files = new ArrayList<>();
+        try (DirectoryStream<Path> pems = Files.newDirectoryStream(keyDir, "*.pem")) {
+            for (Path pem : pems) {
+                String fileName = pem.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - ".pem".length());
+                files.add(new KeyFile(signingKey(kid, PrivateKeyConfig.parsePrivateKey(Files.readString(pem))),
+                        Files.getLastModifiedTime(pem)));
+            }
+            if (files.isEmpty()) {
+                throw new IllegalStateException("Aucune clé *.pem dans " + keyDir);
+            }
+
+            files.sort(Comparator.comparing(KeyFile::modified).reversed());
+            Path activeKidFile = keyDir.resolve(ACTIVE_KID_FILE);
+            String activeKid = Files.exists(activeKidFile)
+                    ? Files.readString(activeKidFile, StandardCharsets.UTF_8).trim()
+                    : null;
+
+            KeySet loaded = KeySet.of(files.stream().map(KeyFile::key).toList(), activeKid, signingAlgorithm);
+            if (activeKid != null && !activeKid.equals(loaded.active().kid())) {
+                log.warn("active-kid={} inconnu ou hors {}, signature avec la clé la plus récente kid={}",
+                        activeKid, signingAlgorithm.getId(), loaded.active().kid());
+            }
+            return loaded;
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture des clés de signature impossible : " + keyDir, e);
+        }
+    }
+
+    private static SigningKey signingKey(String kid, PrivateKey privateKey) {
+        // la clé publique est dérivée de la clé privée (RSA CRT, EC, Ed25519)
+        PrivateJwk<?, ?, ?> privateJwk = Jwks.builder().key(privateKey).build();
+        PublicKey publicKey = privateJwk.toPublicJwk().toKey();
+        SignatureAlgorithm algorithm = algorithmOf(publicKey);
+
+        PublicJwk<?> jwk = kid == null
+                ? Jwks.builder().key(publicKey).idFromThumbprint()
+                        .publicKeyUse("sig").algorithm(algorithm.getId()).build()
+                : Jwks.builder().key(publicKey).id(kid)
+                        .publicKeyUse("sig").algorithm(algorithm.getId()).build();
+        return new SigningKey(jwk.getId(), algorithm, privateKey, publicKey, jwk);
+    }
+
+    /** Algorithme de signature déduit du type de clé */
+    static SignatureAlgorithm algorithmOf(PublicKey publicKey) {
+        if (publicKey instanceof RSAPublicKey) {
+            return Jwts.SIG.RS256;
+        }
+        if (publicKey instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() == 256) {
+            return Jwts.SIG.ES256;
+        }
+        if (publicKey instanceof EdECPublicKey ed && "Ed25519".equals(ed.getParams().getName())) {
+            return Jwts.SIG.EdDSA;
+        }
+        throw new IllegalStateException("Type de clé non supporté : " + publicKey.getAlgorithm());
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String id) {
+        return Stream.of(Jwts.SIG.RS256, Jwts.SIG.ES256, Jwts.SIG.EdDSA)
+                .filter(alg -> alg.getId().equalsIgnoreCase(id.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "app.security.jwt.signing-algorithm invalide : " + id + " (RS256, ES256, EdDSA)"));
+    }
+
+    /**
+     * Clé de signature.
+     *
+     * @param kid identifiant porté par le header des tokens et publié dans le JWKS
+     * @param algorithm algorithme de signature correspondant au type de clé
+     * @param jwk représentation publique (JWK), publiée telle quelle
+     */
+    public record SigningKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey,
+                             PublicKey publicKey, PublicJwk<?> jwk) {}
+
+    private record KeyFile(SigningKey key, FileTime modified) {}
+
+    /** État immuable, remplacé en bloc à chaque rechargement */
+    private record KeySet(SigningKey active, List<SigningKey> published, String json) {
+
+        /** @param keys clés publiées, la plus récente en tête (clé active par défaut) */
+        static KeySet of(List<SigningKey> keys, String activeKid, SignatureAlgorithm signingAlgorithm) {
+            List<SigningKey> candidates = keys.stream()
+                    .filter(k -> k.algorithm().equals(signingAlgorithm))
+                    .toList();
+            if (candidates.isEmpty()) {
+                throw new IllegalStateException("Aucune clé " + signingAlgorithm.getId() + " parmi "
+                        + keys.stream().map(SigningKey::kid).toList());
+            }
+            SigningKey active = candidates.stream()
+                    .filter(k -> k.kid().equals(activeKid))
+                    .findFirst()
+                    .orElse(candidates.get(0));
+            String json = keys.stream()
+                    .map(k -> Jwks.json(k.jwk()))
+                    .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+            return new KeySet(active, List.copyOf(keys), json);
+        }
+    }
+}
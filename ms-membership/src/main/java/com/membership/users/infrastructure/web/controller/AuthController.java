@@ -4,37 +4,84 @@ import com.membership.users.application.dto.LoginRequestDto;
 import com.membership.users.application.dto.LoginResponseDto;
 import com.membership.users.domain.entity.User;
 import com.membership.users.domain.repository.UserRepository;
+import com.membership.users.infrastructure.exception.PasswordHashingBusyException;
 import com.membership.users.infrastructure.security.JwtIssuerService;
+import com.membership.users.infrastructure.security.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Connexion : vérification du mot de passe (PasswordHasher, pool borné) puis émission du JWT.
+ *
+ * Métrique : auth.login{outcome=success|invalid_credentials|busy} (percentiles de latence).
+ */
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
     private final UserRepository userRepository;
     private final JwtIssuerService jwtIssuerService;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
 
-    public AuthController(UserRepository userRepository, JwtIssuerService jwtIssuerService) {
+    private final Timer loginSuccess;
+    private final Timer loginInvalid;
+    private final Timer loginBusy;
+
+    public AuthController(UserRepository userRepository,
+                          JwtIssuerService jwtIssuerService,
+                          PasswordHasher passwordHasher,
+                          MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.jwtIssuerService = jwtIssuerService;
+        this.passwordHasher = passwordHasher;
+        this.loginSuccess = loginTimer(meterRegistry, "success");
+        this.loginInvalid = loginTimer(meterRegistry, "invalid_credentials");
+        this.loginBusy = loginTimer(meterRegistry, "busy");
     }
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponseDto> login(@RequestBody LoginRequestDto req) {
+        long start = System.nanoTime();
+        Timer outcome = loginInvalid;
+        try {
+            ResponseEntity<LoginResponseDto> response = authenticate(req);
+            outcome = loginSuccess;
+            return response;
+        } catch (PasswordHashingBusyException e) {
+            outcome = loginBusy;
+            throw e;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ResponseEntity<LoginResponseDto> authenticate(LoginRequestDto req) {
 
         User user = userRepository.findByEmail(req.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
 
-        
-        if (!encoder.matches(req.getPassword(), user.getPasswordHash())) {
+        String passwordHash = user.getPasswordHash();
+        if (!passwordHasher.matches(req.getPassword(), passwordHash)) {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
+        // paramètres de hachage modifiés depuis le dernier calcul : nouveau haché en tâche de fond
+        if (passwordHasher.needsRehash(passwordHash)) {
+            Long userId = user.getId();
+            passwordHasher.rehashAsync(req.getPassword(), newHash -> {
+                if (userRepository.updatePasswordHash(userId, passwordHash, newHash) == 1) {
+                    log.info("Mot de passe rehaché userId={}", userId);
+                }
+            });
+        }
+
         // roles minimal (si tu n'as pas de champ roles en DB, mets juste USER)
         List<String> roles = List.of("USER");
 
@@ -44,4 +91,13 @@ public class AuthController {
 
         return ResponseEntity.ok(new LoginResponseDto(token, expiresIn));
     }
-}
\ No newline at end of file
+
+    private static Timer loginTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.login")
+                .description("Latence de connexion (vérification du mot de passe + émission du JWT)")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
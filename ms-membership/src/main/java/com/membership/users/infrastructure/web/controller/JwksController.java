@@ -0,0 +1,41 @@
+package com.membership.users.infrastructure.web.controller;
+
+import com.membership.users.infrastructure.security.SigningKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publication des clés publiques de signature (JWK Set, RFC 7517).
+ *
+ * ms-order et ms-product récupèrent ce document, le gardent en mémoire et
+ * le relisent périodiquement ou à la rencontre d'un kid inconnu.
+ */
+@RestController
+@Tag(name = "Auth", description = "Clés publiques de vérification des JWT")
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final SigningKeyRing keyRing;
+
+    public JwksController(SigningKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @Operation(summary = "Clés publiques de signature (JWKS)")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.jwksJson());
+    }
+}
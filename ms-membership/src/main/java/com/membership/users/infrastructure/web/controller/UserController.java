@@ -16,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.membership.users.application.dto.UserChangeDTO;
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.service.UserService;
@@ -226,6 +227,36 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/v1/users/changes?after={id}&limit={limit}
+     * Récupère les désactivations et suppressions d'utilisateurs postérieures au curseur
+     * (utilisé par ms-order pour invalider son cache d'utilisateurs)
+     *
+     * @param after Id du dernier changement déjà lu (0 pour lire depuis le début)
+     * @param limit Nombre maximum de changements renvoyés
+     * @return Liste des changements, triée par id croissant
+     */
+    @Operation(summary = "Récupérer les changements d'utilisateurs",
+               description = "Retourne les désactivations et suppressions postérieures au curseur")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changements récupérés avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                     schema = @Schema(implementation = UserChangeDTO.class)))
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<UserChangeDTO>> getUserChanges(
+            @Parameter(description = "Id du dernier changement déjà lu")
+            @RequestParam(defaultValue = "0") Long after,
+            @Parameter(description = "Nombre maximum de changements (1-1000)")
+            @RequestParam(defaultValue = "500") int limit) {
+
+        log.debug("GET /api/v1/users/changes?after={} - Lecture des changements d'utilisateurs", after);
+
+        List<UserChangeDTO> changes = userService.getChangesAfter(after, Math.max(1, Math.min(limit, 1000)));
+
+        return ResponseEntity.ok(changes);
+    }
+
     /**
      * GET /api/v1/users/active
      * Récupère tous les utilisateurs actifs
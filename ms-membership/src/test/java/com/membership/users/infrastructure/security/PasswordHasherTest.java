@@ -0,0 +1,108 @@
+package com.membership.users.infrastructure.security;
+
+import com.membership.users.infrastructure.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encode_shouldProducePrefixedHash_thatMatches() {
+        hasher = hasher(encoder("bcrypt", 4), 2, 10);
+
+        String hash = hasher.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(3, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()
+                + meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    // haché historique sans préfixe : vérifié en BCrypt, puis rehaché avec les paramètres courants
+    @Test
+    void legacyHash_shouldMatch_andBeRehashed() throws Exception {
+        hasher = hasher(encoder("bcrypt", 5), 2, 10);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(hasher.matches("secret", legacy));
+        assertTrue(hasher.needsRehash(legacy));
+
+        CountDownLatch rehashed = new CountDownLatch(1);
+        String[] newHash = new String[1];
+        assertTrue(hasher.rehashAsync("secret", h -> {
+            newHash[0] = h;
+            rehashed.countDown();
+        }));
+
+        assertTrue(rehashed.await(5, TimeUnit.SECONDS));
+        assertTrue(newHash[0].startsWith("{bcrypt}$2a$05$"));
+        assertFalse(hasher.needsRehash(newHash[0]));
+    }
+
+    // coût relevé ou changement d'algorithme : les hachés existants sont à recalculer
+    @Test
+    void needsRehash_shouldDetectWeakerStrength_andOtherAlgorithm() {
+        hasher = hasher(encoder("bcrypt", 6), 1, 1);
+
+        assertTrue(hasher.needsRehash("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(hasher.needsRehash("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret")));
+        assertTrue(hasher.needsRehash(encoder("argon2", 4).encode("secret")));
+    }
+
+    // pool saturé (1 calcul en cours, file pleine) : refus immédiat en PasswordHashingBusyException
+    @Test
+    void matches_shouldFailFast_whenPoolSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        hasher = hasher(blocking, 1, 1);
+
+        assertTrue(hasher.rehashAsync("a", h -> { }));
+        assertTrue(hasher.rehashAsync("b", h -> { }));
+
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> hasher.matches("c", "$2a$04$x"));
+            assertFalse(hasher.rehashAsync("d", h -> { }));
+            assertEquals(2.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private PasswordHasher hasher(PasswordEncoder encoder, int maxConcurrent, int queueCapacity) {
+        return new PasswordHasher(encoder, meterRegistry, maxConcurrent, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private static PasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        return new PasswordHashingConfig().passwordEncoder(algorithm, bcryptStrength, 16, 32, 1, 1024, 1);
+    }
+}
@@ -0,0 +1,30 @@
+package com.episen.order.application.dto;
+
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO représentant un événement de commande (outbox) :
+ * publié vers le sink et servi par GET /api/v1/orders/events?after=...
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventDto {
+
+    private Long id;
+    /** Numéro de publication, curseur : à repasser dans ?after= pour lire la suite du flux */
+    private Long sequence;
+    private OrderEventType eventType;
+    private Long orderId;
+    private Long userId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
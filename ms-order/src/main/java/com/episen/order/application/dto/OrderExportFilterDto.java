@@ -0,0 +1,25 @@
+package com.episen.order.application.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtres de l'export des commandes (GET /api/v1/orders/export).
+ * Tous les critères sont optionnels.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderExportFilterDto {
+
+    /** Date de création minimale (incluse) */
+    private LocalDateTime from;
+
+    /** Date de création maximale (exclue) */
+    private LocalDateTime to;
+
+    /** Statut de commande (ex : DELIVERED) */
+    private String status;
+}
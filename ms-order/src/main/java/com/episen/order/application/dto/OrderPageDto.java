@@ -0,0 +1,25 @@
+package com.episen.order.application.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page de commandes (pagination par curseur sur (createdAt, id)).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDto {
+
+    private List<OrderResponseDto> items;
+
+    /** Taille de page appliquée */
+    private int size;
+
+    /** Curseur de la page suivante, null s'il n'y a plus de commandes */
+    private String nextCursor;
+
+    private boolean hasNext;
+}
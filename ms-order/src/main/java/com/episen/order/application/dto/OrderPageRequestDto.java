@@ -0,0 +1,23 @@
+package com.episen.order.application.dto;
+
+import lombok.*;
+
+/**
+ * Paramètres de pagination par curseur (keyset) des listes de commandes.
+ * Lié aux paramètres de requête : ?cursor=...&size=...&sort=desc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageRequestDto {
+
+    /** Curseur opaque renvoyé dans nextCursor par la page précédente (absent pour la première page) */
+    private String cursor;
+
+    /** Taille de page (bornée côté serveur) ; taille par défaut si absente */
+    private Integer size;
+
+    /** Ordre sur (createdAt, id) : "desc" (défaut, plus récentes d'abord) ou "asc" */
+    private String sort;
+}
@@ -0,0 +1,28 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO utilisé par ms-order pour réserver temporairement le stock de toutes
+ * les lignes d'une commande sur ms-product (POST /api/v1/products/stock/holds).
+ *
+ * JSON envoyé :
+ * {
+ *   "lines": [ { "productId": 1, "quantity": 2 }, ... ]
+ * }
+ * Sans ttlSeconds, ms-product applique sa durée de réservation par défaut.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequestDto {
+
+    private List<StockReservationLineDto> lines;
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,24 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Réponse de ms-product à une réservation temporaire de stock.
+ * reserved = true uniquement si toutes les lignes sont réservées (tout ou rien) ;
+ * holdId identifie alors la réservation à confirmer ou libérer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldResponseDto {
+
+    private String holdId;
+    private boolean reserved;
+    private List<StockReservationLineResultDto> lines;
+}
@@ -0,0 +1,27 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une ligne de réservation de stock tel que renvoyé par ms-product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLineResultDto {
+
+    private Long productId;
+    private Integer quantity;
+    private Status status;
+
+    public enum Status {
+        RESERVED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        ROLLED_BACK
+    }
+}
@@ -0,0 +1,27 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO d'un changement de cycle de vie d'un utilisateur tel que renvoyé par ms-user
+ * (GET /api/v1/users/changes).
+ *
+ * Utilisé uniquement pour invalider le cache d'existence des utilisateurs :
+ *  - type : DEACTIVATED ou DELETED ;
+ *  - id : curseur croissant pour lire les changements suivants.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeDto {
+    private Long id;
+    private Long userId;
+    private String type;
+    private LocalDateTime occurredAt;
+}
@@ -24,4 +24,6 @@ public class UserDto {
     private String firstName;
     private String lastName;
     private String email;
+    /** false : utilisateur désactivé, traité comme inexistant par ms-order */
+    private Boolean active;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.episen.order.application.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.entity.OrderEvent;
+
+/**
+ * Mapper pour convertir un OrderEvent (outbox) en OrderEventDto.
+ */
+@Component
+public class OrderEventMapper {
+
+    public OrderEventDto toDto(OrderEvent event) {
+        return OrderEventDto.builder()
+                .id(event.getId())
+                .sequence(event.getPublishSeq())
+                .eventType(event.getEventType())
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .previousStatus(event.getPreviousStatus())
+                .status(event.getStatus())
+                .totalAmount(event.getTotalAmount())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
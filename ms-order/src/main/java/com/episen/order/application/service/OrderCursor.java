@@ -0,0 +1,51 @@
+package com.episen.order.application.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Curseur de pagination des commandes : position (createdAt, id) de la dernière commande
+ * d'une page, et sens de tri utilisé.
+ *
+ * Encodé en base64url ("DESC|2025-01-01T10:00:00.123456|42") pour rester opaque côté client.
+ */
+record OrderCursor(Sort.Direction direction, LocalDateTime createdAt, Long id) {
+
+    static final String CREATED_AT = "createdAt";
+    static final String ID = "id";
+
+    static OrderCursor of(Sort.Direction direction, ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        return new OrderCursor(direction, (LocalDateTime) keys.get(CREATED_AT), (Long) keys.get(ID));
+    }
+
+    ScrollPosition toScrollPosition() {
+        return ScrollPosition.forward(Map.of(CREATED_AT, createdAt, ID, id));
+    }
+
+    String encode() {
+        String raw = direction.name() + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Curseur invalide : " + cursor);
+            }
+            return new OrderCursor(Sort.Direction.valueOf(parts[0]),
+                    LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur invalide : " + cursor);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.application.mapper.OrderEventMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderEvent;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Outbox des événements de commande.
+ *
+ * Les méthodes record* doivent être appelées dans la transaction qui modifie la commande :
+ * l'événement est alors écrit si et seulement si la modification est validée.
+ * La publication est faite plus tard par OrderEventRelay.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventService {
+
+    /** Taille maximale d'une page du flux GET /api/v1/orders/events */
+    static final int MAX_FEED_SIZE = 500;
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventMapper orderEventMapper;
+
+    public void recordCreated(Order order) {
+        append(OrderEventType.ORDER_CREATED, order, null, order.getStatus());
+    }
+
+    public void recordStatusChanged(Order order, OrderStatus previousStatus) {
+        append(OrderEventType.ORDER_STATUS_CHANGED, order, previousStatus, order.getStatus());
+    }
+
+    public void recordDeleted(Order order) {
+        append(OrderEventType.ORDER_DELETED, order, order.getStatus(), order.getStatus());
+    }
+
+    /**
+     * Flux des événements publiés dont le numéro de publication est strictement supérieur au curseur.
+     *
+     * @param after curseur (sequence du dernier événement lu, 0 pour lire depuis le début)
+     * @param limit nombre maximal d'événements (borné à MAX_FEED_SIZE)
+     */
+    public List<OrderEventDto> getEventsAfter(long after, int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("Le curseur 'after' doit être positif ou nul");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Le paramètre 'limit' doit être strictement positif");
+        }
+
+        return orderEventRepository
+                .findByPublishSeqGreaterThanOrderByPublishSeqAsc(
+                        after, PageRequest.of(0, Math.min(limit, MAX_FEED_SIZE)))
+                .stream()
+                .map(orderEventMapper::toDto)
+                .toList();
+    }
+
+    private void append(OrderEventType type, Order order, OrderStatus previousStatus, OrderStatus status) {
+        orderEventRepository.save(OrderEvent.builder()
+                .eventType(type)
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .previousStatus(previousStatus)
+                .status(status)
+                .totalAmount(order.getTotalAmount())
+                .build());
+    }
+}
@@ -0,0 +1,119 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderExportFilterDto;
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export des commandes au format NDJSON (un objet JSON par ligne) pour les jobs de reporting.
+ *
+ * Mémoire constante quel que soit le volume :
+ *  - les commandes sont lues en flux (Stream JPA, fetch size côté JDBC) ;
+ *  - elles sont traitées par paquets de EXPORT_CHUNK_SIZE : les items d'un paquet sont
+ *    chargés en une requête (BatchSize sur Order.items), écrits, puis le contexte de
+ *    persistance est vidé avant le paquet suivant ;
+ *  - chaque paquet est envoyé au client dès qu'il est écrit.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    /** Taille d'un paquet : alignée sur le BatchSize de Order.items (une requête d'items par paquet) */
+    static final int EXPORT_CHUNK_SIZE = 200;
+
+    private static final byte NEW_LINE = '\n';
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter orderWriter;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              OrderMapper orderMapper,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.entityManager = entityManager;
+        this.orderWriter = objectMapper.writerFor(OrderResponseDto.class);
+    }
+
+    /**
+     * Écrit les commandes filtrées (triées par date de création) dans le flux de sortie.
+     *
+     * @return nombre de commandes exportées
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OrderExportFilterDto filter, OutputStream out) throws IOException {
+
+        OrderExportFilterDto criteria = filter == null ? new OrderExportFilterDto() : filter;
+
+        // 1) Validation des filtres
+        if (criteria.getFrom() != null && criteria.getTo() != null
+                && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new IllegalArgumentException("La date 'from' doit être antérieure à la date 'to'");
+        }
+        OrderStatus status = parseStatus(criteria.getStatus());
+
+        // 2) Lecture en flux + écriture par paquets
+        long exported = 0;
+        try (Stream<Order> orders = orderRepository.streamForExport(criteria.getFrom(), criteria.getTo(), status)) {
+
+            Iterator<Order> iterator = orders.iterator();
+            List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(chunk, out);
+                    exported += chunk.size();
+                    chunk.clear();
+
+                    // libère les entités déjà écrites : la mémoire ne grossit pas avec l'export
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.info("Export NDJSON terminé : {} commandes (from={}, to={}, status={})",
+                exported, criteria.getFrom(), criteria.getTo(), status);
+        return exported;
+    }
+
+    private void writeChunk(List<Order> chunk, OutputStream out) throws IOException {
+        for (Order order : chunk) {
+            out.write(orderWriter.writeValueAsBytes(orderMapper.toDto(order)));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Statut de commande invalide : " + status);
+        }
+    }
+}
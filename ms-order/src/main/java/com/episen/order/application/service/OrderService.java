@@ -1,7 +1,8 @@
 package com.episen.order.application.service;
 
 import com.episen.order.application.dto.*;
-import java.util.List;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service métier pour la gestion des commandes.
@@ -11,13 +12,15 @@ public interface OrderService {
 
     OrderResponseDto createOrder(OrderRequestDto request);
 
+    CompletableFuture<OrderResponseDto> createOrderAsync(OrderRequestDto request);
+
     OrderResponseDto getOrderById(Long id);
 
-    List<OrderResponseDto> getAllOrders();
+    OrderPageDto getAllOrders(OrderPageRequestDto page);
 
-    List<OrderResponseDto> getOrdersByUser(Long userId);
+    OrderPageDto getOrdersByUser(Long userId, OrderPageRequestDto page);
 
-    List<OrderResponseDto> getOrdersByStatus(String status);
+    OrderPageDto getOrdersByStatus(String status, OrderPageRequestDto page);
 
     OrderResponseDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto request);
 
@@ -1,6 +1,8 @@
 package com.episen.order.application.service;
 
 import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderPageDto;
+import com.episen.order.application.dto.OrderPageRequestDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
 import com.episen.order.application.mapper.OrderItemMapper;
@@ -12,29 +14,50 @@ import com.episen.order.domain.repository.OrderRepository;
 import com.episen.order.infrastructure.client.ProductClient;
 import com.episen.order.infrastructure.client.UserClient;
 import com.episen.order.application.dto.ProductDto;
-import com.episen.order.application.dto.UserDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationLineResultDto;
+import com.episen.order.application.dto.StockHoldResponseDto;
 import com.episen.order.infrastructure.exception.UserNotFoundException;
 import com.episen.order.infrastructure.exception.ProductNotFoundException;
 import com.episen.order.infrastructure.exception.InsufficientStockException;
 import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.exception.StockHoldConflictException;
+import com.episen.order.infrastructure.exception.StockHoldExpiredException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.episen.order.infrastructure.exception.OrderNotFoundException;
 import com.episen.order.infrastructure.exception.OrderNotModifiableException;
 
+import com.episen.order.infrastructure.config.RestTemplateConfig;
 import com.episen.order.infrastructure.metrics.OrderMetrics;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import com.episen.order.infrastructure.security.TrustedUserClaims;
 
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.http.HttpStatus;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Service
@@ -47,6 +70,26 @@ public class OrderServiceImpl implements OrderService {
     private final UserClient userClient;
     private final ProductClient productClient;
     private final OrderMetrics orderMetrics;
+    private final ExecutorService outboundCallExecutor;
+    private final StockCompensationCoordinator stockCompensationCoordinator;
+    private final OrderEventService orderEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final TrustedUserClaims trustedUserClaims;
+
+    /** Taille maximale d'un lot accepté par GET /api/v1/products?ids=... (ms-product) */
+    private static final int PRODUCT_BATCH_SIZE = 100;
+
+    /** Taille de page des listes de commandes quand le client n'en précise pas */
+    @Value("${app.orders.pagination.default-size:50}")
+    private int defaultPageSize = 50;
+
+    /** Taille de page maximale acceptée (au-delà, la taille est ramenée à cette borne) */
+    @Value("${app.orders.pagination.max-size:200}")
+    private int maxPageSize = 200;
+
+    /** Création de commande avec les lectures non bloquantes de UserClient / ProductClient (createOrderAsync) */
+    @Value("${" + RestTemplateConfig.ASYNC_ENABLED_PROPERTY + ":false}")
+    private boolean asyncOutboundCalls = false;
 
    @Override
     public OrderResponseDto createOrder(OrderRequestDto request) {
@@ -59,109 +102,152 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // ─────────────────────────────────────────────
-        // 2) VALIDATION : vérifier que l'utilisateur existe (ms-user)
+        // 2) VALIDATION : vérifier que l'utilisateur existe
+        //    -> mode claims-trusted : le token vérifié (même userId, émis récemment) suffit
+        //    -> sinon ms-user, via le cache d'existence
         // ─────────────────────────────────────────────
-        UserDto user;
-        try {
-            user = userClient.getUserById(request.getUserId());
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new UserNotFoundException(request.getUserId());
-            }
-            throw new ServiceUnavailableException("USER_SERVICE");
-        } catch (RestClientException e) {
-            throw new ServiceUnavailableException("USER_SERVICE");
-        }
-
-        if (user == null) {
-            throw new UserNotFoundException(request.getUserId());
+        if (trustedUserClaims.vouchesFor(request.getUserId())) {
+            orderMetrics.incrementUserCheck("token_claims");
+        } else {
+            requireUserExists(request.getUserId());
+            orderMetrics.incrementUserCheck("user_client");
         }
 
         // ─────────────────────────────────────────────
         // 3) CONSTRUCTION DE L’ENTITÉ ORDER (sans items, sans total)
-        //    -> mapper "pauvre" + enrichissement dans le service
         // ─────────────────────────────────────────────
+        Order order = newPendingOrder(request);
+
+        // ─────────────────────────────────────────────
+        // 4) RÉCUPÉRATION DES PRODUITS (nom + prix) PAR LOTS
+        //    -> cache local à TTL court, puis un appel groupé par lot de 100 produits manquants,
+        //       lots envoyés en parallèle
+        // ─────────────────────────────────────────────
+        Map<Long, ProductDto> products = fetchProducts(request.getItems());
+
+        // 5) à 9) : lignes, réservation du stock, persistance
+        return placeOrder(request, order, products);
+    }
+
+    /**
+     * Variante non bloquante de createOrder() quand app.http.client.async.enabled est actif :
+     * - la vérification de l'utilisateur et la récupération des produits partent en même temps,
+     *   sans thread en attente (UserClient / ProductClient via AsyncHttpExchange) ;
+     * - la suite (réservation du stock, transaction) reste bloquante : elle s'exécute sur un thread
+     *   virtuel d'outboundCallExecutor, avec l'AuthContext de la requête (AuthContextHolder.bound).
+     * Le thread de la requête est rendu dès le retour de la méthode (contrôleur asynchrone).
+     *
+     * Désactivé : createOrder() exécuté sur le thread appelant, future déjà complétée.
+     * Les erreurs sont celles de createOrder(), portées par la future (CompletionException).
+     */
+    @Override
+    public CompletableFuture<OrderResponseDto> createOrderAsync(OrderRequestDto request) {
+        if (!asyncOutboundCalls) {
+            return CompletableFuture.completedFuture(createOrder(request));
+        }
+
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("La commande doit contenir au moins un article.");
+        }
+
+        Executor requestContext = AuthContextHolder.bound(outboundCallExecutor);
+        Order order = newPendingOrder(request);
+
+        CompletableFuture<Void> userCheck = requireUserExistsAsync(request.getUserId());
+        CompletableFuture<Map<Long, ProductDto>> products = fetchProductsAsync(request.getItems());
+
+        return userCheck
+                .thenCombine(products, (checked, fetched) -> fetched)
+                .thenApplyAsync(fetched -> placeOrder(request, order, fetched), requestContext);
+    }
+
+    /** Commande PENDING datée de maintenant, sans lignes ni total (mapper "pauvre" + enrichissement) */
+    private Order newPendingOrder(OrderRequestDto request) {
         Order order = orderMapper.toEntityFromRequest(request);
         order.setStatus(OrderStatus.PENDING);               // statut initial
         order.setOrderDate(LocalDateTime.now());            // date de commande
-        // totalAmount, items seront remplis plus bas
+        // totalAmount, items seront remplis par placeOrder()
+        return order;
+    }
+
+    /**
+     * Étapes 5 à 9 de la création : lignes et total, réservation du stock, sauvegarde
+     * (commande + événement ORDER_CREATED), compensation de la réservation si la sauvegarde échoue.
+     */
+    private OrderResponseDto placeOrder(OrderRequestDto request, Order order, Map<Long, ProductDto> products) {
 
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         // ─────────────────────────────────────────────
-        // 4) POUR CHAQUE ITEM : vérifier le produit, le stock, calculer le sous-total
+        // 5) POUR CHAQUE ITEM : vérifier le stock, calculer le sous-total
         // ─────────────────────────────────────────────
        for (OrderItemRequestDto itemDto : request.getItems()) {
 
-    // 4.1) Récupérer le produit sur ms-product
-    ProductDto product;
-    try {
-        product = productClient.getProductById(itemDto.getProductId());
-    } catch (HttpClientErrorException e) {
-        if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-            throw new ProductNotFoundException(itemDto.getProductId());
-        }
-        throw new ServiceUnavailableException("PRODUCT_SERVICE");
-    } catch (RestClientException e) {
-        throw new ServiceUnavailableException("PRODUCT_SERVICE");
-    }
+    // 5.1) Produit déjà récupéré sur ms-product
+    ProductDto product = products.get(itemDto.getProductId());
 
-    if (product == null) {
-        throw new ProductNotFoundException(itemDto.getProductId());
-    }
-
-    // 4.2) Vérifier le stock disponible
-    if (product.getStock() == null || product.getStock() < itemDto.getQuantity()) {
-        throw new InsufficientStockException(itemDto.getProductId());
-    }
+    // 5.2) Stock : pas de contrôle local (instantané en cache), la réservation (étape 6)
+    //      est la seule vérification faisant foi
 
-    // 4.3) Mapper le DTO -> entité OrderItem (mapper pauvre)
+    // 5.3) Mapper le DTO -> entité OrderItem (mapper pauvre)
     OrderItem orderItem = orderItemMapper.toEntity(itemDto);
 
-    // 4.4) Enrichir l’item avec les infos produit + relation vers la commande
+    // 5.4) Enrichir l’item avec les infos produit + relation vers la commande
     orderItem.setOrder(order);
     orderItem.setProductName(product.getName());
     orderItem.setUnitPrice(product.getPrice());
 
-    // 4.5) Calculer le subtotal : unitPrice * quantity
+    // 5.5) Calculer le subtotal : unitPrice * quantity
     BigDecimal lineTotal = product.getPrice()
             .multiply(BigDecimal.valueOf(itemDto.getQuantity()));
     orderItem.setSubtotal(lineTotal);
 
-    // 4.6) Accumuler le total de la commande
+    // 5.6) Accumuler le total de la commande
     totalAmount = totalAmount.add(lineTotal);
 
-    // 4.7) Ajouter l’item à la liste
+    // 5.7) Ajouter l’item à la liste
     orderItems.add(orderItem);
-
-    // 4.8) BUSINESS RULE : à la création, déduire les quantités du stock
-    Integer currentStock = product.getStock();
-    int requestedQty = itemDto.getQuantity();
-    int newStock = currentStock - requestedQty;
-
-    productClient.updateProductStock(product.getId(), newStock);
-
-    log.debug("Stock mis à jour pour productId={} : {} -> {}",
-            product.getId(), currentStock, newStock);
 }
 
         // ─────────────────────────────────────────────
-        // 5) Finaliser l’entité Order (items + totalAmount)
+        // 6) BUSINESS RULE : à la création, réserver les quantités
+        //    -> un seul appel, réservation temporaire côté ms-product (tout ou rien) ;
+        //       confirmée ou libérée au changement de statut, libérée à expiration sinon
+        // ─────────────────────────────────────────────
+        String stockHoldId = placeStockHold(request.getItems().stream()
+                .map(item -> new StockReservationLineDto(item.getProductId(), item.getQuantity()))
+                .toList());
+
+        // ─────────────────────────────────────────────
+        // 7) Finaliser l’entité Order (items + totalAmount + réservation)
         // ─────────────────────────────────────────────
         order.setItems(orderItems);
         order.setTotalAmount(totalAmount);
+        order.setStockHoldId(stockHoldId);
 
         // ─────────────────────────────────────────────
-        // 6) PERSISTENCE : sauvegarder la commande (cascade => sauvegarde aussi les items)
+        // 8) PERSISTENCE : sauvegarder la commande (cascade => sauvegarde aussi les items)
+        //    + événement ORDER_CREATED dans l'outbox, dans la même transaction
+        //    -> en cas d'échec, la réservation de stock est compensée (libérée en tâche de fond)
         // ─────────────────────────────────────────────
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(tx -> {
+                Order saved = orderRepository.save(order);
+                orderEventService.recordCreated(saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            stockCompensationCoordinator.releaseStockHold(stockHoldId, "ORDER_SAVE_FAILED");
+            throw e;
+        }
 
         // métrique : 1 commande créée dans le statut initial
         orderMetrics.incrementOrdersCreated(savedOrder.getStatus());
 
         // ─────────────────────────────────────────────
-        // 7) MAPPING : entité -> DTO de réponse
+        // 9) MAPPING : entité -> DTO de réponse
         // ─────────────────────────────────────────────
         return orderMapper.toDto(savedOrder);
     }
@@ -169,53 +255,31 @@ public class OrderServiceImpl implements OrderService {
     @Override
 public OrderResponseDto getOrderById(Long id) {
 
-    Order order = orderRepository.findById(id)
+    Order order = orderRepository.findWithItemsById(id)
             .orElseThrow(() -> new OrderNotFoundException(id));
 
     return orderMapper.toDto(order);
 }
 
     @Override
-    public List<OrderResponseDto> getAllOrders() {
+    public OrderPageDto getAllOrders(OrderPageRequestDto page) {
 
-        // 1) Charger toutes les commandes depuis la base
-        List<Order> orders = orderRepository.findAll();
-
-        // 2) Mapper les entités -> DTO de réponse
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        // 1) Page suivante (keyset) : requête bornée par LIMIT, quelle que soit la taille de la table
+        return toPage(page, (position, sort, limit) -> orderRepository.findBy(position, sort, limit));
     }
 
    @Override
-    public List<OrderResponseDto> getOrdersByUser(Long userId) {
+    public OrderPageDto getOrdersByUser(Long userId, OrderPageRequestDto page) {
 
-        // 1) Vérifier que l’utilisateur existe (ms-user)
-        try {
-            userClient.getUserById(userId);
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new UserNotFoundException(userId);
-            }
-            throw new ServiceUnavailableException("USER_SERVICE");
-        } catch (RestClientException e) {
-            throw new ServiceUnavailableException("USER_SERVICE");
-        }
+        // 1) Vérifier que l’utilisateur existe (ms-user, via le cache d'existence)
+        requireUserExists(userId);
 
-        // 2) Récupérer les commandes
-        List<Order> orders = orderRepository.findByUserId(userId);
-
-        if (orders == null || orders.isEmpty()) {
-            return List.of();
-        }
-
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        // 2) Récupérer la page de commandes
+        return toPage(page, (position, sort, limit) -> orderRepository.findByUserId(userId, position, sort, limit));
     }
 
     @Override
-    public List<OrderResponseDto> getOrdersByStatus(String status) {
+    public OrderPageDto getOrdersByStatus(String status, OrderPageRequestDto page) {
 
         OrderStatus orderStatus;
 
@@ -228,18 +292,8 @@ public OrderResponseDto getOrderById(Long id) {
             );
         }
 
-        // 2) Récupération des commandes
-        List<Order> orders = orderRepository.findByStatus(orderStatus);
-
-        // 3) Jamais null → liste vide si rien
-        if (orders == null || orders.isEmpty()) {
-            return List.of();
-        }
-
-        // 4) Mapping entités -> DTOs
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        // 2) Récupération de la page de commandes
+        return toPage(page, (position, sort, limit) -> orderRepository.findByStatus(orderStatus, position, sort, limit));
     }
 
     @Override
@@ -267,13 +321,30 @@ public OrderResponseDto getOrderById(Long id) {
         // 4) Mise à jour
         order.setStatus(newStatus);
 
-        // 5) Sauvegarde
-        Order savedOrder = orderRepository.save(order);
+        // 5) Sauvegarde + événement ORDER_STATUS_CHANGED (même transaction)
+        //    -> avant toute mutation de stock : un échec ici ne laisse aucune réservation
+        //       confirmée ou rendue pour une commande restée dans son ancien statut
+        Order savedOrder = transactionTemplate.execute(tx -> {
+            Order saved = orderRepository.save(order);
+            orderEventService.recordStatusChanged(saved, oldStatus);
+            return saved;
+        });
 
         // métrique : changement de statut (old -> new)
         orderMetrics.incrementOrderStatusChanged(oldStatus, newStatus);
 
-        // 6) Mapping
+        // 6) BUSINESS RULE : stock de la commande selon la transition
+        //    -> sortie de PENDING : réservation confirmée (commande repassée PENDING en cas d'échec)
+        //    -> annulation : réservation libérée (PENDING) ou stock remis (après confirmation)
+        if (savedOrder.getStockHoldId() != null) {
+            if (newStatus == OrderStatus.CANCELLED) {
+                returnStock(savedOrder, oldStatus, "ORDER_CANCELLED");
+            } else if (oldStatus == OrderStatus.PENDING && newStatus != OrderStatus.PENDING) {
+                confirmStockHoldOrRevert(savedOrder);
+            }
+        }
+
+        // 7) Mapping
         return orderMapper.toDto(savedOrder);
     }
     @Override
@@ -297,8 +368,369 @@ public OrderResponseDto getOrderById(Long id) {
         }
 
         // ─────────────────────────────────────────────
-        // 3) Suppression
+        // 3) Suppression + événement ORDER_DELETED (même transaction)
+        //    (+ réservation libérée si encore PENDING, stock remis si déjà confirmée)
         // ─────────────────────────────────────────────
-        orderRepository.delete(order);
+        transactionTemplate.executeWithoutResult(tx -> {
+            orderRepository.delete(order);
+            orderEventService.recordDeleted(order);
+        });
+
+        if (order.getStockHoldId() != null) {
+            returnStock(order, order.getStatus(), "ORDER_DELETED");
+        }
+    }
+
+    /**
+     * Rend au stock les quantités d'une commande annulée ou supprimée (en tâche de fond,
+     * StockCompensationCoordinator) :
+     * - encore PENDING : la réservation est simplement libérée ;
+     * - CONFIRMED / SHIPPED : la réservation a été confirmée, le stock est réincrémenté.
+     * Une commande DELIVERED ne rend rien (marchandise livrée).
+     */
+    private void returnStock(Order order, OrderStatus statusBefore, String reason) {
+        switch (statusBefore) {
+            case PENDING -> stockCompensationCoordinator.releaseStockHold(order.getStockHoldId(), reason);
+            case CONFIRMED, SHIPPED -> stockCompensationCoordinator.restockStockHold(order.getStockHoldId(), reason);
+            default -> { }
+        }
+    }
+
+    /**
+     * Vérifie l'existence d'un utilisateur (cache positif / négatif de UserClient,
+     * appel à ms-user uniquement en cas d'absence ou d'expiration).
+     */
+    private void requireUserExists(Long userId) {
+        boolean exists;
+        try {
+            exists = userClient.existsById(userId);
+        } catch (RestClientException e) {
+            throw new ServiceUnavailableException("USER_SERVICE");
+        }
+
+        if (!exists) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    /**
+     * Vérification non bloquante de l'utilisateur (création de commande, mode asynchrone) :
+     * claims du token si possible, sinon UserClient.existsByIdAsync().
+     */
+    private CompletableFuture<Void> requireUserExistsAsync(Long userId) {
+        if (trustedUserClaims.vouchesFor(userId)) {
+            orderMetrics.incrementUserCheck("token_claims");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return userClient.existsByIdAsync(userId)
+                .handle((exists, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        throw new CompletionException(cause instanceof RestClientException
+                                ? new ServiceUnavailableException("USER_SERVICE")
+                                : cause);
+                    }
+                    if (!exists) {
+                        throw new UserNotFoundException(userId);
+                    }
+                    orderMetrics.incrementUserCheck("user_client");
+                    return null;
+                });
+    }
+
+    /**
+     * Variante non bloquante de fetchProducts() : un appel par lot, tous en vol en même temps,
+     * sans thread en attente. Le premier lot en échec fait échouer la future.
+     */
+    private CompletableFuture<Map<Long, ProductDto>> fetchProductsAsync(List<OrderItemRequestDto> items) {
+
+        List<Long> productIds = distinctProductIds(items);
+
+        List<CompletableFuture<List<ProductDto>>> batches = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += PRODUCT_BATCH_SIZE) {
+            batches.add(productClient.getProductSnapshotsAsync(
+                    productIds.subList(from, Math.min(from + PRODUCT_BATCH_SIZE, productIds.size()))));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(done -> indexProducts(productIds, batches.stream().map(CompletableFuture::join).toList()));
+    }
+
+    /**
+     * Récupère le nom et le prix des produits d'une commande : depuis le cache local de
+     * ProductClient, sinon via l'endpoint groupé de ms-product (GET /api/v1/products?ids=...) :
+     * au plus un appel réseau tant que la commande compte au plus PRODUCT_BATCH_SIZE produits distincts.
+     *
+     * Au-delà, les lots sont envoyés en parallèle (un thread virtuel par lot) :
+     * - outboundCallExecutor propage l'AuthContext du thread appelant (AuthContextHolder) :
+     *   ProductClient continue d'envoyer le JWT depuis chaque tâche ;
+     * - le premier échec annule les appels encore en cours et est relancé tel quel
+     *   (ProductNotFoundException, ServiceUnavailableException, ...).
+     */
+    private Map<Long, ProductDto> fetchProducts(List<OrderItemRequestDto> items) {
+
+        List<Long> productIds = distinctProductIds(items);
+
+        ExecutorCompletionService<List<ProductDto>> completionService =
+                new ExecutorCompletionService<>(outboundCallExecutor);
+        List<Future<List<ProductDto>>> futures = new ArrayList<>();
+
+        for (int from = 0; from < productIds.size(); from += PRODUCT_BATCH_SIZE) {
+            List<Long> batch = productIds.subList(from, Math.min(from + PRODUCT_BATCH_SIZE, productIds.size()));
+            futures.add(completionService.submit(() -> fetchProductBatch(batch)));
+        }
+
+        List<List<ProductDto>> batches = new ArrayList<>(futures.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                batches.add(completionService.take().get());
+            }
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+
+        } finally {
+            // no-op pour les tâches terminées, annule celles encore en vol après un échec
+            futures.forEach(f -> f.cancel(true));
+        }
+
+        return indexProducts(productIds, batches);
+    }
+
+    private static List<Long> distinctProductIds(List<OrderItemRequestDto> items) {
+        return new ArrayList<>(new LinkedHashSet<>(
+                items.stream().map(OrderItemRequestDto::getProductId).toList()));
+    }
+
+    /** Produits indexés par ID ; un ID absent de toutes les réponses = produit inexistant */
+    private static Map<Long, ProductDto> indexProducts(List<Long> productIds, List<List<ProductDto>> batches) {
+        Map<Long, ProductDto> products = new HashMap<>(productIds.size());
+        for (List<ProductDto> batch : batches) {
+            for (ProductDto product : batch) {
+                products.put(product.getId(), product);
+            }
+        }
+
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ProductNotFoundException(productId);
+            }
+        }
+        return products;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Récupère le nom et le prix d'un lot de produits (cache local, sinon ms-product)
+     * et traduit les erreurs HTTP en exceptions métier.
+     */
+    private List<ProductDto> fetchProductBatch(List<Long> productIds) {
+        try {
+            return productClient.getProductSnapshots(productIds);
+        } catch (RestClientException e) {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }
     }
-}
\ No newline at end of file
+
+    /**
+     * Charge une page de commandes triée sur (createdAt, id) à partir du curseur reçu.
+     *
+     * Pagination keyset : la requête reprend après la dernière commande de la page précédente
+     * (WHERE (createdAt, id) > curseur ... LIMIT size) au lieu d'un OFFSET, la mémoire et le
+     * temps de réponse restent constants quelle que soit la profondeur de la page.
+     */
+    private OrderPageDto toPage(OrderPageRequestDto page, OrderPageQuery query) {
+        OrderPageRequestDto request = page == null ? new OrderPageRequestDto() : page;
+
+        int size = resolvePageSize(request.getSize());
+        Sort.Direction direction = resolveDirection(request.getSort());
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            OrderCursor cursor = OrderCursor.decode(request.getCursor());
+            if (cursor.direction() != direction) {
+                throw new IllegalArgumentException("Le curseur ne correspond pas au tri demandé : " + request.getSort());
+            }
+            position = cursor.toScrollPosition();
+        }
+
+        Window<Order> window = query.find(position,
+                Sort.by(direction, OrderCursor.CREATED_AT, OrderCursor.ID), Limit.of(size));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? OrderCursor.of(direction, window.positionAt(window.size() - 1)).encode()
+                : null;
+
+        return OrderPageDto.builder()
+                .items(window.getContent().stream().map(orderMapper::toDto).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être strictement positive : " + size);
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static Sort.Direction resolveDirection(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.Direction.DESC;
+        }
+        return Sort.Direction.fromOptionalString(sort.trim())
+                .orElseThrow(() -> new IllegalArgumentException("Tri invalide (asc|desc) : " + sort));
+    }
+
+    /** Requête keyset paramétrée par la position, le tri et la limite. */
+    @FunctionalInterface
+    private interface OrderPageQuery {
+        Window<Order> find(ScrollPosition position, Sort sort, Limit limit);
+    }
+
+    /**
+     * Confirme la réservation d'une commande dont le nouveau statut est déjà enregistré.
+     *
+     * La confirmation suit la sauvegarde : si elle échoue, la commande repasse PENDING
+     * (nouvel événement ORDER_STATUS_CHANGED) et l'erreur est relancée ; la réservation,
+     * jamais confirmée, reste active jusqu'à une nouvelle confirmation ou son expiration.
+     */
+    private void confirmStockHoldOrRevert(Order order) {
+        try {
+            confirmStockHold(order);
+        } catch (StockHoldExpiredException ex) {
+            // commande déjà annulée (cancelAfterExpiredHold)
+            throw ex;
+        } catch (RuntimeException ex) {
+            revertToPending(order);
+            throw ex;
+        }
+    }
+
+    /**
+     * Remet PENDING une commande dont la réservation n'a pas pu être confirmée.
+     */
+    private void revertToPending(Order order) {
+        OrderStatus failedStatus = order.getStatus();
+        order.setStatus(OrderStatus.PENDING);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                orderRepository.save(order);
+                orderEventService.recordStatusChanged(order, failedStatus);
+            });
+            orderMetrics.incrementOrderStatusChanged(failedStatus, OrderStatus.PENDING);
+            log.warn("Commande id={} repassée PENDING : réservation de stock non confirmée", order.getId());
+        } catch (RuntimeException ex) {
+            log.error("Commande id={} laissée {} sans réservation confirmée holdId={}",
+                    order.getId(), failedStatus, order.getStockHoldId(), ex);
+        }
+    }
+
+    /**
+     * Confirme la réservation de stock d'une commande qui quitte PENDING.
+     *
+     * Une commande restée PENDING au-delà du TTL de sa réservation (STOCK_HOLD_DEFAULT_TTL)
+     * ne peut plus la confirmer (409) : l'ancienne réservation est libérée, une nouvelle est
+     * posée sur les lignes de la commande, enregistrée sur la commande puis confirmée.
+     * Si le stock ne suffit plus, la commande est annulée et StockHoldExpiredException est levée.
+     */
+    private void confirmStockHold(Order order) {
+        String expiredHoldId = order.getStockHoldId();
+        try {
+            productClient.commitStockHold(expiredHoldId);
+            return;
+        } catch (StockHoldConflictException ex) {
+            log.warn("Réservation de stock non confirmable holdId={} (commande id={}), nouvelle réservation",
+                    expiredHoldId, order.getId());
+        }
+
+        // expirée : sans effet ; encore active mais non confirmable : quantités rendues
+        stockCompensationCoordinator.releaseStockHold(expiredHoldId, "STOCK_HOLD_EXPIRED");
+
+        List<StockReservationLineDto> lines = orderRepository.findWithItemsById(order.getId())
+                .orElseThrow(() -> new OrderNotFoundException(order.getId()))
+                .getItems().stream()
+                .map(item -> new StockReservationLineDto(item.getProductId(), item.getQuantity()))
+                .toList();
+
+        String renewedHoldId;
+        try {
+            renewedHoldId = placeStockHold(lines);
+        } catch (InsufficientStockException | ProductNotFoundException ex) {
+            cancelAfterExpiredHold(order);
+            throw new StockHoldExpiredException(order.getId());
+        }
+
+        try {
+            // nouvelle réservation enregistrée avant sa confirmation : une annulation ultérieure la retrouve
+            order.setStockHoldId(renewedHoldId);
+            transactionTemplate.executeWithoutResult(tx -> orderRepository.save(order));
+            productClient.commitStockHold(renewedHoldId);
+        } catch (RuntimeException ex) {
+            // l'ancienne réservation est déjà libérée : la nouvelle est rendue aussi, la commande
+            // repasse PENDING (confirmStockHoldOrRevert) et une prochaine confirmation en posera une autre
+            stockCompensationCoordinator.releaseStockHold(renewedHoldId, "STOCK_HOLD_RENEWAL_FAILED");
+            throw ex;
+        }
+    }
+
+    /**
+     * Annule une commande dont la réservation a expiré sans pouvoir être renouvelée.
+     */
+    private void cancelAfterExpiredHold(Order order) {
+        OrderStatus oldStatus = order.getStatus();
+        order.setStatus(OrderStatus.CANCELLED);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            orderRepository.save(order);
+            orderEventService.recordStatusChanged(order, oldStatus);
+        });
+
+        orderMetrics.incrementOrderStatusChanged(oldStatus, OrderStatus.CANCELLED);
+        log.warn("Commande id={} annulée : réservation de stock expirée et stock insuffisant", order.getId());
+    }
+
+    /**
+     * Réserve temporairement le stock de toutes les lignes de la commande en un seul appel
+     * à ms-product. Si la réservation est refusée, rien n'est réservé : la première ligne
+     * en échec est traduite en exception métier.
+     *
+     * @return l'identifiant de la réservation
+     */
+    private String placeStockHold(List<StockReservationLineDto> lines) {
+        StockHoldResponseDto result = productClient.placeStockHold(lines);
+
+        if (result == null) {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }
+        if (result.isReserved()) {
+            log.debug("Stock réservé holdId={} pour {} produits", result.getHoldId(), result.getLines().size());
+            return result.getHoldId();
+        }
+
+        for (StockReservationLineResultDto line : result.getLines()) {
+            switch (line.getStatus()) {
+                case NOT_FOUND -> throw new ProductNotFoundException(line.getProductId());
+                case INSUFFICIENT_STOCK -> throw new InsufficientStockException(line.getProductId());
+                default -> { }
+            }
+        }
+        throw new ServiceUnavailableException("PRODUCT_SERVICE");
+    }
+}
@@ -0,0 +1,253 @@
+package com.episen.order.application.service;
+
+import com.episen.order.infrastructure.client.ProductClient;
+import com.episen.order.infrastructure.exception.ServiceForbiddenException;
+import com.episen.order.infrastructure.exception.ServiceUnauthorizedException;
+import com.episen.order.infrastructure.exception.StockHoldConflictException;
+import com.episen.order.infrastructure.metrics.OrderMetrics;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coordinateur des compensations de stock (saga côté ms-order).
+ *
+ * Chaque mutation de stock à annuler est enregistrée ici puis rejouée en tâche de fond :
+ *  - libération d'une réservation encore active (commande non persistée, annulée ou
+ *    supprimée avant confirmation) ; si ms-product répond qu'elle est déjà confirmée
+ *    (confirmation au résultat incertain), la compensation devient une remise en stock ;
+ *  - remise en stock d'une réservation confirmée (commande annulée ou supprimée après
+ *    confirmation) : le stock décrémenté est réincrémenté.
+ *
+ * Exécution :
+ *  - première tentative immédiate sur l'exécuteur des appels sortants ;
+ *  - en cas d'échec, nouvelle tentative avec backoff exponentiel (borné) ;
+ *  - après maxAttempts échecs, la compensation est abandonnée : l'expiration
+ *    de la réservation côté ms-product prend le relais pour une libération ;
+ *    une remise en stock abandonnée est journalisée en erreur, à rejouer à la main
+ *    (POST /api/v1/products/stock/holds/{holdId}/restock, idempotent).
+ *
+ * Le journal est en mémoire : un redémarrage de ms-order perd les compensations
+ * en cours ; les libérations restent couvertes par l'expiration des réservations.
+ * Le nombre de compensations en attente est exposé par OrderMetrics.
+ */
+@Slf4j
+@Service
+public class StockCompensationCoordinator {
+
+    private final ProductClient productClient;
+    private final OrderMetrics orderMetrics;
+    private final ExecutorService outboundCallExecutor;
+    private final Clock clock;
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    /** Compensations en attente, indexées par holdId (une seule par réservation) */
+    private final Map<String, PendingCompensation> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockCompensationCoordinator(ProductClient productClient,
+                                        OrderMetrics orderMetrics,
+                                        ExecutorService outboundCallExecutor,
+                                        @Value("${app.stock.compensation.max-attempts:8}") int maxAttempts,
+                                        @Value("${app.stock.compensation.initial-backoff:PT0.5S}") Duration initialBackoff,
+                                        @Value("${app.stock.compensation.max-backoff:PT1M}") Duration maxBackoff) {
+        this(productClient, orderMetrics, outboundCallExecutor, Clock.systemUTC(),
+                maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    StockCompensationCoordinator(ProductClient productClient,
+                                 OrderMetrics orderMetrics,
+                                 ExecutorService outboundCallExecutor,
+                                 Clock clock,
+                                 int maxAttempts,
+                                 Duration initialBackoff,
+                                 Duration maxBackoff) {
+        this.productClient = productClient;
+        this.orderMetrics = orderMetrics;
+        this.outboundCallExecutor = outboundCallExecutor;
+        this.clock = clock;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        orderMetrics.registerOutstandingStockCompensations(pending, Map::size);
+    }
+
+    /**
+     * Enregistre la libération d'une réservation de stock et lance une première tentative
+     * en tâche de fond. Idempotent : une réservation déjà en attente n'est pas dupliquée.
+     *
+     * @param holdId identifiant de la réservation ms-product
+     * @param reason motif (logs + métriques), ex : ORDER_SAVE_FAILED, ORDER_CANCELLED
+     */
+    public void releaseStockHold(String holdId, String reason) {
+        PendingCompensation compensation =
+                new PendingCompensation(holdId, reason, AuthContextHolder.current(), clock.instant());
+
+        if (pending.putIfAbsent(holdId, compensation) != null) {
+            log.debug("Compensation déjà en attente holdId={}", holdId);
+            return;
+        }
+
+        log.info("Compensation enregistrée holdId={} reason={}", holdId, reason);
+        submit(compensation);
+    }
+
+    /**
+     * Enregistre la remise en stock d'une réservation, même confirmée, et lance une première
+     * tentative en tâche de fond. Une libération déjà en attente pour cette réservation
+     * devient une remise en stock.
+     *
+     * @param holdId identifiant de la réservation ms-product
+     * @param reason motif (logs + métriques), ex : ORDER_CANCELLED
+     */
+    public void restockStockHold(String holdId, String reason) {
+        PendingCompensation compensation =
+                new PendingCompensation(holdId, reason, AuthContextHolder.current(), clock.instant());
+        compensation.restock = true;
+
+        PendingCompensation existing = pending.putIfAbsent(holdId, compensation);
+        if (existing != null) {
+            existing.restock = true;
+            log.debug("Compensation déjà en attente holdId={}, remise en stock", holdId);
+            return;
+        }
+
+        log.info("Remise en stock enregistrée holdId={} reason={}", holdId, reason);
+        submit(compensation);
+    }
+
+    /**
+     * Rejoue les compensations dont le délai de backoff est écoulé.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.compensation.retry-interval-ms:1000}")
+    public void retryDueCompensations() {
+        Instant now = clock.instant();
+        for (PendingCompensation compensation : pending.values()) {
+            if (!compensation.nextAttemptAt.isAfter(now)) {
+                submit(compensation);
+            }
+        }
+    }
+
+    /** Nombre de compensations en attente (exposé en Gauge). */
+    public int outstanding() {
+        return pending.size();
+    }
+
+    private void submit(PendingCompensation compensation) {
+        // une seule tentative à la fois par réservation
+        if (!compensation.inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            outboundCallExecutor.execute(() -> attempt(compensation));
+        } catch (RejectedExecutionException e) {
+            compensation.inFlight.set(false);
+            log.warn("Compensation holdId={} non planifiée (exécuteur arrêté)", compensation.holdId);
+        }
+    }
+
+    void attempt(PendingCompensation compensation) {
+        try {
+            complete(compensation, compensate(compensation));
+
+        } catch (StockHoldConflictException e) {
+            // refusée par ms-product : plus rien à compenser
+            log.warn("Compensation holdId={} sans objet (réservation déjà close)", compensation.holdId);
+            complete(compensation, "already_closed");
+
+        } catch (ServiceUnauthorizedException | ServiceForbiddenException e) {
+            // le token capturé n'est plus accepté : inutile d'insister, l'expiration prend le relais
+            // (remise en stock : à rejouer à la main)
+            log.warn("Compensation holdId={} restock={} abandonnée : token refusé par ms-product",
+                    compensation.holdId, compensation.restock);
+            complete(compensation, "abandoned");
+
+        } catch (RuntimeException e) {
+            compensation.attempts++;
+            if (compensation.attempts >= maxAttempts) {
+                log.error("Compensation holdId={} restock={} abandonnée après {} tentatives",
+                        compensation.holdId, compensation.restock, compensation.attempts, e);
+                complete(compensation, "abandoned");
+                return;
+            }
+            compensation.nextAttemptAt = clock.instant().plus(backoff(compensation.attempts));
+            log.warn("Compensation holdId={} en échec (tentative {}), nouvel essai à {}",
+                    compensation.holdId, compensation.attempts, compensation.nextAttemptAt);
+            compensation.inFlight.set(false);
+        }
+    }
+
+    /**
+     * Libère la réservation, ou la remet en stock si elle est (ou s'avère) confirmée.
+     *
+     * @return issue de la compensation (released, restocked)
+     */
+    private String compensate(PendingCompensation compensation) {
+        if (!compensation.restock) {
+            try {
+                productClient.releaseStockHold(compensation.holdId, compensation.authContext);
+                return "released";
+            } catch (StockHoldConflictException e) {
+                // 409 sur libération = réservation confirmée : le stock décrémenté doit être rendu
+                log.warn("Compensation holdId={} : réservation déjà confirmée, remise en stock", compensation.holdId);
+                compensation.restock = true;
+            }
+        }
+        productClient.restockStockHold(compensation.holdId, compensation.authContext);
+        return "restocked";
+    }
+
+    /** Backoff exponentiel : initialBackoff * 2^(attempts-1), borné par maxBackoff. */
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void complete(PendingCompensation compensation, String outcome) {
+        pending.remove(compensation.holdId);
+        orderMetrics.incrementStockCompensation(compensation.reason, outcome);
+    }
+
+    /**
+     * Mutation de stock à compenser.
+     * attempts / nextAttemptAt ne sont modifiés que par la tentative en cours (inFlight).
+     */
+    static final class PendingCompensation {
+        final String holdId;
+        final String reason;
+        /** Contexte d'authentification de la requête à l'origine de la compensation */
+        final AuthContext authContext;
+        final AtomicBoolean inFlight = new AtomicBoolean();
+        /** Remise en stock plutôt que libération (réservation confirmée) */
+        volatile boolean restock;
+        volatile int attempts;
+        volatile Instant nextAttemptAt;
+
+        PendingCompensation(String holdId, String reason, AuthContext authContext, Instant nextAttemptAt) {
+            this.holdId = holdId;
+            this.reason = reason;
+            this.authContext = authContext;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,13 +21,19 @@ import java.util.List;
 - status: OrderStatus (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)
 - totalAmount: BigDecimal
 - shippingAddress: String (obligatoire)
+- stockHoldId: String (réservation de stock ms-product, confirmée ou libérée au changement de statut)
 - createdAt: LocalDateTime
 - updatedAt: LocalDateTime
  */
 
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // pagination par curseur : ORDER BY created_at, id (global, par utilisateur, par statut)
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,6 +67,10 @@ public class Order {
     @Column(name = "shipping_address", nullable = false, length = 300)
     private String shippingAddress;
 
+    /** Réservation temporaire de stock (ms-product) tant que la commande est PENDING */
+    @Column(name = "stock_hold_id", length = 36)
+    private String stockHoldId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -72,6 +83,8 @@ public class Order {
      * Relation : Une commande contient plusieurs OrderItems.
      * Cascade = ALL → persiste les items quand on sauvegarde une commande
      * orphanRemoval = true → supprime automatiquement les items orphelins
+     * BatchSize → les items d'une page de commandes sont chargés en une seule requête
+     *             (WHERE order_id IN (...)) au lieu d'une requête par commande (N+1)
      */
     @OneToMany(
             mappedBy = "order",
@@ -79,5 +92,6 @@ public class Order {
             orphanRemoval = true,
             fetch = FetchType.LAZY
     )
+    @BatchSize(size = 200) // = taille de page maximale (app.orders.pagination.max-size)
     private List<OrderItem> items;
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.episen.order.domain.entity;
+
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entité OrderEvent : table outbox des événements de commande.
+ *
+ * Une ligne est écrite dans la même transaction que la commande (création,
+ * changement de statut, suppression). Le relais la publie ensuite vers le sink
+ * configuré et renseigne publishedAt et publishSeq. publishSeq (et non l'id) sert de
+ * curseur au flux GET /api/v1/orders/events?after=... : les ids sont attribués à
+ * l'insertion, pas au commit, un événement d'id plus petit peut donc être validé
+ * (et publié) après un événement d'id plus grand.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_published_at", columnList = "published_at"),
+        @Index(name = "idx_order_events_publish_seq", columnList = "publish_seq", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Statut avant l'événement (null pour une création) */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private OrderStatus previousStatus;
+
+    /** Statut après l'événement (statut au moment de la suppression pour ORDER_DELETED) */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @CreationTimestamp
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    /** Date de publication par le relais (null tant que l'événement n'est pas publié) */
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    /** Numéro de publication, strictement croissant dans l'ordre de publication (null tant que non publié) */
+    @Column(name = "publish_seq")
+    private Long publishSeq;
+}
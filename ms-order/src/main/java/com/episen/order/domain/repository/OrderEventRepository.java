@@ -0,0 +1,31 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Prochain lot d'événements à publier, dans l'ordre d'écriture.
+     */
+    List<OrderEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Flux consommateurs : événements publiés dont le numéro de publication suit le curseur.
+     *
+     * publishSeq est attribué par le relais unique dans la transaction qui marque le lot
+     * publié : un numéro visible implique que tous les numéros inférieurs sont validés,
+     * un consommateur ne peut donc pas dépasser un événement publié plus tard.
+     */
+    List<OrderEvent> findByPublishSeqGreaterThanOrderByPublishSeqAsc(Long after, Pageable pageable);
+
+    /**
+     * Dernier numéro de publication attribué (0 si aucun événement publié).
+     */
+    @Query("SELECT COALESCE(MAX(e.publishSeq), 0) FROM OrderEvent e")
+    long findMaxPublishSeq();
+}
@@ -0,0 +1,27 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Fragment de OrderRepository : requête d'export construite selon les filtres renseignés.
+ */
+public interface OrderExportRepository {
+
+    /**
+     * Export : parcourt les commandes filtrées en flux (curseur JDBC), sans les charger toutes en mémoire.
+     *
+     * - seuls les filtres non null deviennent des conditions SQL (aucun paramètre null lié) ;
+     * - fetch size : les lignes sont lues par paquets de 500 depuis la base ;
+     * - read-only : Hibernate ne garde pas de copie pour le dirty checking.
+     * Le Stream doit être consommé dans une transaction puis fermé (try-with-resources).
+     *
+     * @param from date de création minimale (incluse), ou null
+     * @param to date de création maximale (exclue), ou null
+     * @param status statut, ou null
+     */
+    Stream<Order> streamForExport(LocalDateTime from, LocalDateTime to, OrderStatus status);
+}
@@ -0,0 +1,60 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implémentation Criteria de OrderExportRepository.
+ *
+ * Un motif JPQL "(:from IS NULL OR ...)" lie des paramètres null non typés, refusés par
+ * PostgreSQL ("could not determine data type of parameter") : le prédicat est donc
+ * construit uniquement à partir des filtres renseignés.
+ */
+class OrderExportRepositoryImpl implements OrderExportRepository {
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    OrderExportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Order> streamForExport(LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> order = query.from(Order.class);
+
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("createdAt"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(order.get("createdAt"), to));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(order.get("status"), status));
+        }
+
+        query.select(order)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(order.get("createdAt")), cb.asc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
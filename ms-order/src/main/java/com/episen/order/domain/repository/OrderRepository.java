@@ -3,25 +3,42 @@ package com.episen.order.domain.repository;
 
 import com.episen.order.domain.entity.Order;
 import com.episen.order.domain.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Optional;
 
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderExportRepository {
 
     /**
-     * Récupère toutes les commandes d'un utilisateur.
+     * Récupère une commande avec ses items en une seule requête (jointure).
      */
-    List<Order> findByUserId(Long userId);
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
 
     /**
-     * Récupère toutes les commandes avec un statut donné.
+     * Page de commandes par curseur (keyset) : WHERE (createdAt, id) après la position + LIMIT.
+     * Le coût d'une page ne dépend pas de sa profondeur dans la table.
      */
-    List<Order> findByStatus(OrderStatus status);
+    Window<Order> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Page de commandes d'un utilisateur par curseur (keyset).
+     */
+    Window<Order> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Page de commandes d'un statut donné par curseur (keyset).
+     */
+    Window<Order> findByStatus(OrderStatus status, ScrollPosition position, Sort sort, Limit limit);
 
    
      /**
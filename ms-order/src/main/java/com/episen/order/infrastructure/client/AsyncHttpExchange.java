@@ -0,0 +1,115 @@
+package com.episen.order.infrastructure.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Appels HTTP sortants non bloquants (java.net.http.HttpClient, sendAsync).
+ *
+ * Activé par app.http.client.async.enabled : aucun thread n'attend la réponse,
+ * la future est complétée par l'exécuteur du HttpClient (threads virtuels des appels sortants).
+ *
+ * Les erreurs reprennent les exceptions du RestTemplate pour que la traduction faite par
+ * UserClient / ProductClient et le circuit breaker (DependencyGuard) restent identiques :
+ *  - 4xx → HttpClientErrorException (Unauthorized, Forbidden, NotFound...) ;
+ *  - 5xx → HttpServerErrorException ;
+ *  - I/O, timeout de connexion ou de réponse → ResourceAccessException.
+ */
+public class AsyncHttpExchange {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration responseTimeout;
+
+    public AsyncHttpExchange(HttpClient httpClient, ObjectMapper objectMapper, Duration responseTimeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /** GET url, corps JSON désérialisé (null si la réponse est vide) */
+    public <T> CompletableFuture<T> get(String url, HttpHeaders headers, Class<T> type) {
+        return get(url, headers, objectMapper.constructType(type));
+    }
+
+    /** GET url, corps JSON désérialisé dans un type générique (ex : List<ProductDto>) */
+    public <T> CompletableFuture<T> get(String url, HttpHeaders headers, ParameterizedTypeReference<T> type) {
+        return get(url, headers, objectMapper.constructType(type.getType()));
+    }
+
+    private <T> CompletableFuture<T> get(String url, HttpHeaders headers, JavaType type) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(responseTimeout)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new CompletionException(ioFailure(url, error));
+                    }
+                    return read(url, response, type);
+                });
+    }
+
+    private <T> T read(String url, HttpResponse<byte[]> response, JavaType type) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        byte[] body = response.body();
+
+        if (!status.is2xxSuccessful()) {
+            throw statusFailure(status, response, body);
+        }
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new RestClientException("Réponse illisible de GET " + url, e);
+        }
+    }
+
+    private static RestClientException statusFailure(HttpStatusCode status, HttpResponse<byte[]> response, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+
+        if (status.is4xxClientError()) {
+            return HttpClientErrorException.create(status, "", headers, body, StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            return HttpServerErrorException.create(status, "", headers, body, StandardCharsets.UTF_8);
+        }
+        return new UnknownHttpStatusCodeException(status.value(), "", headers, body, StandardCharsets.UTF_8);
+    }
+
+    private static RuntimeException ioFailure(String url, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IOException io) {
+            return new ResourceAccessException("Erreur I/O sur GET " + url + " : " + io.getMessage(), io);
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new RestClientException("Échec de GET " + url, cause);
+    }
+}
@@ -0,0 +1,216 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Protection des appels vers un service distant (ms-product, ms-membership).
+ *
+ * - bulkhead : nombre maximal d'appels simultanés vers le service ; au-delà, l'appel
+ *   est refusé immédiatement au lieu de bloquer un thread de plus ;
+ * - circuit breaker : au-delà d'un taux d'échecs (5xx, timeout, I/O) ou d'appels lents
+ *   sur la fenêtre glissante, le circuit s'ouvre et les appels sont refusés sans réseau ;
+ *   après waitInOpenState, quelques appels de test (half-open) décident de sa fermeture.
+ *
+ * Les 4xx (token refusé, 404, 409) prouvent que le service répond : ils ne comptent pas
+ * comme des échecs. Un refus (circuit ouvert, bulkhead plein) est traduit en
+ * ServiceUnavailableException, comme une indisponibilité.
+ *
+ * callAsync() applique les mêmes règles à un appel non bloquant (AsyncHttpExchange) :
+ * la place du bulkhead est rendue et le résultat compté par le circuit à la complétion de la future.
+ *
+ * Métriques :
+ *  - resilience4j.circuitbreaker.* / resilience4j.bulkhead.* (état, appels, taux d'échec) ;
+ *  - outbound.circuitbreaker.transitions{name,from,to} : changements d'état ;
+ *  - outbound.calls.rejected{name,reason=circuit_open|bulkhead_full} : appels refusés.
+ */
+@Slf4j
+public class DependencyGuard {
+
+    private final String serviceName;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter rejectedCircuitOpen;
+    private final Counter rejectedBulkheadFull;
+
+    /**
+     * @param name        nom du breaker / bulkhead (tag name des métriques), ex : productService
+     * @param serviceName nom porté par ServiceUnavailableException, ex : PRODUCT_SERVICE
+     */
+    public DependencyGuard(String name,
+                           String serviceName,
+                           Settings settings,
+                           CircuitBreakerRegistry circuitBreakers,
+                           BulkheadRegistry bulkheads,
+                           MeterRegistry meterRegistry) {
+        this.serviceName = serviceName;
+        this.circuitBreaker = circuitBreakers.circuitBreaker(name, settings.circuitBreakerConfig());
+        this.bulkhead = bulkheads.bulkhead(name, settings.bulkheadConfig());
+
+        this.rejectedCircuitOpen = rejectedCounter(meterRegistry, name, "circuit_open");
+        this.rejectedBulkheadFull = rejectedCounter(meterRegistry, name, "bulkhead_full");
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Circuit {} : {} -> {}", name, transition.getFromState(), transition.getToState());
+            Counter.builder("outbound.circuitbreaker.transitions")
+                    .description("Changements d'état du circuit breaker d'un service distant")
+                    .tag("name", name)
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    /**
+     * Exécute un appel distant sous bulkhead + circuit breaker.
+     *
+     * @throws ServiceUnavailableException si le circuit est ouvert ou le bulkhead plein
+     */
+    public <T> T call(Supplier<T> call) {
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw rejected(e);
+        }
+    }
+
+    /**
+     * Exécute un appel distant non bloquant sous bulkhead + circuit breaker.
+     *
+     * @return future en échec avec ServiceUnavailableException si le circuit est ouvert
+     *         ou le bulkhead plein, sinon avec l'erreur de l'appel
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletionStage<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        circuitBreaker.executeCompletionStage(Bulkhead.decorateCompletionStage(bulkhead, call))
+                .whenComplete((value, error) -> {
+                    if (error == null) {
+                        result.complete(value);
+                        return;
+                    }
+                    Throwable cause = unwrap(error);
+                    result.completeExceptionally(
+                            cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                                    ? rejected((RuntimeException) cause)
+                                    : cause);
+                });
+        return result;
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    /** Échecs comptés par le circuit : le service ne répond pas ou répond en erreur serveur */
+    static boolean isFailure(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            return isFailure(e.getCause());
+        }
+        return e instanceof HttpServerErrorException
+                || e instanceof ResourceAccessException
+                || e instanceof ServiceUnavailableException;
+    }
+
+    private ServiceUnavailableException rejected(RuntimeException e) {
+        if (e instanceof CallNotPermittedException) {
+            rejectedCircuitOpen.increment();
+            log.warn("{} : appel refusé, circuit ouvert", serviceName);
+        } else {
+            rejectedBulkheadFull.increment();
+            log.warn("{} : appel refusé, trop d'appels simultanés", serviceName);
+        }
+        return new ServiceUnavailableException(serviceName);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String name, String reason) {
+        return Counter.builder("outbound.calls.rejected")
+                .description("Appels vers un service distant refusés sans appel réseau")
+                .tag("name", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réglages d'un service distant (app.clients.{service}.circuit-breaker.* / bulkhead.*).
+     */
+    public record Settings(float failureRateThreshold,
+                           float slowCallRateThreshold,
+                           Duration slowCallDuration,
+                           int slidingWindowSize,
+                           int minimumNumberOfCalls,
+                           Duration waitInOpenState,
+                           int permittedCallsInHalfOpenState,
+                           int maxConcurrentCalls,
+                           Duration maxWait) {
+
+        public static Settings from(Environment env, String prefix) {
+            return new Settings(
+                    env.getProperty(prefix + ".circuit-breaker.failure-rate-threshold", Float.class, 50f),
+                    env.getProperty(prefix + ".circuit-breaker.slow-call-rate-threshold", Float.class, 80f),
+                    env.getProperty(prefix + ".circuit-breaker.slow-call-duration", Duration.class, Duration.ofSeconds(2)),
+                    env.getProperty(prefix + ".circuit-breaker.sliding-window-size", Integer.class, 50),
+                    env.getProperty(prefix + ".circuit-breaker.minimum-number-of-calls", Integer.class, 20),
+                    env.getProperty(prefix + ".circuit-breaker.wait-in-open-state", Duration.class, Duration.ofSeconds(10)),
+                    env.getProperty(prefix + ".circuit-breaker.permitted-calls-in-half-open-state", Integer.class, 5),
+                    env.getProperty(prefix + ".bulkhead.max-concurrent-calls", Integer.class, 50),
+                    env.getProperty(prefix + ".bulkhead.max-wait", Duration.class, Duration.ZERO));
+        }
+
+        CircuitBreakerConfig circuitBreakerConfig() {
+            return CircuitBreakerConfig.custom()
+                    .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                    .slidingWindowSize(slidingWindowSize)
+                    .minimumNumberOfCalls(minimumNumberOfCalls)
+                    .failureRateThreshold(failureRateThreshold)
+                    .slowCallRateThreshold(slowCallRateThreshold)
+                    .slowCallDurationThreshold(slowCallDuration)
+                    .waitDurationInOpenState(waitInOpenState)
+                    .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                    .recordException(DependencyGuard::isFailure)
+                    // refus du bulkhead : ni succès ni échec pour le circuit
+                    .ignoreExceptions(BulkheadFullException.class)
+                    .build();
+        }
+
+        BulkheadConfig bulkheadConfig() {
+            return BulkheadConfig.custom()
+                    .maxConcurrentCalls(maxConcurrentCalls)
+                    .maxWaitDuration(maxWait)
+                    .build();
+        }
+    }
+}
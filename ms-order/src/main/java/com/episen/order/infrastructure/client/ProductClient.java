@@ -1,27 +1,48 @@
 package com.episen.order.infrastructure.client;
 
 import com.episen.order.application.dto.ProductDto;
-import com.episen.order.application.dto.StockUpdateRequestDto;
+import com.episen.order.application.dto.StockHoldRequestDto;
+import com.episen.order.application.dto.StockHoldResponseDto;
+import com.episen.order.application.dto.StockReservationLineDto;
 import com.episen.order.infrastructure.exception.ServiceForbiddenException;
+import com.episen.order.infrastructure.exception.StockHoldConflictException;
 import com.episen.order.infrastructure.exception.ServiceUnauthorizedException;
 import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Client REST dédié à la communication avec le microservice ms-product.
  *
  * Rôles :
  *  - récupérer un produit par son identifiant (existence, prix, stock) ;
- *  - mettre à jour le stock d’un produit lors de la création d'une commande.
+ *  - récupérer plusieurs produits en un seul appel ;
+ *  - servir le nom et le prix des produits depuis un cache local à TTL court
+ *    (création de commande, voir ProductSnapshotCache) ;
+ *  - réserver temporairement en un seul appel le stock de toutes les lignes d'une commande,
+ *    puis confirmer ou libérer cette réservation, ou la remettre en stock après confirmation.
  *
  * Sécurisation (TP2 - JWT) :
  *  - propage le JWT reçu par ms-order vers ms-product via le header :
@@ -34,19 +55,52 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  * Particularités :
  *  - aucune logique métier : simple façade réseau ;
  *  - URL de base injectée via application.yml (bonne pratique) ;
+ *  - chaque appel passe par le circuit breaker + bulkhead de ms-product (DependencyGuard) :
+ *    ms-product lent ou en panne → échec immédiat (ServiceUnavailableException) ;
+ *  - lectures (GET, idempotentes) : second appel optionnel si la réponse tarde (RequestHedger) ;
+ *  - lectures non bloquantes (getProductSnapshotsAsync) si app.http.client.async.enabled :
+ *    AsyncHttpExchange, même circuit breaker + bulkhead et même traduction des erreurs, sans hedging ;
+ *  - mutations de stock (réservation, confirmation, libération) : header Idempotency-Key
+ *    et nouvelles tentatives sur erreur transitoire (TransientRetry) ;
  *  - permet à OrderService de rester indépendant du transport et de la sécurité.
  */
 @Slf4j
 @Component
 public class ProductClient {
 
+    private static final ParameterizedTypeReference<List<ProductDto>> PRODUCT_LIST_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final RestTemplate restTemplate;
+    private final DependencyGuard productGuard;
+    private final RequestHedger readHedger;
+    private final TransientRetry mutationRetry;
     private final String productBaseUrl;
+    private final ProductSnapshotCache snapshotCache;
+    private final AsyncHttpExchange asyncExchange;
 
     public ProductClient(RestTemplate restTemplate,
-                         @Value("${app.clients.product.base-url}") String productBaseUrl) {
+                         Optional<AsyncHttpExchange> asyncHttpExchange,
+                         @Value("${app.clients.product.base-url}") String productBaseUrl,
+                         @Qualifier("productServiceGuard") DependencyGuard productServiceGuard,
+                         @Qualifier("productReadHedger") RequestHedger productReadHedger,
+                         @Qualifier("productMutationRetry") TransientRetry productMutationRetry,
+                         ExecutorService outboundCallExecutor,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.clients.product.snapshot-cache.max-size:10000}") long snapshotMaxSize,
+                         @Value("${app.clients.product.snapshot-cache.ttl:PT30S}") Duration snapshotTtl,
+                         @Value("${app.clients.product.snapshot-cache.refresh-after:PT20S}") Duration snapshotRefreshAfter) {
         this.restTemplate = restTemplate;
         this.productBaseUrl = productBaseUrl;
+        this.productGuard = productServiceGuard;
+        this.readHedger = productReadHedger;
+        this.mutationRetry = productMutationRetry;
+        this.asyncExchange = asyncHttpExchange.orElse(null);
+        this.snapshotCache = new ProductSnapshotCache(this::fetchProductsByIds, this::fetchProductsByIdsAsync,
+                outboundCallExecutor, Ticker.systemTicker(), snapshotMaxSize, snapshotTtl, snapshotRefreshAfter);
+
+        // cache.gets{cache="productSnapshots",result="hit|miss"}, cache.evictions, cache.size...
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshotCache.cache(), "productSnapshots");
     }
 
     /**
@@ -56,7 +110,8 @@ public class ProductClient {
      *  GET /api/v1/products/{id}
      *
      * JWT :
-     *  - récupère le header Authorization de la requête entrante (client → ms-order)
+     *  - reprend le header Authorization de la requête entrante (client → ms-order),
+     *    capturé une fois par JwtAuthFilter dans l'AuthContext courant
      *  - le propage vers ms-product (order → product)
      *
      * Gestion des erreurs :
@@ -67,12 +122,12 @@ public class ProductClient {
     public ProductDto getProductById(Long productId) {
         String url = productBaseUrl + "/api/v1/products/" + productId;
 
-        HttpEntity<Void> entity =
-                new HttpEntity<>(buildAuthHeadersFromIncomingRequest());
+        HttpEntity<Void> entity = new HttpEntity<>(AuthContextHolder.current().headers());
 
         try {
             ResponseEntity<ProductDto> res =
-                    restTemplate.exchange(url, HttpMethod.GET, entity, ProductDto.class);
+                    readHedger.call(() -> productGuard.call(
+                            () -> restTemplate.exchange(url, HttpMethod.GET, entity, ProductDto.class)));
             return res.getBody();
 
         } catch (HttpClientErrorException.Unauthorized ex) {
@@ -90,71 +145,241 @@ public class ProductClient {
     }
 
     /**
-     * Met à jour le stock d’un produit sur ms-product.
+     * Récupère plusieurs produits depuis ms-product en un seul appel.
      *
      * Endpoint cible :
-     *  PATCH /api/v1/products/{id}/stock
+     *  GET /api/v1/products?ids=1,2,3
      *
-     * JWT :
-     *  - propage le header Authorization comme pour getProductById().
+     * Les IDs inconnus sont absents de la réponse : c'est à l'appelant
+     * de détecter les produits manquants.
      *
-     * Gestion des erreurs :
-     *  - 401 → token invalide → ServiceUnauthorizedException
-     *  - 403 → token expiré → ServiceForbiddenException
-     *  - autres erreurs → ServiceUnavailableException
+     * Gestion des erreurs : identique à getProductById().
      */
-    public void updateProductStock(Long productId, int newStock) {
-        String url = productBaseUrl + "/api/v1/products/" + productId + "/stock";
+    public List<ProductDto> getProductsByIds(Collection<Long> productIds) {
+        return fetchProductsByIds(productIds, AuthContextHolder.current());
+    }
 
-        StockUpdateRequestDto body = StockUpdateRequestDto.builder()
-                .newStock(newStock)
-                .build();
+    /**
+     * Récupère le nom et le prix de plusieurs produits, depuis le cache local si possible.
+     *
+     * - les produits absents du cache sont chargés en un seul appel groupé
+     *   (un seul appel en vol par produit, même pour des commandes concurrentes) ;
+     * - le stock n'est PAS renseigné : la disponibilité est vérifiée par ms-product
+     *   lors de la réservation (placeStockHold).
+     *
+     * Les IDs inconnus sont absents de la réponse, comme pour getProductsByIds().
+     */
+    public List<ProductDto> getProductSnapshots(Collection<Long> productIds) {
+        return snapshotCache.getAll(productIds, AuthContextHolder.current());
+    }
+
+    /**
+     * Variante non bloquante de getProductSnapshots() (app.http.client.async.enabled) :
+     * aucun thread n'attend ms-product, la future est complétée à la réception de la réponse.
+     *
+     * Gestion des erreurs : identique à getProductById(), portée par la future.
+     */
+    public CompletableFuture<List<ProductDto>> getProductSnapshotsAsync(Collection<Long> productIds) {
+        return snapshotCache.getAllAsync(productIds, AuthContextHolder.current());
+    }
 
-        HttpEntity<StockUpdateRequestDto> entity =
-                new HttpEntity<>(body, buildAuthHeadersFromIncomingRequest());
+    private List<ProductDto> fetchProductsByIds(Collection<Long> productIds, AuthContext authContext) {
+        String url = UriComponentsBuilder.fromUriString(productBaseUrl)
+                .path("/api/v1/products")
+                .queryParam("ids", productIds)
+                .toUriString();
+
+        HttpEntity<Void> entity = new HttpEntity<>(authContext.headers());
 
         try {
-            restTemplate.exchange(url, HttpMethod.PATCH, entity, Void.class);
+            ResponseEntity<List<ProductDto>> res =
+                    readHedger.call(() -> productGuard.call(
+                            () -> restTemplate.exchange(url, HttpMethod.GET, entity, PRODUCT_LIST_TYPE)));
+            return res.getBody() == null ? List.of() : res.getBody();
+
+        } catch (RestClientException ex) {
+            throw readFailure(ex, productIds);
+        }
+    }
+
+    private CompletableFuture<List<ProductDto>> fetchProductsByIdsAsync(Collection<Long> productIds,
+                                                                        AuthContext authContext) {
+        if (asyncExchange == null) {
+            throw new IllegalStateException("Client HTTP non bloquant désactivé (app.http.client.async.enabled=false)");
+        }
+        String url = UriComponentsBuilder.fromUriString(productBaseUrl)
+                .path("/api/v1/products")
+                .queryParam("ids", productIds)
+                .toUriString();
+
+        return productGuard.callAsync(() -> asyncExchange.get(url, authContext.headers(), PRODUCT_LIST_TYPE))
+                .handle((products, error) -> {
+                    if (error == null) {
+                        return products == null ? List.<ProductDto>of() : products;
+                    }
+                    if (error instanceof RestClientException ex) {
+                        throw new CompletionException(readFailure(ex, productIds));
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                });
+    }
+
+    /** Traduction des erreurs d'une lecture groupée (appel bloquant ou non) */
+    private static RuntimeException readFailure(RestClientException ex, Collection<Long> productIds) {
+        if (ex instanceof HttpClientErrorException.Unauthorized) {
+            log.warn("PRODUCT_SERVICE rejected token (401) productIds={}", productIds);
+            return new ServiceUnauthorizedException("PRODUCT_SERVICE");
+        }
+        if (ex instanceof HttpClientErrorException.Forbidden) {
+            log.warn("PRODUCT_SERVICE rejected token (403) productIds={}", productIds);
+            return new ServiceForbiddenException("PRODUCT_SERVICE");
+        }
+        log.error("PRODUCT_SERVICE unavailable productIds={}", productIds, ex);
+        return new ServiceUnavailableException("PRODUCT_SERVICE");
+    }
+
+    /**
+     * Réserve temporairement le stock de plusieurs produits sur ms-product en un seul appel.
+     *
+     * Endpoint cible :
+     *  POST /api/v1/products/stock/holds
+     *
+     * Les quantités sont retirées du stock disponible (tout ou rien) sans modifier
+     * le stock : la réservation est ensuite confirmée, libérée ou expire.
+     *
+     * Réponse :
+     *  - 201 → toutes les lignes réservées (holdId renseigné) ;
+     *  - 409 → rien n'est réservé, le corps donne le résultat de chaque ligne
+     *          (renvoyé tel quel, reserved = false).
+     *
+     * Idempotence : la même Idempotency-Key est envoyée à chaque tentative,
+     * ms-product ne réserve le stock qu'une fois.
+     *
+     * Gestion des erreurs : identique à getProductById().
+     */
+    public StockHoldResponseDto placeStockHold(List<StockReservationLineDto> lines) {
+        String url = productBaseUrl + "/api/v1/products/stock/holds";
+
+        HttpEntity<StockHoldRequestDto> entity = new HttpEntity<>(
+                StockHoldRequestDto.builder().lines(lines).build(),
+                TransientRetry.idempotentHeaders(AuthContextHolder.current().headers()));
+
+        try {
+            ResponseEntity<StockHoldResponseDto> res =
+                    mutationRetry.call(() -> productGuard.call(
+                            () -> restTemplate.exchange(url, HttpMethod.POST, entity, StockHoldResponseDto.class)));
+            return res.getBody();
+
+        } catch (HttpClientErrorException.Conflict ex) {
+            StockHoldResponseDto result = ex.getResponseBodyAs(StockHoldResponseDto.class);
+            if (result == null) {
+                log.error("PRODUCT_SERVICE returned 409 without stock hold result");
+                throw new ServiceUnavailableException("PRODUCT_SERVICE");
+            }
+            return result;
 
         } catch (HttpClientErrorException.Unauthorized ex) {
-            log.warn("PRODUCT_SERVICE rejected token (401) stock update productId={}", productId);
+            log.warn("PRODUCT_SERVICE rejected token (401) stock hold");
             throw new ServiceUnauthorizedException("PRODUCT_SERVICE");
 
         } catch (HttpClientErrorException.Forbidden ex) {
-            log.warn("PRODUCT_SERVICE rejected token (403) stock update productId={}", productId);
+            log.warn("PRODUCT_SERVICE rejected token (403) stock hold");
             throw new ServiceForbiddenException("PRODUCT_SERVICE");
 
         } catch (RestClientException ex) {
-            log.error("PRODUCT_SERVICE unavailable (stock update) productId={}", productId, ex);
+            log.error("PRODUCT_SERVICE unavailable (stock hold)", ex);
             throw new ServiceUnavailableException("PRODUCT_SERVICE");
         }
     }
 
     /**
-     * Construit les headers HTTP à envoyer vers ms-product.
+     * Confirme une réservation de stock : le stock réservé est définitivement décrémenté.
      *
-     * Objectif :
-     *  - récupérer le header "Authorization" de la requête entrante
-     *  - le recopier tel quel (Bearer <token>) dans la requête sortante
+     * Endpoint cible :
+     *  POST /api/v1/products/stock/holds/{holdId}/commit
      *
-     * Remarque :
-     *  - RequestContextHolder fonctionne car l’appel se fait
-     *    dans le thread de la requête HTTP.
+     * Gestion des erreurs :
+     *  - 409 → réservation expirée ou libérée → StockHoldConflictException
+     *  - autres : identique à getProductById()
+     *
+     * Idempotence : Idempotency-Key + nouvelles tentatives, comme placeStockHold().
      */
-    private HttpHeaders buildAuthHeadersFromIncomingRequest() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    public void commitStockHold(String holdId) {
+        String url = productBaseUrl + "/api/v1/products/stock/holds/" + holdId + "/commit";
+        HttpHeaders headers = TransientRetry.idempotentHeaders(AuthContextHolder.current().headers());
+        exchangeStockHold(url, HttpMethod.POST, holdId, headers, true);
+    }
 
-        ServletRequestAttributes attrs =
-                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+    /**
+     * Libère une réservation de stock : les quantités redeviennent disponibles.
+     *
+     * Endpoint cible :
+     *  DELETE /api/v1/products/stock/holds/{holdId}
+     *
+     * Gestion des erreurs :
+     *  - 409 → réservation déjà confirmée → StockHoldConflictException
+     *  - autres : identique à getProductById()
+     */
+    public void releaseStockHold(String holdId) {
+        releaseStockHold(holdId, AuthContextHolder.current());
+    }
+
+    /**
+     * Variante de releaseStockHold() utilisable hors du thread de la requête HTTP
+     * (compensations rejouées en tâche de fond) : le contexte d'authentification capturé
+     * au moment de la demande est fourni explicitement.
+     *
+     * @param authContext contexte dont le header Authorization est propagé
+     */
+    public void releaseStockHold(String holdId, AuthContext authContext) {
+        String url = productBaseUrl + "/api/v1/products/stock/holds/" + holdId;
+        // pas de nouvelle tentative immédiate : StockCompensationCoordinator rejoue la libération
+        exchangeStockHold(url, HttpMethod.DELETE, holdId, authContext.headers(), false);
+    }
 
-        if (attrs != null) {
-            String auth = attrs.getRequest().getHeader("Authorization");
-            if (auth != null && !auth.isBlank()) {
-                headers.set("Authorization", auth);
+    /**
+     * Remet en stock une réservation, même confirmée (commande annulée après confirmation).
+     * Une réservation encore active est simplement libérée ; déjà libérée, expirée ou
+     * remise en stock : sans effet.
+     *
+     * Endpoint cible :
+     *  POST /api/v1/products/stock/holds/{holdId}/restock
+     *
+     * Appelée par StockCompensationCoordinator, hors du thread de la requête HTTP :
+     * le contexte d'authentification capturé est fourni explicitement.
+     */
+    public void restockStockHold(String holdId, AuthContext authContext) {
+        String url = productBaseUrl + "/api/v1/products/stock/holds/" + holdId + "/restock";
+        // pas de nouvelle tentative immédiate : StockCompensationCoordinator rejoue la remise en stock
+        exchangeStockHold(url, HttpMethod.POST, holdId, authContext.headers(), false);
+    }
+
+    private void exchangeStockHold(String url, HttpMethod method, String holdId, HttpHeaders headers, boolean retried) {
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        Runnable call = () -> productGuard.run(() -> restTemplate.exchange(url, method, entity, Void.class));
+
+        try {
+            if (retried) {
+                mutationRetry.run(call);
+            } else {
+                call.run();
             }
-        }
 
-        return headers;
+        } catch (HttpClientErrorException.Conflict ex) {
+            log.warn("PRODUCT_SERVICE rejected {} on stock hold holdId={}", method, holdId);
+            throw new StockHoldConflictException(holdId);
+
+        } catch (HttpClientErrorException.Unauthorized ex) {
+            log.warn("PRODUCT_SERVICE rejected token (401) stock hold holdId={}", holdId);
+            throw new ServiceUnauthorizedException("PRODUCT_SERVICE");
+
+        } catch (HttpClientErrorException.Forbidden ex) {
+            log.warn("PRODUCT_SERVICE rejected token (403) stock hold holdId={}", holdId);
+            throw new ServiceForbiddenException("PRODUCT_SERVICE");
+
+        } catch (RestClientException ex) {
+            log.error("PRODUCT_SERVICE unavailable (stock hold {}) holdId={}", method, holdId, ex);
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }
     }
-}
\ No newline at end of file
+}
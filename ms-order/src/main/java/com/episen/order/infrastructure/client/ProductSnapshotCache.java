@@ -0,0 +1,207 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Cache local (TTL court) des champs en lecture seule des produits : nom et prix.
+ *
+ * - single-flight : un produit absent du cache n'est chargé qu'une fois, les appels
+ *   concurrents attendent le même chargement (futures partagées du cache asynchrone) ;
+ * - refresh-ahead : un produit lu après refreshAfter est rechargé en tâche de fond,
+ *   l'appelant reçoit immédiatement la valeur en cache ;
+ * - expiration à ttl : au-delà, le produit est rechargé de façon synchrone ;
+ * - le stock n'est jamais mis en cache : ms-product reste la référence (réservation).
+ *
+ * Le chargeur reçoit les identifiants manquants et le contexte d'authentification (AuthContext)
+ * de l'appelant, dont les headers sont propagés tels quels. getAllAsync() charge les produits
+ * manquants avec le chargeur non bloquant (AsyncLoader) ; le refresh-ahead garde le chargeur bloquant,
+ * exécuté en tâche de fond.
+ */
+@Slf4j
+public class ProductSnapshotCache {
+
+    private final AsyncCache<Long, Snapshot> cache;
+    private final Loader loader;
+    private final AsyncLoader asyncLoader;
+    private final Executor refreshExecutor;
+    private final Ticker ticker;
+    private final long refreshAfterNanos;
+
+    /** Produits en cours de rafraîchissement (un seul rechargement à la fois par produit) */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    public ProductSnapshotCache(Loader loader,
+                                Executor refreshExecutor,
+                                Ticker ticker,
+                                long maximumSize,
+                                Duration ttl,
+                                Duration refreshAfter) {
+        this(loader, (ids, auth) -> CompletableFuture.supplyAsync(() -> loader.load(ids, auth), refreshExecutor),
+                refreshExecutor, ticker, maximumSize, ttl, refreshAfter);
+    }
+
+    public ProductSnapshotCache(Loader loader,
+                                AsyncLoader asyncLoader,
+                                Executor refreshExecutor,
+                                Ticker ticker,
+                                long maximumSize,
+                                Duration ttl,
+                                Duration refreshAfter) {
+        if (refreshAfter.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAfter doit être inférieur au ttl : " + refreshAfter + " >= " + ttl);
+        }
+        this.loader = loader;
+        this.asyncLoader = asyncLoader;
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /** Cache sous-jacent (exposition des statistiques dans le MeterRegistry) */
+    public AsyncCache<Long, Snapshot> cache() {
+        return cache;
+    }
+
+    /**
+     * Renvoie le nom et le prix des produits demandés (stock non renseigné).
+     * Les identifiants inconnus de ms-product sont absents du résultat et ne sont pas mis en cache.
+     */
+    public List<ProductDto> getAll(Collection<Long> productIds, AuthContext authContext) {
+        Map<Long, Snapshot> snapshots;
+        try {
+            snapshots = cache.getAll(productIds,
+                    (missing, executor) -> CompletableFuture.completedFuture(load(missing, authContext))).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return toProducts(snapshots, authContext);
+    }
+
+    /**
+     * Variante non bloquante de getAll() : les produits manquants sont chargés par l'AsyncLoader,
+     * la future est complétée à la réception de la réponse (erreurs du chargeur transmises telles quelles).
+     */
+    public CompletableFuture<List<ProductDto>> getAllAsync(Collection<Long> productIds, AuthContext authContext) {
+        return cache.getAll(productIds, (missing, executor) -> {
+                    long now = ticker.read();
+                    return asyncLoader.load(List.copyOf(missing), authContext)
+                            .thenApply(products -> toSnapshots(products, now));
+                })
+                .thenApply(snapshots -> toProducts(snapshots, authContext));
+    }
+
+    private List<ProductDto> toProducts(Map<Long, Snapshot> snapshots, AuthContext authContext) {
+        refreshAhead(snapshots.values(), authContext);
+
+        List<ProductDto> products = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots.values()) {
+            products.add(snapshot.toDto());
+        }
+        return products;
+    }
+
+    private Map<Long, Snapshot> load(Collection<? extends Long> productIds, AuthContext authContext) {
+        long now = ticker.read();
+        return toSnapshots(loader.load(List.copyOf(productIds), authContext), now);
+    }
+
+    private static Map<Long, Snapshot> toSnapshots(List<ProductDto> products, long loadedAt) {
+        return products.stream()
+                .collect(Collectors.toMap(ProductDto::getId, p -> Snapshot.of(p, loadedAt), (a, b) -> b));
+    }
+
+    /**
+     * Recharge en tâche de fond, en un seul appel, les produits dont la valeur a dépassé refreshAfter.
+     */
+    private void refreshAhead(Collection<Snapshot> snapshots, AuthContext authContext) {
+        long now = ticker.read();
+        List<Long> stale = new ArrayList<>();
+        for (Snapshot snapshot : snapshots) {
+            if (now - snapshot.loadedAt() >= refreshAfterNanos && refreshing.add(snapshot.id())) {
+                stale.add(snapshot.id());
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> refresh(stale, authContext));
+        } catch (RejectedExecutionException e) {
+            stale.forEach(refreshing::remove);
+        }
+    }
+
+    private void refresh(List<Long> productIds, AuthContext authContext) {
+        try {
+            Map<Long, Snapshot> fresh = load(productIds, authContext);
+            for (Long productId : productIds) {
+                Snapshot snapshot = fresh.get(productId);
+                if (snapshot == null) {
+                    // supprimé côté ms-product : ne plus le servir depuis le cache
+                    cache.synchronous().invalidate(productId);
+                } else {
+                    cache.put(productId, CompletableFuture.completedFuture(snapshot));
+                }
+            }
+        } catch (RuntimeException e) {
+            // la valeur en cache reste servie jusqu'à son expiration
+            log.warn("Rafraîchissement du cache produits en échec productIds={} : {}", productIds, e.getMessage());
+        } finally {
+            productIds.forEach(refreshing::remove);
+        }
+    }
+
+    /** Chargement groupé des produits manquants (GET /api/v1/products?ids=...) */
+    @FunctionalInterface
+    public interface Loader {
+        List<ProductDto> load(List<Long> productIds, AuthContext authContext);
+    }
+
+    /** Chargement groupé non bloquant des produits manquants (AsyncHttpExchange) */
+    @FunctionalInterface
+    public interface AsyncLoader {
+        CompletableFuture<List<ProductDto>> load(List<Long> productIds, AuthContext authContext);
+    }
+
+    /** Champs en lecture seule d'un produit, horodatés au chargement (ticker du cache) */
+    public record Snapshot(Long id, String name, BigDecimal price, long loadedAt) {
+
+        static Snapshot of(ProductDto product, long loadedAt) {
+            return new Snapshot(product.getId(), product.getName(), product.getPrice(), loadedAt);
+        }
+
+        ProductDto toDto() {
+            return ProductDto.builder().id(id).name(name).price(price).build();
+        }
+    }
+}
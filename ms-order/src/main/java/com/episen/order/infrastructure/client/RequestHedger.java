@@ -0,0 +1,285 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes « hedgées » pour les lectures idempotentes (GET) d'un service distant.
+ *
+ * - l'appel part sur l'exécuteur des appels sortants ;
+ * - s'il n'a pas répondu après le délai de hedge (percentile configuré des latences récentes,
+ *   borné par min-delay), un second appel identique est envoyé ;
+ * - la première réponse réussie l'emporte ; l'appel perdant n'est pas interrompu
+ *   (I/O bloquante) mais sa réponse est ignorée ; si les deux échouent, l'erreur du dernier
+ *   appel est relancée telle quelle ;
+ * - budget : chaque appel crédite budget-percent % d'un hedge (plafonné à budget-burst) ;
+ *   sans crédit disponible, on attend simplement l'appel initial. Le hedge ne peut donc pas
+ *   ajouter plus de budget-percent % de charge sur le service distant.
+ *
+ * Mode désactivé : l'appel est exécuté directement dans le thread appelant.
+ *
+ * Métriques :
+ *  - outbound.hedge.latency{name} : latence des appels initiaux (percentile publié) ;
+ *  - outbound.hedge.delay{name} : délai de hedge courant ;
+ *  - outbound.hedge.requests{name,outcome=sent|budget_exhausted} ;
+ *  - outbound.hedge.wins{name,winner=primary|hedge} : taux de gain des hedges envoyés.
+ */
+@Slf4j
+public class RequestHedger {
+
+    private static final long CREDIT_UNIT = 1_000;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** Nombre d'appels observés avant de se fier au percentile mesuré */
+    private static final long MIN_SAMPLES = 20;
+
+    private final String serviceName;
+    private final Settings settings;
+    private final Executor executor;
+
+    private final Timer latency;
+    private final Counter hedgesSent;
+    private final Counter budgetExhausted;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+
+    /** Crédit de hedge, en millièmes de requête */
+    private final AtomicLong credits;
+    private final long creditPerCall;
+    private final long maxCredits;
+
+    private volatile long delayNanos;
+    private volatile long delayRefreshAt;
+
+    /**
+     * @param name        tag name des métriques, ex : productService
+     * @param serviceName nom porté par ServiceUnavailableException (interruption), ex : PRODUCT_SERVICE
+     */
+    public RequestHedger(String name,
+                         String serviceName,
+                         Settings settings,
+                         Executor executor,
+                         MeterRegistry meterRegistry) {
+        this.serviceName = serviceName;
+        this.settings = settings;
+        this.executor = executor;
+
+        this.creditPerCall = Math.round(settings.budgetPercent() * CREDIT_UNIT / 100.0);
+        this.maxCredits = settings.budgetBurst() * CREDIT_UNIT;
+        this.credits = new AtomicLong(maxCredits);
+        this.delayNanos = settings.initialDelay().toNanos();
+        this.delayRefreshAt = System.nanoTime();
+
+        this.latency = Timer.builder("outbound.hedge.latency")
+                .description("Latence des appels initiaux (base du délai de hedge)")
+                .tag("name", name)
+                .publishPercentiles(settings.percentile())
+                .register(meterRegistry);
+        this.hedgesSent = requestCounter(meterRegistry, name, "sent");
+        this.budgetExhausted = requestCounter(meterRegistry, name, "budget_exhausted");
+        this.primaryWins = winCounter(meterRegistry, name, "primary");
+        this.hedgeWins = winCounter(meterRegistry, name, "hedge");
+
+        Gauge.builder("outbound.hedge.delay", this, h -> h.delayNanos / 1_000_000.0)
+                .description("Délai avant l'envoi d'un hedge")
+                .tag("name", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute une requête idempotente, avec hedge si elle tarde.
+     * Les exceptions de la requête sont relancées telles quelles.
+     */
+    public <T> T call(Supplier<T> request) {
+        if (!settings.enabled()) {
+            return request.get();
+        }
+
+        creditCall();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Counter> winner = new AtomicReference<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        attempt(request, result, winner, primaryWins, outstanding);
+
+        try {
+            return result.get(currentDelayNanos(), TimeUnit.NANOSECONDS);
+
+        } catch (TimeoutException e) {
+            boolean hedged = hedge(request, result, winner, outstanding);
+            T value = await(result);
+            if (hedged) {
+                winner.get().increment();
+            }
+            return value;
+
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(serviceName);
+        }
+    }
+
+    private <T> boolean hedge(Supplier<T> request,
+                              CompletableFuture<T> result,
+                              AtomicReference<Counter> winner,
+                              AtomicInteger outstanding) {
+        if (!tryAcquireCredit()) {
+            budgetExhausted.increment();
+            return false;
+        }
+
+        outstanding.incrementAndGet();
+        if (result.isDone()) {
+            // l'appel initial vient de se terminer : hedge inutile
+            refundCredit();
+            return false;
+        }
+
+        hedgesSent.increment();
+        attempt(request, result, winner, hedgeWins, outstanding);
+        return true;
+    }
+
+    private <T> void attempt(Supplier<T> request,
+                             CompletableFuture<T> result,
+                             AtomicReference<Counter> winner,
+                             Counter role,
+                             AtomicInteger outstanding) {
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(request, executor).whenComplete((value, error) -> {
+            if (error == null) {
+                if (role == primaryWins) {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                winner.compareAndSet(null, role);
+                result.complete(value);
+
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error instanceof CompletionException ce ? ce.getCause() : error);
+            }
+        });
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(serviceName);
+        }
+    }
+
+    /** Délai de hedge : percentile des latences récentes, recalculé au plus une fois par seconde */
+    long currentDelayNanos() {
+        long now = System.nanoTime();
+        if (now - delayRefreshAt >= 0) {
+            delayRefreshAt = now + DELAY_REFRESH_NANOS;
+            if (latency.count() >= MIN_SAMPLES) {
+                ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+                if (percentiles.length > 0) {
+                    long measured = (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+                    delayNanos = Math.max(measured, settings.minDelay().toNanos());
+                }
+            }
+        }
+        return delayNanos;
+    }
+
+    private void creditCall() {
+        credits.getAndUpdate(c -> Math.min(c + creditPerCall, maxCredits));
+    }
+
+    /** Rend un crédit non consommé, sans dépasser le budget de rafale */
+    private void refundCredit() {
+        credits.getAndUpdate(c -> Math.min(c + CREDIT_UNIT, maxCredits));
+    }
+
+    private boolean tryAcquireCredit() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - CREDIT_UNIT));
+        return true;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("outbound.hedge.requests")
+                .description("Hedges envoyés ou refusés faute de budget")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter winCounter(MeterRegistry meterRegistry, String name, String winner) {
+        return Counter.builder("outbound.hedge.wins")
+                .description("Appel ayant fourni la réponse quand un hedge a été envoyé")
+                .tag("name", name)
+                .tag("winner", winner)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réglages (app.clients.{service}.hedging.*).
+     *
+     * @param percentile    percentile des latences au-delà duquel le hedge part (ex : 0.95)
+     * @param minDelay      délai minimal avant hedge
+     * @param initialDelay  délai utilisé tant que trop peu d'appels ont été mesurés
+     * @param budgetPercent charge supplémentaire maximale due aux hedges, en %
+     * @param budgetBurst   nombre de hedges consécutifs autorisés après une période calme
+     */
+    public record Settings(boolean enabled,
+                           double percentile,
+                           Duration minDelay,
+                           Duration initialDelay,
+                           double budgetPercent,
+                           int budgetBurst) {
+
+        public static Settings from(Environment env, String prefix) {
+            return new Settings(
+                    env.getProperty(prefix + ".enabled", Boolean.class, false),
+                    env.getProperty(prefix + ".percentile", Double.class, 0.95),
+                    env.getProperty(prefix + ".min-delay", Duration.class, Duration.ofMillis(20)),
+                    env.getProperty(prefix + ".initial-delay", Duration.class, Duration.ofMillis(200)),
+                    env.getProperty(prefix + ".budget-percent", Double.class, 5.0),
+                    env.getProperty(prefix + ".budget-burst", Integer.class, 10));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.episen.order.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Nouvelles tentatives des mutations envoyées à un service distant, sur erreur transitoire.
+ *
+ * - erreurs transitoires : I/O ou timeout (ResourceAccessException), 502 / 503 / 504 ;
+ *   les autres erreurs (4xx, circuit ouvert, bulkhead plein) sont relancées immédiatement ;
+ * - backoff exponentiel avec jitter complet : attente aléatoire entre 0 et
+ *   min(maxBackoff, initialBackoff * 2^(tentative-1)), pour ne pas resynchroniser les clients ;
+ * - chaque mutation porte un header Idempotency-Key fixé avant la première tentative
+ *   (idempotentHeaders) : ms-product applique la mutation au plus une fois, un rejeu
+ *   après une réponse perdue renvoie la réponse d'origine.
+ *
+ * Métriques : outbound.calls.retried{name,outcome=retried|exhausted}.
+ */
+@Slf4j
+public class TransientRetry {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final Settings settings;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    public TransientRetry(String name, Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.retried = retryCounter(meterRegistry, name, "retried");
+        this.exhausted = retryCounter(meterRegistry, name, "exhausted");
+    }
+
+    /**
+     * Copie des headers de base avec une nouvelle clé d'idempotence,
+     * à réutiliser pour toutes les tentatives d'une même mutation.
+     */
+    public static HttpHeaders idempotentHeaders(HttpHeaders base) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(base);
+        headers.set(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString());
+        return headers;
+    }
+
+    /**
+     * Exécute la mutation, avec nouvelles tentatives sur erreur transitoire.
+     * La dernière erreur est relancée telle quelle.
+     */
+    public <T> T call(Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return mutation.get();
+
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                if (attempt >= settings.maxAttempts()) {
+                    exhausted.increment();
+                    throw e;
+                }
+
+                Duration delay = backoff(attempt);
+                log.warn("Erreur transitoire (tentative {}/{}), nouvel essai dans {} ms : {}",
+                        attempt, settings.maxAttempts(), delay.toMillis(), e.getMessage());
+                retried.increment();
+
+                if (!sleep(delay)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void run(Runnable mutation) {
+        call(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    /** Jitter complet : uniforme entre 0 et le backoff exponentiel borné */
+    Duration backoff(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        long ceiling = Math.min(settings.maxBackoff().toMillis(), settings.initialBackoff().toMillis() << shift);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    static boolean isTransient(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpServerErrorException server) {
+            int status = server.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    private static boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("outbound.calls.retried")
+                .description("Nouvelles tentatives de mutations sur erreur transitoire")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réglages (app.clients.{service}.retry.*).
+     *
+     * @param maxAttempts nombre total de tentatives (1 = pas de nouvel essai)
+     */
+    public record Settings(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+        public static Settings from(Environment env, String prefix) {
+            return new Settings(
+                    env.getProperty(prefix + ".max-attempts", Integer.class, 3),
+                    env.getProperty(prefix + ".initial-backoff", Duration.class, Duration.ofMillis(100)),
+                    env.getProperty(prefix + ".max-backoff", Duration.class, Duration.ofSeconds(1)));
+        }
+    }
+}
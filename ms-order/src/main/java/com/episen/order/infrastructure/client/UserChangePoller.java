@@ -0,0 +1,124 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.UserChangeDto;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Invalide le cache d'existence des utilisateurs quand ms-membership
+ * désactive ou supprime un utilisateur.
+ *
+ * Lit périodiquement le journal des changements de ms-membership
+ * (GET /api/v1/users/changes). Les ids du journal sont attribués à l'insertion,
+ * pas au commit : un changement d'id plus petit peut devenir visible après un
+ * changement d'id plus grand. Le poller relit donc une fenêtre derrière son curseur :
+ *  - settledChangeId : curseur confirmé, tous les changements d'id inférieur ou égal
+ *    sont validés et appliqués ;
+ *  - chaque passage relit à partir de ce curseur et n'invalide que les changements
+ *    pas encore vus (mémorisés avec la date de première lecture) ;
+ *  - le curseur avance jusqu'au plus grand id lu depuis plus de trailingWindow :
+ *    toute transaction plus ancienne a eu le temps de valider (trailingWindow doit
+ *    dépasser la durée maximale d'une transaction de ms-membership).
+ *
+ * En cas d'échec, le passage suivant reprend au même curseur ; la durée de vie
+ * des entrées borne de toute façon l'obsolescence du cache.
+ */
+@Slf4j
+@Component
+public class UserChangePoller {
+
+    private final UserClient userClient;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration trailingWindow;
+
+    /** Curseur confirmé, modifié uniquement par la tâche planifiée */
+    private volatile long settledChangeId;
+
+    /** Changements déjà appliqués au-delà du curseur confirmé : id -> première lecture */
+    private final NavigableMap<Long, Instant> recentChanges = new TreeMap<>();
+
+    @Autowired
+    public UserChangePoller(UserClient userClient,
+                            @Value("${app.clients.user.existence-cache.invalidation-batch-size:500}") int batchSize,
+                            @Value("${app.clients.user.existence-cache.invalidation-trailing-window:PT1M}") Duration trailingWindow) {
+        this(userClient, Clock.systemUTC(), batchSize, trailingWindow);
+    }
+
+    UserChangePoller(UserClient userClient, Clock clock, int batchSize, Duration trailingWindow) {
+        this.userClient = userClient;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.trailingWindow = trailingWindow;
+    }
+
+    /**
+     * Invalide les utilisateurs modifiés depuis le curseur confirmé, par lots.
+     *
+     * Pas de synchronized : fixedDelay n'exécute jamais deux passages en parallèle,
+     * et un thread virtuel bloqué sur l'appel HTTP dans un bloc synchronized
+     * resterait épinglé à son thread porteur (JDK 21).
+     */
+    @Scheduled(fixedDelayString = "${app.clients.user.existence-cache.invalidation-interval-ms:5000}")
+    public void pollUserChanges() {
+        Instant now = clock.instant();
+        try {
+            long after = settledChangeId;
+            List<UserChangeDto> changes;
+            do {
+                changes = userClient.getUserChanges(after, batchSize);
+
+                List<Long> userIds = new ArrayList<>();
+                for (UserChangeDto change : changes) {
+                    if (recentChanges.putIfAbsent(change.getId(), now) == null) {
+                        userIds.add(change.getUserId());
+                    }
+                }
+                if (!userIds.isEmpty()) {
+                    userClient.invalidateUsers(userIds);
+                    log.debug("Cache utilisateurs : {} changements appliqués", userIds.size());
+                }
+                if (!changes.isEmpty()) {
+                    after = changes.get(changes.size() - 1).getId();
+                }
+
+            } while (changes.size() == batchSize);
+
+            settle(now);
+
+        } catch (RuntimeException e) {
+            log.warn("Lecture des changements d'utilisateurs impossible (curseur={}) : {}", settledChangeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Avance le curseur confirmé jusqu'au plus grand id lu depuis plus de trailingWindow.
+     */
+    private void settle(Instant now) {
+        Instant settledBefore = now.minus(trailingWindow);
+        for (Map.Entry<Long, Instant> change : recentChanges.descendingMap().entrySet()) {
+            if (!change.getValue().isAfter(settledBefore)) {
+                settledChangeId = change.getKey();
+                recentChanges.headMap(change.getKey(), true).clear();
+                return;
+            }
+        }
+    }
+
+    long settledChangeId() {
+        return settledChangeId;
+    }
+}
@@ -1,22 +1,39 @@
 package com.episen.order.infrastructure.client;
 
+import com.episen.order.application.dto.UserChangeDto;
 import com.episen.order.application.dto.UserDto;
 import com.episen.order.infrastructure.exception.ServiceUnauthorizedException;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Client REST responsable de la communication avec le microservice ms-users (ms-membership/users).
  *
  * Rôles :
  *  - interroger ms-users pour vérifier l'existence d’un utilisateur ;
+ *  - mettre en cache cette existence (positif et négatif, voir UserExistenceCache) ;
+ *  - lire les désactivations / suppressions d'utilisateurs pour invalider ce cache ;
  *  - isoler la logique réseau hors du service métier (OrderService).
  *
  * Sécurisation (TP2 - JWT) :
@@ -26,19 +43,45 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  *
  * Particularités :
  *  - l’URL de base est injectée via application.yml (bonne pratique) ;
+ *  - chaque appel passe par le circuit breaker + bulkhead de ms-users (DependencyGuard) ;
+ *  - vérification d'existence non bloquante (existsByIdAsync) si app.http.client.async.enabled
+ *    (AsyncHttpExchange), avec la même traduction des erreurs ;
  *  - aucune logique métier : uniquement transport HTTP + propagation du JWT.
  */
 @Slf4j
 @Component
 public class UserClient {
 
+    private static final ParameterizedTypeReference<List<UserChangeDto>> USER_CHANGE_LIST_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final RestTemplate restTemplate;
+    private final DependencyGuard userGuard;
     private final String userBaseUrl;
+    private final UserExistenceCache existenceCache;
+    private final AsyncHttpExchange asyncExchange;
 
     public UserClient(RestTemplate restTemplate,
-                      @Value("${app.clients.user.base-url}") String userBaseUrl) {
+                      Optional<AsyncHttpExchange> asyncHttpExchange,
+                      @Value("${app.clients.user.base-url}") String userBaseUrl,
+                      @Qualifier("userServiceGuard") DependencyGuard userServiceGuard,
+                      ExecutorService outboundCallExecutor,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.clients.user.existence-cache.max-size:100000}") long cacheMaxSize,
+                      @Value("${app.clients.user.existence-cache.ttl:PT10M}") Duration cacheTtl,
+                      @Value("${app.clients.user.existence-cache.negative-ttl:PT30S}") Duration cacheNegativeTtl,
+                      @Value("${app.clients.user.existence-cache.refresh-after:PT8M}") Duration cacheRefreshAfter,
+                      @Value("${app.clients.user.existence-cache.popular-hits:3}") int cachePopularHits) {
         this.restTemplate = restTemplate;
         this.userBaseUrl = userBaseUrl;
+        this.userGuard = userServiceGuard;
+        this.asyncExchange = asyncHttpExchange.orElse(null);
+        this.existenceCache = new UserExistenceCache(this::fetchExistence, this::fetchExistenceAsync,
+                outboundCallExecutor, Ticker.systemTicker(),
+                cacheMaxSize, cacheTtl, cacheNegativeTtl, cacheRefreshAfter, cachePopularHits);
+
+        // cache.gets{cache="userExistence",result="hit|miss"}, cache.evictions, cache.size...
+        CaffeineCacheMetrics.monitor(meterRegistry, existenceCache.cache(), "userExistence");
     }
 
     /**
@@ -47,7 +90,8 @@ public class UserClient {
      * Endpoint cible : GET /api/v1/users/{id}
      *
      * JWT :
-     *  - récupère le header Authorization de la requête entrante (client -> ms-order)
+     *  - reprend le header Authorization de la requête entrante (client -> ms-order),
+     *    capturé une fois par JwtAuthFilter dans l'AuthContext courant
      *  - le propage vers ms-users (order -> user)
      *
      * Erreurs :
@@ -56,13 +100,105 @@ public class UserClient {
      *    (ex: 404 => UserNotFoundException, etc.)
      */
     public UserDto getUserById(Long id) {
+        return fetchUser(id, AuthContextHolder.current());
+    }
+
+    /**
+     * Indique si un utilisateur existe, depuis le cache local si possible.
+     *
+     * - utilisateur trouvé → true (mis en cache, rafraîchi en tâche de fond s'il est sollicité) ;
+     * - 404 → false (mis en cache pour une durée courte) ;
+     * - autres erreurs : identiques à getUserById(), jamais mises en cache.
+     */
+    public boolean existsById(Long id) {
+        return existenceCache.exists(id, AuthContextHolder.current());
+    }
+
+    /**
+     * Variante non bloquante de existsById() (app.http.client.async.enabled) :
+     * aucun thread n'attend ms-users, la future est complétée à la réception de la réponse.
+     *
+     * Erreurs (portées par la future) : 401 → ServiceUnauthorizedException,
+     * les autres erreurs HTTP restent des RestClientException, comme pour existsById().
+     */
+    public CompletableFuture<Boolean> existsByIdAsync(Long id) {
+        return existenceCache.existsAsync(id, AuthContextHolder.current());
+    }
+
+    /**
+     * Retire des utilisateurs du cache d'existence (désactivés ou supprimés sur ms-users).
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        existenceCache.invalidateAll(userIds);
+    }
+
+    /**
+     * Récupère les désactivations / suppressions d'utilisateurs postérieures au curseur.
+     *
+     * Endpoint cible : GET /api/v1/users/changes?after={afterId}&limit={limit}
+     *
+     * Appelé hors requête HTTP (tâche planifiée) : aucun JWT n'est propagé.
+     */
+    public List<UserChangeDto> getUserChanges(long afterId, int limit) {
+        String url = UriComponentsBuilder.fromUriString(userBaseUrl)
+                .path("/api/v1/users/changes")
+                .queryParam("after", afterId)
+                .queryParam("limit", limit)
+                .toUriString();
+
+        HttpEntity<Void> entity = new HttpEntity<>(AuthContext.NONE.headers());
+
+        try {
+            ResponseEntity<List<UserChangeDto>> res =
+                    userGuard.call(() -> restTemplate.exchange(url, HttpMethod.GET, entity, USER_CHANGE_LIST_TYPE));
+            return res.getBody() == null ? List.of() : res.getBody();
+
+        } catch (HttpClientErrorException.Unauthorized ex) {
+            throw new ServiceUnauthorizedException("USER_SERVICE");
+        }
+    }
+
+    private boolean fetchExistence(Long id, AuthContext authContext) {
+        try {
+            UserDto user = fetchUser(id, authContext);
+            // un utilisateur désactivé ne peut plus commander : traité comme introuvable
+            return user != null && !Boolean.FALSE.equals(user.getActive());
+        } catch (HttpClientErrorException.NotFound ex) {
+            return false;
+        }
+    }
+
+    private CompletableFuture<Boolean> fetchExistenceAsync(Long id, AuthContext authContext) {
+        if (asyncExchange == null) {
+            throw new IllegalStateException("Client HTTP non bloquant désactivé (app.http.client.async.enabled=false)");
+        }
+        String url = userBaseUrl + "/api/v1/users/" + id;
+
+        return userGuard.callAsync(() -> asyncExchange.get(url, authContext.headers(), UserDto.class))
+                .handle((user, error) -> {
+                    if (error == null) {
+                        // un utilisateur désactivé ne peut plus commander : traité comme introuvable
+                        return user != null && !Boolean.FALSE.equals(user.getActive());
+                    }
+                    if (error instanceof HttpClientErrorException.NotFound) {
+                        return false;
+                    }
+                    if (error instanceof HttpClientErrorException.Unauthorized) {
+                        // ms-users a rejeté le token
+                        throw new CompletionException(new ServiceUnauthorizedException("USER_SERVICE"));
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                });
+    }
+
+    private UserDto fetchUser(Long id, AuthContext authContext) {
         String url = userBaseUrl + "/api/v1/users/" + id;
 
-        HttpEntity<Void> entity = new HttpEntity<>(buildAuthHeadersFromIncomingRequest());
+        HttpEntity<Void> entity = new HttpEntity<>(authContext.headers());
 
         try {
             ResponseEntity<UserDto> res =
-                    restTemplate.exchange(url, HttpMethod.GET, entity, UserDto.class);
+                    userGuard.call(() -> restTemplate.exchange(url, HttpMethod.GET, entity, UserDto.class));
             return res.getBody();
 
         } catch (HttpClientErrorException.Unauthorized ex) {
@@ -70,24 +206,4 @@ public class UserClient {
             throw new ServiceUnauthorizedException("USER_SERVICE");
         }
     }
-
-    /**
-     * Construit les headers HTTP à envoyer vers ms-users.
-     * Objectif : recopier le header Authorization (Bearer <token>) si présent.
-     */
-    private HttpHeaders buildAuthHeadersFromIncomingRequest() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        ServletRequestAttributes attrs =
-                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-
-        if (attrs != null) {
-            String auth = attrs.getRequest().getHeader("Authorization");
-            if (auth != null && !auth.isBlank()) {
-                headers.set("Authorization", auth); // propagation tel quel
-            }
-        }
-        return headers;
-    }
-}
\ No newline at end of file
+}
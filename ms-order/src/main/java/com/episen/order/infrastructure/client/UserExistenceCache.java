@@ -0,0 +1,238 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.security.AuthContext;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache local de l'existence des utilisateurs (ms-membership), indexé par userId.
+ *
+ * - cache positif (utilisateur trouvé) : positiveTtl ;
+ * - cache négatif (404) : negativeTtl, plus court (un identifiant peut être créé entre-temps) ;
+ * - single-flight : un seul chargement en vol par utilisateur, les appels concurrents l'attendent ;
+ * - refresh-ahead : un utilisateur « populaire » (au moins popularHits lectures depuis le dernier
+ *   chargement) est rechargé en tâche de fond dès refreshAfter, avant son expiration ;
+ * - invalidation explicite sur désactivation / suppression (voir UserChangePoller) ;
+ *   chaque chargement note la génération d'invalidation à son début : une valeur chargée
+ *   avant l'invalidation de son utilisateur (chargement encore en vol) est écartée à la lecture.
+ *
+ * Les erreurs (401, service indisponible...) ne sont jamais mises en cache.
+ *
+ * existsAsync() charge les utilisateurs absents avec le chargeur non bloquant (AsyncLoader),
+ * avec le même single-flight ; le refresh-ahead garde le chargeur bloquant, exécuté en tâche de fond.
+ */
+@Slf4j
+public class UserExistenceCache {
+
+    private final AsyncCache<Long, Existence> cache;
+    private final Loader loader;
+    private final AsyncLoader asyncLoader;
+    private final Executor executor;
+    private final Ticker ticker;
+    private final long refreshAfterNanos;
+    private final int popularHits;
+
+    /** Utilisateurs en cours de rafraîchissement (un seul rechargement à la fois par utilisateur) */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** Compteur d'invalidations, lu au début de chaque chargement */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Génération de la dernière invalidation par utilisateur, gardée le temps du ttl positif */
+    private final Cache<Long, Long> invalidatedAt;
+
+    public UserExistenceCache(Loader loader,
+                              Executor executor,
+                              Ticker ticker,
+                              long maximumSize,
+                              Duration positiveTtl,
+                              Duration negativeTtl,
+                              Duration refreshAfter,
+                              int popularHits) {
+        this(loader, (userId, auth) -> CompletableFuture.supplyAsync(() -> loader.exists(userId, auth), executor),
+                executor, ticker, maximumSize, positiveTtl, negativeTtl, refreshAfter, popularHits);
+    }
+
+    public UserExistenceCache(Loader loader,
+                              AsyncLoader asyncLoader,
+                              Executor executor,
+                              Ticker ticker,
+                              long maximumSize,
+                              Duration positiveTtl,
+                              Duration negativeTtl,
+                              Duration refreshAfter,
+                              int popularHits) {
+        if (refreshAfter.compareTo(positiveTtl) >= 0) {
+            throw new IllegalArgumentException("refreshAfter doit être inférieur au ttl : " + refreshAfter + " >= " + positiveTtl);
+        }
+        this.loader = loader;
+        this.asyncLoader = asyncLoader;
+        this.executor = executor;
+        this.ticker = ticker;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.popularHits = popularHits;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<Long, Existence>writing((userId, existence) ->
+                        existence.exists() ? positiveTtl : negativeTtl))
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .buildAsync();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(positiveTtl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /** Cache sous-jacent (exposition des statistiques dans le MeterRegistry) */
+    public AsyncCache<Long, Existence> cache() {
+        return cache;
+    }
+
+    /**
+     * Indique si l'utilisateur existe, depuis le cache si possible.
+     * Les exceptions du chargeur sont relancées telles quelles.
+     */
+    public boolean exists(Long userId, AuthContext authContext) {
+        CompletableFuture<Existence> entry = cachedOrLoad(userId, authContext);
+        Existence existence = join(entry);
+
+        if (isStale(userId, existence)) {
+            // chargée avant l'invalidation de l'utilisateur : retirée puis rechargée
+            cache.asMap().remove(userId, entry);
+            existence = join(cachedOrLoad(userId, authContext));
+        }
+
+        refreshAhead(userId, existence, authContext);
+        return existence.exists();
+    }
+
+    /**
+     * Variante non bloquante de exists() : un utilisateur absent du cache est chargé par l'AsyncLoader,
+     * la future est complétée à la réception de la réponse (erreurs du chargeur transmises telles quelles).
+     */
+    public CompletableFuture<Boolean> existsAsync(Long userId, AuthContext authContext) {
+        CompletableFuture<Existence> entry = cachedOrLoadAsync(userId, authContext);
+        return entry
+                .thenCompose(existence -> {
+                    if (!isStale(userId, existence)) {
+                        return CompletableFuture.completedFuture(existence);
+                    }
+                    cache.asMap().remove(userId, entry);
+                    return cachedOrLoadAsync(userId, authContext);
+                })
+                .thenApply(existence -> {
+                    refreshAhead(userId, existence, authContext);
+                    return existence.exists();
+                });
+    }
+
+    /** Retire les utilisateurs du cache (désactivés ou supprimés sur ms-membership) */
+    public void invalidateAll(Collection<Long> userIds) {
+        // génération d'abord : un chargement commencé ensuite lit forcément l'état à jour
+        long invalidation = generation.incrementAndGet();
+        userIds.forEach(userId -> invalidatedAt.put(userId, invalidation));
+        cache.synchronous().invalidateAll(userIds);
+    }
+
+    private CompletableFuture<Existence> cachedOrLoad(Long userId, AuthContext authContext) {
+        return cache.get(userId, (id, ex) -> CompletableFuture.supplyAsync(() -> load(id, authContext), executor));
+    }
+
+    private CompletableFuture<Existence> cachedOrLoadAsync(Long userId, AuthContext authContext) {
+        return cache.get(userId, (id, ex) -> {
+            long startGeneration = generation.get();
+            return asyncLoader.exists(id, authContext).thenApply(exists ->
+                    new Existence(exists, ticker.read(), new AtomicInteger(), startGeneration));
+        });
+    }
+
+    private boolean isStale(Long userId, Existence existence) {
+        Long invalidation = invalidatedAt.getIfPresent(userId);
+        return invalidation != null && invalidation > existence.generation();
+    }
+
+    private static Existence join(CompletableFuture<Existence> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Existence load(Long userId, AuthContext authContext) {
+        long startGeneration = generation.get();
+        return new Existence(loader.exists(userId, authContext), ticker.read(), new AtomicInteger(), startGeneration);
+    }
+
+    private void refreshAhead(Long userId, Existence existence, AuthContext authContext) {
+        int hits = existence.hits().incrementAndGet();
+        if (!existence.exists()
+                || hits < popularHits
+                || ticker.read() - existence.loadedAt() < refreshAfterNanos
+                || !refreshing.add(userId)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> refresh(userId, existence, authContext));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(userId);
+        }
+    }
+
+    private void refresh(Long userId, Existence current, AuthContext authContext) {
+        try {
+            Existence fresh = load(userId, authContext);
+            // une invalidation survenue pendant le rechargement l'emporte
+            CompletableFuture<Existence> cached = cache.asMap().get(userId);
+            if (cached != null && cached.getNow(null) == current) {
+                cache.asMap().replace(userId, cached, CompletableFuture.completedFuture(fresh));
+            }
+        } catch (RuntimeException e) {
+            // la valeur en cache reste servie jusqu'à son expiration
+            log.warn("Rafraîchissement du cache utilisateurs en échec userId={} : {}", userId, e.getMessage());
+        } finally {
+            refreshing.remove(userId);
+        }
+    }
+
+    /** Vérification de l'existence d'un utilisateur sur ms-membership (true / false si 404) */
+    @FunctionalInterface
+    public interface Loader {
+        boolean exists(Long userId, AuthContext authContext);
+    }
+
+    /** Vérification non bloquante de l'existence d'un utilisateur (AsyncHttpExchange) */
+    @FunctionalInterface
+    public interface AsyncLoader {
+        CompletableFuture<Boolean> exists(Long userId, AuthContext authContext);
+    }
+
+    /**
+     * Existence d'un utilisateur, horodatée au chargement (ticker du cache),
+     * avec la génération d'invalidation lue au début du chargement
+     */
+    public record Existence(boolean exists, long loadedAt, AtomicInteger hits, long generation) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.episen.order.infrastructure.config;
+
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration de l'exécuteur utilisé pour les appels sortants parallèles
+ * (ex : récupération des produits d'une commande sur ms-product).
+ *
+ * Objectif :
+ *  - un thread virtuel par appel : les appels HTTP bloquants ne consomment
+ *    pas de thread plateforme pendant l'attente réseau ;
+ *  - la latence d'une création de commande dépend de l'appel le plus lent
+ *    et non plus du nombre de lignes.
+ *
+ * Chaque tâche soumise s'exécute avec l'AuthContext du thread qui la soumet
+ * (AuthContextHolder.propagating) : les clients REST propagent le JWT sans copie
+ * manuelle du contexte de requête.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService outboundCallExecutor() {
+        return AuthContextHolder.propagating(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,74 @@
+package com.episen.order.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool de connexions HTTP qui mesure le temps d'attente d'une connexion (lease).
+ *
+ * Métrique (Timer) :
+ * httpcomponents.httpclient.pool.lease{pool="inter-service",target="ms-product:8082",outcome="acquired|timeout|failed"}
+ *
+ * Un temps de lease qui grimpe signifie que les threads attendent un socket libre :
+ * le pool (max-per-route / max-total) est trop petit pour la charge.
+ */
+class InstrumentedPoolingConnectionManager extends PoolingHttpClientConnectionManager {
+
+    static final String LEASE_TIMER = "httpcomponents.httpclient.pool.lease";
+
+    private final MeterRegistry meterRegistry;
+    private final String poolName;
+
+    InstrumentedPoolingConnectionManager(MeterRegistry meterRegistry, String poolName) {
+        this.meterRegistry = meterRegistry;
+        this.poolName = poolName;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest request = super.lease(id, route, requestTimeout, state);
+
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                String outcome = "failed";
+                try {
+                    ConnectionEndpoint endpoint = request.get(timeout);
+                    outcome = "acquired";
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    outcome = "timeout";
+                    throw e;
+                } finally {
+                    recordLease(route, outcome, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private void recordLease(HttpRoute route, String outcome, long nanos) {
+        Timer.builder(LEASE_TIMER)
+                .description("Temps d'attente d'une connexion dans le pool HTTP")
+                .tag("pool", poolName)
+                .tag("target", route.getTargetHost().toHostString())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
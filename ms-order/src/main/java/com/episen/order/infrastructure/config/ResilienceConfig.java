@@ -0,0 +1,82 @@
+package com.episen.order.infrastructure.config;
+
+import com.episen.order.infrastructure.client.DependencyGuard;
+import com.episen.order.infrastructure.client.RequestHedger;
+import com.episen.order.infrastructure.client.TransientRetry;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Circuit breaker + bulkhead par service distant (voir DependencyGuard).
+ *
+ * Un garde par service, réglé sous app.clients.{product|user}.circuit-breaker.* et .bulkhead.* :
+ * une panne de ms-membership n'ouvre pas le circuit de ms-product, et inversement.
+ * Les registres sont exportés vers Micrometer (état, appels, taux d'échec, appels disponibles).
+ *
+ * Lectures produits (GET) : hedge optionnel sous budget (RequestHedger,
+ * app.clients.product.hedging.*), chaque tentative passant par le garde de ms-product.
+ *
+ * Mutations de stock : nouvelles tentatives avec backoff + jitter sur erreur transitoire
+ * (TransientRetry, app.clients.product.retry.*), protégées par l'Idempotency-Key.
+ * Un circuit ouvert ou un bulkhead plein interrompt les tentatives.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry outboundCircuitBreakers(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry outboundBulkheads(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public DependencyGuard productServiceGuard(Environment env,
+                                               CircuitBreakerRegistry outboundCircuitBreakers,
+                                               BulkheadRegistry outboundBulkheads,
+                                               MeterRegistry meterRegistry) {
+        return new DependencyGuard("productService", "PRODUCT_SERVICE",
+                DependencyGuard.Settings.from(env, "app.clients.product"),
+                outboundCircuitBreakers, outboundBulkheads, meterRegistry);
+    }
+
+    @Bean
+    public DependencyGuard userServiceGuard(Environment env,
+                                            CircuitBreakerRegistry outboundCircuitBreakers,
+                                            BulkheadRegistry outboundBulkheads,
+                                            MeterRegistry meterRegistry) {
+        return new DependencyGuard("userService", "USER_SERVICE",
+                DependencyGuard.Settings.from(env, "app.clients.user"),
+                outboundCircuitBreakers, outboundBulkheads, meterRegistry);
+    }
+
+    @Bean
+    public RequestHedger productReadHedger(Environment env,
+                                           ExecutorService outboundCallExecutor,
+                                           MeterRegistry meterRegistry) {
+        return new RequestHedger("productService", "PRODUCT_SERVICE",
+                RequestHedger.Settings.from(env, "app.clients.product.hedging"),
+                outboundCallExecutor, meterRegistry);
+    }
+
+    @Bean
+    public TransientRetry productMutationRetry(Environment env, MeterRegistry meterRegistry) {
+        return new TransientRetry("productService",
+                TransientRetry.Settings.from(env, "app.clients.product.retry"), meterRegistry);
+    }
+}
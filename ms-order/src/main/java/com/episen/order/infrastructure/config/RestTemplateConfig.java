@@ -1,12 +1,30 @@
 package com.episen.order.infrastructure.config;
 
+import com.episen.order.infrastructure.client.AsyncHttpExchange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
 
 /**
  * Configuration du RestTemplate utilisé par les clients REST (UserClient / ProductClient).
@@ -15,22 +33,119 @@ import org.springframework.web.client.RestTemplate;
  *  - fournir un RestTemplate capable de supporter toutes les méthodes HTTP,
  *    notamment PATCH, grâce à HttpComponentsClientHttpRequestFactory.
  *  - centraliser la configuration pour ne pas dupliquer dans les services.
+ *
+ * Pool de connexions (app.http.client.*) :
+ *  - limites totale et par route (ms-product, ms-membership) ;
+ *  - timeouts : connexion, réponse, attente d'une connexion libre dans le pool ;
+ *  - keep-alive : durée annoncée par le serveur, bornée par keep-alive ;
+ *  - éviction en tâche de fond des connexions expirées et inactives ;
+ *  - métriques : httpcomponents.httpclient.pool.* (connexions, attentes) et temps de lease.
+ *
+ * Client non bloquant (app.http.client.async.enabled, désactivé par défaut) :
+ *  - java.net.http.HttpClient (sendAsync) pour les lectures de la création de commande
+ *    (existence de l'utilisateur, nom + prix des produits), voir AsyncHttpExchange ;
+ *  - mêmes timeouts de connexion et de réponse ; pas de limite de connexions par route :
+ *    le bulkhead de chaque service (DependencyGuard) borne les appels simultanés ;
+ *  - les mutations de stock restent sur le RestTemplate (Idempotency-Key, nouvelles tentatives).
  */
 
 @Configuration
 public class RestTemplateConfig {
 
+    public static final String ASYNC_ENABLED_PROPERTY = "app.http.client.async.enabled";
+
+    private static final String POOL_NAME = "inter-service";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager interServiceConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${app.http.client.max-total:200}") int maxTotal,
+            @Value("${app.http.client.max-per-route:100}") int maxPerRoute,
+            @Value("${app.http.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${app.http.client.time-to-live:PT5M}") Duration timeToLive,
+            @Value("${app.http.client.validate-after-inactivity:PT2S}") Duration validateAfterInactivity) {
+
+        PoolingHttpClientConnectionManager connectionManager =
+                new InstrumentedPoolingConnectionManager(meterRegistry, POOL_NAME);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setTimeToLive(TimeValue.of(timeToLive))
+                .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                .build());
+
+        // httpcomponents.httpclient.pool.total.{max,connections,pending}, route.max.default
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient interServiceHttpClient(
+            PoolingHttpClientConnectionManager interServiceConnectionManager,
+            @Value("${app.http.client.connection-request-timeout:PT1S}") Duration connectionRequestTimeout,
+            @Value("${app.http.client.response-timeout:PT5S}") Duration responseTimeout,
+            @Value("${app.http.client.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${app.http.client.idle-timeout:PT30S}") Duration idleTimeout) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(interServiceConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(boundedKeepAlive(TimeValue.of(keepAlive)))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient interServiceHttpClient) {
 
         // Factory HTTP basée sur Apache HttpClient → nécessaire pour les requêtes PATCH
         HttpComponentsClientHttpRequestFactory requestFactory =
-                new HttpComponentsClientHttpRequestFactory(
-                        HttpClients.createDefault()
-                );
+                new HttpComponentsClientHttpRequestFactory(interServiceHttpClient);
 
         return builder
                 .requestFactory(() -> requestFactory)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ASYNC_ENABLED_PROPERTY, havingValue = "true")
+    public HttpClient interServiceAsyncHttpClient(
+            ExecutorService outboundCallExecutor,
+            @Value("${app.http.client.connect-timeout:PT2S}") Duration connectTimeout) {
+
+        // réponses traitées sur les threads virtuels des appels sortants
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(outboundCallExecutor)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ASYNC_ENABLED_PROPERTY, havingValue = "true")
+    public AsyncHttpExchange asyncHttpExchange(
+            HttpClient interServiceAsyncHttpClient,
+            ObjectMapper objectMapper,
+            @Value("${app.http.client.response-timeout:PT5S}") Duration responseTimeout) {
+
+        return new AsyncHttpExchange(interServiceAsyncHttpClient, objectMapper, responseTimeout);
+    }
+
+    /**
+     * Durée de conservation d'une connexion après une réponse : celle annoncée par le serveur
+     * (header Keep-Alive) si elle est plus courte, sinon maxKeepAlive.
+     */
+    static ConnectionKeepAliveStrategy boundedKeepAlive(TimeValue maxKeepAlive) {
+        return (response, context) -> {
+            TimeValue announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(announced) && announced.compareTo(maxKeepAlive) < 0 ? announced : maxKeepAlive;
+        };
+    }
+}
@@ -31,6 +31,20 @@ public class GlobalExceptionHandler {
                 .body("INSUFFICIENT_STOCK : Stock insuffisant");
     }
 
+    @ExceptionHandler(StockHoldConflictException.class)
+    public ResponseEntity<String> handleStockHoldConflict(StockHoldConflictException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("STOCK_HOLD_CONFLICT : Réservation de stock expirée ou libérée");
+    }
+
+    @ExceptionHandler(StockHoldExpiredException.class)
+    public ResponseEntity<String> handleStockHoldExpired(StockHoldExpiredException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("STOCK_HOLD_EXPIRED : Réservation de stock expirée et stock insuffisant, commande annulée");
+    }
+
     @ExceptionHandler(ServiceUnavailableException.class)
     public ResponseEntity<String> handleServiceDown(ServiceUnavailableException ex) {
         return ResponseEntity
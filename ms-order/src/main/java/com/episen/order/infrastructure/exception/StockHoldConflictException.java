@@ -0,0 +1,7 @@
+package com.episen.order.infrastructure.exception;
+
+public class StockHoldConflictException extends RuntimeException {
+    public StockHoldConflictException(String holdId) {
+        super("Réservation de stock expirée ou libérée holdId=" + holdId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.episen.order.infrastructure.exception;
+
+public class StockHoldExpiredException extends RuntimeException {
+    public StockHoldExpiredException(Long orderId) {
+        super("Réservation de stock expirée et stock insuffisant : commande id=" + orderId + " annulée");
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Centralise les métriques Micrometer liées aux commandes.
@@ -79,10 +80,71 @@ public class OrderMetrics {
                 .increment();
     }
 
+    /**
+     * Compteur de compensations de stock terminées (saga ms-order)
+     * Exemple :
+     * order_stock_compensation_total{reason="ORDER_SAVE_FAILED",outcome="released"} 1
+     */
+    public void incrementStockCompensation(String reason, String outcome) {
+        Counter.builder("order_stock_compensation_total")
+                .description("Nombre total de compensations de stock terminées, par motif et issue")
+                .tag("reason", reason)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Compteur des vérifications d'existence d'utilisateur à la création de commande, par source
+     * Exemple :
+     * order_user_check_total{source="token_claims"} 120   (appel ms-membership évité)
+     * order_user_check_total{source="user_client"} 8      (cache d'existence ou ms-membership)
+     */
+    public void incrementUserCheck(String source) {
+        Counter.builder("order_user_check_total")
+                .description("Nombre total de vérifications d'utilisateur à la création de commande, par source")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Compteur d'événements de commande publiés par le relais de l'outbox
+     * Exemple :
+     * order_events_published_total 42
+     */
+    public void incrementOrderEventsPublished(int count) {
+        Counter.builder("order_events_published_total")
+                .description("Nombre total d'événements de commande publiés (outbox)")
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Compteur de lots d'événements dont la publication a échoué (repris au passage suivant)
+     */
+    public void incrementOrderEventsPublishFailed() {
+        Counter.builder("order_events_publish_failed_total")
+                .description("Nombre total de lots d'événements de commande non publiés (outbox)")
+                .register(meterRegistry)
+                .increment();
+    }
+
     /* =========================
        GAUGE
        ========================= */
 
+    /**
+     * Gauge : nombre de compensations de stock en attente (à rejouer)
+     * Exemple :
+     * order_stock_compensation_outstanding 2
+     */
+    public <T> void registerOutstandingStockCompensations(T state, ToDoubleFunction<T> outstanding) {
+        Gauge.builder("order_stock_compensation_outstanding", state, outstanding)
+                .description("Nombre de compensations de stock en attente")
+                .register(meterRegistry);
+    }
+
     public double getAmountToday() {
         return amountToday;
     }
@@ -0,0 +1,69 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sink "file" : les événements sont ajoutés à un fichier NDJSON (un objet JSON par ligne).
+ * Pratique en local pour suivre le flux avec un simple tail -f.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOrderEventSink(ObjectMapper objectMapper,
+                              @Value("${app.outbox.file.path:order-events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Sérialise les écritures dans le fichier.
+     * Verrou plutôt que synchronized : un thread virtuel bloqué sur l'I/O disque
+     * dans un bloc synchronized resterait épinglé à son thread porteur (JDK 21).
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Override
+    public void publish(List<OrderEventDto> events) {
+        StringBuilder lines = new StringBuilder();
+        for (OrderEventDto event : events) {
+            try {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Sérialisation impossible de l'événement id=" + event.getId(), e);
+            }
+        }
+
+        writeLock.lock();
+        try {
+            // un seul write par lot : le lot est ajouté en entier ou pas du tout (hors crash disque)
+            Files.writeString(path, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture impossible dans " + path, e);
+        } finally {
+            writeLock.unlock();
+        }
+        log.debug("{} événements de commande écrits dans {}", events.size(), path);
+    }
+}
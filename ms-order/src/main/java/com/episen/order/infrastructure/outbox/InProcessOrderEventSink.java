@@ -0,0 +1,32 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sink "in-process" : chaque événement est republié comme événement Spring
+ * (à écouter avec @EventListener(OrderEventDto.class)). Sink par défaut.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class InProcessOrderEventSink implements OrderEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<OrderEventDto> events) {
+        for (OrderEventDto event : events) {
+            applicationEventPublisher.publishEvent(event);
+        }
+        log.debug("{} événements de commande publiés (in-process)", events.size());
+    }
+}
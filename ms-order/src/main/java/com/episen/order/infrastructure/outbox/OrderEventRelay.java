@@ -0,0 +1,118 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.application.mapper.OrderEventMapper;
+import com.episen.order.domain.entity.OrderEvent;
+import com.episen.order.domain.repository.OrderEventRepository;
+import com.episen.order.infrastructure.metrics.OrderMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relais de l'outbox : publie par lots les événements de commande non publiés.
+ *
+ * Fonctionnement :
+ *  - lit au plus batchSize événements non publiés, dans l'ordre des ids ;
+ *  - les envoie au sink en un seul appel ;
+ *  - les marque publiés en leur attribuant un numéro de publication (publishSeq)
+ *    qui suit le dernier attribué, dans une seule transaction ;
+ *  - recommence tant que des lots pleins sont trouvés.
+ *
+ * Le flux consommateurs est paginé sur publishSeq : un événement d'id plus petit validé
+ * en retard reçoit simplement un numéro plus grand, il n'est jamais sauté.
+ *
+ * Si le sink échoue, rien n'est marqué : le lot est repris au passage suivant.
+ * Un seul relais doit tourner à la fois (une instance de ms-order) ; l'unicité de
+ * publish_seq fait échouer le marquage d'un relais concurrent (lot republié ensuite).
+ */
+@Slf4j
+@Component
+public class OrderEventRelay {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventMapper orderEventMapper;
+    private final OrderEventSink orderEventSink;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository,
+                           OrderEventMapper orderEventMapper,
+                           OrderEventSink orderEventSink,
+                           OrderMetrics orderMetrics,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.outbox.relay.batch-size:200}") int batchSize) {
+        this.orderEventRepository = orderEventRepository;
+        this.orderEventMapper = orderEventMapper;
+        this.orderEventSink = orderEventSink;
+        this.orderMetrics = orderMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:500}")
+    public void relayPendingEvents() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publie un lot d'événements.
+     *
+     * @return nombre d'événements publiés (0 si rien à publier ou en cas d'échec du sink)
+     */
+    int relayBatch() {
+        List<OrderEvent> batch =
+                orderEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderEventDto> events = batch.stream().map(orderEventMapper::toDto).toList();
+        try {
+            orderEventSink.publish(events);
+        } catch (RuntimeException e) {
+            log.warn("Publication de {} événements de commande en échec, nouvel essai au prochain passage",
+                    events.size(), e);
+            orderMetrics.incrementOrderEventsPublishFailed();
+            return 0;
+        }
+
+        List<Long> ids = events.stream().map(OrderEventDto::getId).toList();
+        transactionTemplate.executeWithoutResult(tx -> markPublished(ids));
+
+        orderMetrics.incrementOrderEventsPublished(events.size());
+        return events.size();
+    }
+
+    /**
+     * Marque les événements publiés, avec des numéros consécutifs dans l'ordre du lot.
+     * Appelé dans la transaction du lot : les numéros deviennent visibles ensemble.
+     */
+    private void markPublished(List<Long> ids) {
+        long sequence = orderEventRepository.findMaxPublishSeq();
+        LocalDateTime publishedAt = LocalDateTime.now();
+
+        Map<Long, OrderEvent> events = orderEventRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(OrderEvent::getId, Function.identity()));
+        for (Long id : ids) {
+            OrderEvent event = events.get(id);
+            event.setPublishSeq(++sequence);
+            event.setPublishedAt(publishedAt);
+        }
+        orderEventRepository.saveAll(events.values());
+    }
+}
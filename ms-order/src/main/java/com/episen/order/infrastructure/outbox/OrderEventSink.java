@@ -0,0 +1,21 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+
+import java.util.List;
+
+/**
+ * Destination des événements de commande publiés par OrderEventRelay.
+ *
+ * Implémentations fournies (propriété app.outbox.sink) :
+ *  - in-process : événements Spring publiés dans l'application (défaut, tests locaux) ;
+ *  - file       : ajout des événements dans un fichier NDJSON.
+ *
+ * Contrat : publish() lève une exception si le lot n'a pas été publié ; il sera
+ * alors repris au passage suivant du relais (livraison "au moins une fois",
+ * les consommateurs dédoublonnent sur l'id).
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderEventDto> events);
+}
@@ -0,0 +1,87 @@
+package com.episen.order.infrastructure.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+
+/**
+ * Contexte d'authentification d'une requête entrante, immuable.
+ *
+ * Capturé une seule fois par JwtAuthFilter (token vérifié) puis transporté par
+ * AuthContextHolder, y compris vers les exécuteurs et threads virtuels.
+ *
+ * Les headers sortants (Content-Type JSON + Authorization: Bearer ...) sont construits
+ * une fois à la capture, en lecture seule, et réutilisés par chaque appel de
+ * ProductClient / UserClient.
+ */
+public final class AuthContext {
+
+    /** Aucun token (hors requête HTTP, actuator, tâches planifiées) */
+    public static final AuthContext NONE = new AuthContext(null, null, null);
+
+    private final String authorization;
+    private final Long userId;
+    private final Instant issuedAt;
+    private final HttpHeaders headers;
+
+    private AuthContext(String authorization, Long userId, Instant issuedAt) {
+        this.authorization = authorization;
+        this.userId = userId;
+        this.issuedAt = issuedAt;
+        this.headers = buildHeaders(authorization);
+    }
+
+    /**
+     * @param authorization valeur du header Authorization (Bearer ...)
+     * @param userId        claim userId du token vérifié (null si absent)
+     * @param issuedAt      claim iat du token vérifié (null si absent)
+     */
+    public static AuthContext of(String authorization, Long userId, Instant issuedAt) {
+        if (authorization == null || authorization.isBlank()) {
+            return NONE;
+        }
+        return new AuthContext(authorization, userId, issuedAt);
+    }
+
+    /** Contexte réduit au header Authorization (sans claims) */
+    public static AuthContext ofAuthorization(String authorization) {
+        return of(authorization, null, null);
+    }
+
+    public String authorization() {
+        return authorization;
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    public Instant issuedAt() {
+        return issuedAt;
+    }
+
+    /** Headers à envoyer aux autres services (instance partagée, lecture seule) */
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public boolean isAuthenticated() {
+        return authorization != null;
+    }
+
+    private static HttpHeaders buildHeaders(String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    @Override
+    public String toString() {
+        // jamais le token dans les logs
+        return "AuthContext[userId=" + userId + ", authenticated=" + isAuthenticated() + "]";
+    }
+}
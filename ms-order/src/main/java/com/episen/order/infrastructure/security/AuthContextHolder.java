@@ -0,0 +1,137 @@
+package com.episen.order.infrastructure.security;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porte le contexte d'authentification (AuthContext) du thread courant.
+ *
+ * - positionné par JwtAuthFilter pour la durée de la requête, puis effacé ;
+ * - transmis aux tâches asynchrones par wrap() ou par un exécuteur propagating() :
+ *   le contexte du thread qui soumet la tâche est restauré dans le thread qui l'exécute
+ *   (thread plateforme ou virtuel), puis l'ancien contexte est remis en place ;
+ * - bound() fige le contexte courant pour des tâches soumises plus tard depuis un autre thread
+ *   (étapes d'une CompletableFuture complétée par le client HTTP non bloquant).
+ *
+ * Le contexte étant immuable, le même objet est partagé sans copie entre threads.
+ */
+public final class AuthContextHolder {
+
+    private static final ThreadLocal<AuthContext> CURRENT = new ThreadLocal<>();
+
+    private AuthContextHolder() {
+    }
+
+    /** Contexte du thread courant, AuthContext.NONE si aucun */
+    public static AuthContext current() {
+        AuthContext context = CURRENT.get();
+        return context == null ? AuthContext.NONE : context;
+    }
+
+    public static void set(AuthContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Tâche exécutée avec le contexte capturé maintenant (thread appelant) */
+    public static Runnable wrap(Runnable task) {
+        return runningWith(current(), task);
+    }
+
+    /** Tâche exécutée avec le contexte capturé maintenant (thread appelant) */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        AuthContext captured = current();
+        return () -> {
+            AuthContext previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Exécuteur qui propage le contexte du thread appelant à chaque tâche soumise
+     * (execute, submit, invokeAll...).
+     */
+    public static ExecutorService propagating(ExecutorService delegate) {
+        return new PropagatingExecutorService(delegate);
+    }
+
+    /**
+     * Exécuteur dont chaque tâche s'exécute avec le contexte capturé maintenant (thread appelant),
+     * quel que soit le thread qui la soumet.
+     */
+    public static Executor bound(Executor delegate) {
+        AuthContext captured = current();
+        return task -> delegate.execute(runningWith(captured, task));
+    }
+
+    private static Runnable runningWith(AuthContext captured, Runnable task) {
+        return () -> {
+            AuthContext previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(AuthContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static final class PropagatingExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+
+        private PropagatingExecutorService(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
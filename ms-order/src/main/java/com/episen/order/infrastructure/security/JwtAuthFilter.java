@@ -8,20 +8,32 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Authentification des requêtes par JWT (header Authorization: Bearer ...).
+ *
+ * Chemin nominal : claims issus du cache de JwtTokenService, liste d'autorités
+ * partagée par ensemble de rôles (RoleAuthorities), logs debug évalués seulement si actifs.
+ *
+ * Ce chemin n'est pas sans allocation : environ 2,4 Ko par requête (JwtAuthFilterBenchmark,
+ * -prof gc). L'essentiel vient de la clé du cache de claims, une empreinte SHA-256 du token
+ * (extraction du token, octets, hash, encodage Base64) : le cache est volontairement indexé
+ * par empreinte pour ne pas conserver les tokens en mémoire. S'y ajoutent le contexte de
+ * sécurité, l'AuthContext et la clé de RoleAuthorities.
+ */
 @Slf4j
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
+    private final RoleAuthorities roleAuthorities = new RoleAuthorities();
 
     public JwtAuthFilter(JwtTokenService jwtTokenService) {
         this.jwtTokenService = jwtTokenService;
@@ -50,7 +62,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        log.debug("JWT filter triggered for path={}", path);
+        if (log.isDebugEnabled()) {
+            log.debug("JWT filter triggered for path={}", path);
+        }
 
         String auth = request.getHeader("Authorization");
         if (auth == null || !auth.startsWith("Bearer ")) {
@@ -65,20 +79,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             Claims claims = jwtTokenService.validate(token);
 
             Object userId = claims.get("userId");
+            @SuppressWarnings("unchecked")
             List<String> roles = claims.get("roles", List.class);
 
-            log.debug("JWT valid userId={} roles={} path={}", userId, roles, path);
+            if (log.isDebugEnabled()) {
+                log.debug("JWT valid userId={} roles={} path={}", userId, roles, path);
+            }
 
             // Attributs request (utile pour services métier)
             request.setAttribute("userId", userId);
             request.setAttribute("roles", roles);
 
-            var authorities = (roles == null)
-                    ? List.<SimpleGrantedAuthority>of()
-                    : roles.stream()
-                           .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
-                           .map(SimpleGrantedAuthority::new)
-                           .collect(Collectors.toList());
+            // Contexte d'authentification immuable, propagé aux appels sortants (AuthContextHolder)
+            AuthContextHolder.set(AuthContext.of(
+                    auth,
+                    userId instanceof Number n ? n.longValue() : null,
+                    claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant()));
+
+            List<GrantedAuthority> authorities = roleAuthorities.of(roles);
 
             var authentication = new UsernamePasswordAuthenticationToken(
                     userId,
@@ -101,6 +119,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         } finally {
             SecurityContextHolder.clearContext();
+            AuthContextHolder.clear();
         }
     }
 }
\ No newline at end of file
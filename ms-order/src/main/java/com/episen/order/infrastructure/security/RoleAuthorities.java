@@ -0,0 +1,58 @@
+package com.episen.order.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listes d'autorités Spring Security précalculées, partagées par ensemble de rôles.
+ *
+ * Les tokens portent quelques combinaisons de rôles seulement (USER, ADMIN, ...) :
+ * la liste ROLE_* correspondante est construite une fois puis réutilisée, immuable,
+ * par toutes les requêtes. La clé est l'ensemble des rôles : [USER, ADMIN] et
+ * [ADMIN, USER] partagent la même entrée. Une lecture en cache ne crée que cette
+ * clé (ensemble immuable de quelques rôles).
+ *
+ * Le cache est borné (MAX_ROLE_SETS) : une combinaison inhabituelle au-delà
+ * reste correctement convertie, elle évince simplement une entrée ancienne.
+ */
+final class RoleAuthorities {
+
+    static final int MAX_ROLE_SETS = 256;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Cache<Set<String>, List<GrantedAuthority>> byRoles = Caffeine.newBuilder()
+            .maximumSize(MAX_ROLE_SETS)
+            .build();
+
+    /**
+     * @param roles claim "roles" du token (peut être null)
+     * @return liste immuable d'autorités, partagée entre les requêtes
+     */
+    List<GrantedAuthority> of(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+
+        // clé copiée et indépendante de l'ordre : la liste du token ne peut pas modifier l'entrée
+        return byRoles.get(Set.copyOf(roles), RoleAuthorities::toAuthorities);
+    }
+
+    /** Autorités triées par nom : même liste quel que soit l'ordre des rôles dans le token */
+    private static List<GrantedAuthority> toAuthorities(Set<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role));
+        }
+        authorities.sort(Comparator.comparing(GrantedAuthority::getAuthority));
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,71 @@
+package com.episen.order.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Mode « claims-trusted » : décide si les claims du JWT vérifié par JwtAuthFilter
+ * suffisent à prouver l'existence d'un utilisateur, sans appel à ms-membership.
+ *
+ * Conditions (toutes requises) :
+ *  - mode activé (app.security.claims-trusted.enabled) ;
+ *  - le claim userId du token vérifié est égal à l'utilisateur demandé ;
+ *  - le token a été émis il y a moins de max-token-age (claim iat) :
+ *    ms-membership a émis ce token pour cet utilisateur, qui existait donc à ce moment-là.
+ *
+ * Les claims sont lus dans l'AuthContext courant (AuthContextHolder), y compris depuis
+ * un thread de l'exécuteur des appels sortants.
+ * Hors requête HTTP ou sans token vérifié, la réponse est toujours false.
+ */
+@Slf4j
+@Component
+public class TrustedUserClaims {
+
+    private final boolean enabled;
+    private final Duration maxTokenAge;
+    private final Clock clock;
+
+    @Autowired
+    public TrustedUserClaims(@Value("${app.security.claims-trusted.enabled:false}") boolean enabled,
+                             @Value("${app.security.claims-trusted.max-token-age:PT5M}") Duration maxTokenAge) {
+        this(enabled, maxTokenAge, Clock.systemUTC());
+    }
+
+    TrustedUserClaims(boolean enabled, Duration maxTokenAge, Clock clock) {
+        this.enabled = enabled;
+        this.maxTokenAge = maxTokenAge;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true si le token de la requête courante suffit à garantir l'existence de userId
+     */
+    public boolean vouchesFor(Long userId) {
+        if (!enabled || userId == null) {
+            return false;
+        }
+
+        AuthContext context = AuthContextHolder.current();
+        if (!userId.equals(context.userId())) {
+            return false;
+        }
+        Instant iat = context.issuedAt();
+        if (iat == null) {
+            return false;
+        }
+
+        Duration age = Duration.between(iat, clock.instant());
+        boolean young = !age.isNegative() && age.compareTo(maxTokenAge) <= 0;
+        if (!young) {
+            log.debug("Token trop ancien pour le mode claims-trusted userId={} age={}", userId, age);
+        }
+        return young;
+    }
+}
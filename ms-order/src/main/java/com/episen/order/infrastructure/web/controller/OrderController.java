@@ -7,23 +7,37 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.application.dto.OrderExportFilterDto;
+import com.episen.order.application.dto.OrderPageDto;
+import com.episen.order.application.dto.OrderPageRequestDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
+import com.episen.order.application.service.OrderEventService;
+import com.episen.order.application.service.OrderExportService;
 import com.episen.order.application.service.OrderService;
 
-import java.net.URI;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contrôleur REST pour la gestion des commandes.
@@ -47,37 +61,140 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderEventService orderEventService;
+    private final OrderExportService orderExportService;
+
+    private static final String ORDER_EXPORT_MEDIA_TYPE = "application/x-ndjson";
 
     /**
-     * GET /api/v1/orders
-     * Récupère la liste de toutes les commandes
+     * GET /api/v1/orders?cursor=...&size=...&sort=desc
+     * Récupère une page de commandes (pagination par curseur sur (createdAt, id))
      *
-     * @return Liste des commandes avec code 200 OK
+     * @param page curseur, taille de page et tri
+     * @return Page de commandes avec code 200 OK (nextCursor pour la page suivante)
      */
     @Operation(
-            summary = "Récupérer toutes les commandes",
-            description = "Retourne la liste complète de toutes les commandes enregistrées"
+            summary = "Récupérer les commandes (paginé)",
+            description = "Retourne une page de commandes triées par date de création ; "
+                    + "repasser nextCursor dans ?cursor= pour obtenir la page suivante"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Liste récupérée avec succès",
+                    description = "Page récupérée avec succès",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            schema = @Schema(implementation = OrderResponseDto.class)
+                            schema = @Schema(implementation = OrderPageDto.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Curseur, taille ou tri invalide",
+                    content = @Content
             )
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
+    public ResponseEntity<OrderPageDto> getAllOrders(@ParameterObject OrderPageRequestDto page) {
 
-        log.info("GET /api/v1/orders - Récupération de toutes les commandes");
+        log.info("GET /api/v1/orders - Récupération d'une page de commandes (size={}, sort={})",
+                page.getSize(), page.getSort());
 
-        List<OrderResponseDto> orders = orderService.getAllOrders();
+        OrderPageDto orders = orderService.getAllOrders(page);
 
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * GET /api/v1/orders/events?after={cursor}&limit={n}
+     * Flux des événements de commande (création, changement de statut, suppression)
+     *
+     * Le consommateur repasse la sequence du dernier événement reçu dans ?after= :
+     * seuls les nouveaux événements sont renvoyés, sans relire la table des commandes.
+     *
+     * @param after curseur (0 pour lire depuis le début)
+     * @param limit nombre maximal d'événements (borné côté serveur)
+     * @return Événements triés par sequence croissante avec code 200 OK
+     */
+    @Operation(
+            summary = "Lire le flux des événements de commande",
+            description = "Retourne les événements publiés dont la sequence est strictement supérieure au curseur 'after'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Événements récupérés avec succès",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OrderEventDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Curseur ou limite invalide",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/events", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<OrderEventDto>> getOrderEvents(
+            @Parameter(description = "Sequence du dernier événement lu")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Nombre maximal d'événements")
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.info("GET /api/v1/orders/events - after={}, limit={}", after, limit);
+
+        return ResponseEntity.ok(orderEventService.getEventsAfter(after, limit));
+    }
+
+    /**
+     * GET /api/v1/orders/export?from=...&to=...&status=...
+     * Exporte les commandes au format NDJSON (une commande JSON par ligne), en flux
+     *
+     * Destiné aux jobs de reporting : la réponse est écrite au fil de la lecture en base,
+     * la mémoire utilisée ne dépend pas du nombre de commandes exportées.
+     *
+     * @param from date de création minimale (incluse, ISO-8601)
+     * @param to date de création maximale (exclue, ISO-8601)
+     * @param status statut de commande
+     */
+    @Operation(
+            summary = "Exporter les commandes (NDJSON)",
+            description = "Écrit en flux les commandes filtrées par période de création et statut, "
+                    + "une commande JSON par ligne (application/x-ndjson)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export en cours d'écriture",
+                    content = @Content(mediaType = ORDER_EXPORT_MEDIA_TYPE)
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Filtres invalides",
+                    content = @Content
+            )
+    })
+    @GetMapping("/export")
+    public void exportOrders(
+            @Parameter(description = "Date de création minimale (incluse), ex : 2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Date de création maximale (exclue)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Statut de la commande")
+            @RequestParam(required = false) String status,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /api/v1/orders/export - from={}, to={}, status={}", from, to, status);
+
+        response.setContentType(ORDER_EXPORT_MEDIA_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ndjson\"");
+
+        orderExportService.exportNdjson(
+                OrderExportFilterDto.builder().from(from).to(to).status(status).build(),
+                response.getOutputStream());
+    }
+
     /**
      * GET /api/v1/orders/{id}
      * Récupère une commande par son ID
@@ -122,6 +239,7 @@ public class OrderController {
      *
      * @param request Données de la commande à créer
      * @return La commande créée avec code 201 CREATED et Location header
+     *         (réponse asynchrone, voir OrderService.createOrderAsync)
      */
     @Operation(
             summary = "Créer une nouvelle commande",
@@ -146,7 +264,7 @@ public class OrderController {
     })
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<OrderResponseDto> createOrder(
+    public CompletableFuture<ResponseEntity<OrderResponseDto>> createOrder(
             @Parameter(description = "Données de la commande à créer", required = true)
             @Valid @RequestBody OrderRequestDto request) {
 
@@ -155,73 +273,75 @@ public class OrderController {
                 (request.getItems() != null ? request.getItems().size() : 0)
         );
 
-        OrderResponseDto createdOrder = orderService.createOrder(request);
-
         // Best practice REST : retourner l'URI de la ressource créée dans le header Location
-        URI location = ServletUriComponentsBuilder
+        // (construite ici, la réponse pouvant être produite hors du thread de la requête)
+        UriComponentsBuilder location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(createdOrder.getId())
-                .toUri();
+                .path("/{id}");
 
-        return ResponseEntity
-                .created(location)
-                .body(createdOrder);
+        // client HTTP non bloquant actif : le thread de la requête est rendu pendant les appels sortants
+        return orderService.createOrderAsync(request)
+                .thenApply(createdOrder -> ResponseEntity
+                        .created(location.buildAndExpand(createdOrder.getId()).toUri())
+                        .body(createdOrder));
     }
 
     /**
-     * GET /api/v1/orders/user/{userId}
-     * Récupère toutes les commandes d'un utilisateur
+     * GET /api/v1/orders/user/{userId}?cursor=...&size=...&sort=desc
+     * Récupère une page des commandes d'un utilisateur
      *
      * @param userId L'identifiant de l'utilisateur
-     * @return Liste des commandes de l'utilisateur avec code 200 OK
+     * @param page curseur, taille de page et tri
+     * @return Page des commandes de l'utilisateur avec code 200 OK
      */
     @Operation(
-            summary = "Récupérer les commandes d'un utilisateur",
-            description = "Retourne la liste des commandes associées à un utilisateur donné"
+            summary = "Récupérer les commandes d'un utilisateur (paginé)",
+            description = "Retourne une page des commandes associées à un utilisateur donné"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Liste récupérée avec succès",
+                    description = "Page récupérée avec succès",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            schema = @Schema(implementation = OrderResponseDto.class)
+                            schema = @Schema(implementation = OrderPageDto.class)
                     )
             )
     })
     @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDto>> getOrdersByUser(
+    public ResponseEntity<OrderPageDto> getOrdersByUser(
             @Parameter(description = "ID de l'utilisateur", required = true)
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @ParameterObject OrderPageRequestDto page) {
 
         log.info("GET /api/v1/orders/user/{} - Récupération des commandes utilisateur", userId);
 
-        List<OrderResponseDto> orders = orderService.getOrdersByUser(userId);
+        OrderPageDto orders = orderService.getOrdersByUser(userId, page);
 
         return ResponseEntity.ok(orders);
     }
 
     /**
-     * GET /api/v1/orders/status/{status}
-     * Récupère toutes les commandes par statut
+     * GET /api/v1/orders/status/{status}?cursor=...&size=...&sort=desc
+     * Récupère une page des commandes par statut
      *
-     * Exemple : /api/v1/orders/status/PENDING
+     * Exemple : /api/v1/orders/status/PENDING?size=20
      *
      * @param status Le statut de commande
-     * @return Liste des commandes avec ce statut
+     * @param page curseur, taille de page et tri
+     * @return Page des commandes avec ce statut
      */
     @Operation(
-            summary = "Récupérer les commandes par statut",
-            description = "Retourne la liste des commandes filtrées par statut"
+            summary = "Récupérer les commandes par statut (paginé)",
+            description = "Retourne une page des commandes filtrées par statut"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Liste récupérée avec succès",
+                    description = "Page récupérée avec succès",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            schema = @Schema(implementation = OrderResponseDto.class)
+                            schema = @Schema(implementation = OrderPageDto.class)
                     )
             ),
             @ApiResponse(
@@ -231,13 +351,14 @@ public class OrderController {
             )
     })
     @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDto>> getOrdersByStatus(
+    public ResponseEntity<OrderPageDto> getOrdersByStatus(
             @Parameter(description = "Statut de la commande", required = true)
-            @PathVariable String status) {
+            @PathVariable String status,
+            @ParameterObject OrderPageRequestDto page) {
 
         log.info("GET /api/v1/orders/status/{} - Récupération des commandes par statut", status);
 
-        List<OrderResponseDto> orders = orderService.getOrdersByStatus(status);
+        OrderPageDto orders = orderService.getOrdersByStatus(status, page);
 
         return ResponseEntity.ok(orders);
     }
@@ -0,0 +1,126 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderExportFilterDto;
+import com.episen.order.application.mapper.OrderItemMapper;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderExportService.class, OrderMapper.class, OrderItemMapper.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OrderExportServiceTest {
+
+    @Autowired private OrderExportService orderExportService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // 450 commandes => 3 paquets (200 + 200 + 50)
+        orderRepository.saveAll(IntStream.range(0, 450)
+                .mapToObj(i -> order(i % 3 == 0 ? OrderStatus.DELIVERED : OrderStatus.PENDING))
+                .toList());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // une ligne JSON par commande, items compris, avec un nombre de requêtes fixé par paquet
+    @Test
+    void exportNdjson_shouldWriteOneLinePerOrder_withOneItemQueryPerChunk() throws Exception {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExportService.exportNdjson(new OrderExportFilterDto(), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(450, exported);
+        assertEquals(450, lines.size());
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(2, first.get("items").size());
+
+        // 1 requête de lecture en flux + 1 requête d'items par paquet de 200
+        assertEquals(1 + 3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportNdjson_shouldApplyStatusFilter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExportService.exportNdjson(
+                OrderExportFilterDto.builder().status("delivered").build(), out);
+
+        assertEquals(150, exported);
+        assertTrue(out.toString(StandardCharsets.UTF_8).lines()
+                .allMatch(line -> line.contains("\"status\":\"DELIVERED\"")));
+    }
+
+    // filtres de dates combinés au statut : seuls les filtres renseignés sont appliqués
+    @Test
+    void exportNdjson_shouldApplyDateFilters() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        long inRange = orderExportService.exportNdjson(OrderExportFilterDto.builder()
+                .from(now.minusDays(1)).to(now.plusDays(1)).status("PENDING").build(), new ByteArrayOutputStream());
+        long afterRange = orderExportService.exportNdjson(OrderExportFilterDto.builder()
+                .from(now.plusDays(1)).build(), new ByteArrayOutputStream());
+
+        assertEquals(300, inRange);
+        assertEquals(0, afterRange);
+    }
+
+    @Test
+    void exportNdjson_shouldRejectInvalidStatus() {
+        assertThrows(IllegalArgumentException.class, () -> orderExportService.exportNdjson(
+                OrderExportFilterDto.builder().status("BAD").build(), new ByteArrayOutputStream()));
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = Order.builder()
+                .userId(1L)
+                .status(status)
+                .totalAmount(BigDecimal.TEN)
+                .shippingAddress("1 rue de Paris")
+                .build();
+        order.setItems(IntStream.range(0, 2)
+                .mapToObj(i -> OrderItem.builder()
+                        .order(order)
+                        .productId((long) i)
+                        .productName("p" + i)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.valueOf(5))
+                        .subtotal(BigDecimal.valueOf(5))
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return order;
+    }
+}
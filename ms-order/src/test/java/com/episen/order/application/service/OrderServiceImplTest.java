@@ -1,30 +1,67 @@
 package com.episen.order.application.service;
 
+import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderPageDto;
+import com.episen.order.application.dto.OrderPageRequestDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.application.dto.StockHoldResponseDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationLineResultDto;
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
 import com.episen.order.application.mapper.OrderItemMapper;
 import com.episen.order.application.mapper.OrderMapper;
 import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
 import com.episen.order.domain.enums.OrderStatus;
 import com.episen.order.domain.repository.OrderRepository;
 import com.episen.order.infrastructure.client.ProductClient;
 import com.episen.order.infrastructure.client.UserClient;
+import com.episen.order.infrastructure.exception.InsufficientStockException;
+import com.episen.order.infrastructure.exception.UserNotFoundException;
 import com.episen.order.infrastructure.exception.OrderNotModifiableException; // ✅ AJOUT
+import com.episen.order.infrastructure.exception.ProductNotFoundException;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.exception.StockHoldConflictException;
+import com.episen.order.infrastructure.exception.StockHoldExpiredException;
 import com.episen.order.infrastructure.metrics.OrderMetrics;
+import com.episen.order.infrastructure.security.TrustedUserClaims;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +73,10 @@ class OrderServiceImplTest {
     @Mock private UserClient userClient;
     @Mock private ProductClient productClient;
     @Mock private OrderMetrics orderMetrics;
+    @Mock private StockCompensationCoordinator stockCompensationCoordinator;
+    @Mock private OrderEventService orderEventService;
+    @Mock private TrustedUserClaims trustedUserClaims;
+    @Spy private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks private OrderServiceImpl orderService;
 
@@ -109,6 +150,224 @@ class OrderServiceImplTest {
 
         // Then (metric old->new)
         verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.PENDING, OrderStatus.DELIVERED);
+
+        // Then (événement outbox écrit dans la transaction de la sauvegarde)
+        verify(orderEventService).recordStatusChanged(captor.getValue(), OrderStatus.PENDING);
+    }
+
+    // updateOrderStatus : sortie de PENDING => confirmation de la réservation de stock
+    @Test
+    void updateOrderStatus_shouldCommitStockHold_whenLeavingPending() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setStockHoldId("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        // statut enregistré avant la confirmation : un échec de sauvegarde ne confirme rien
+        InOrder inOrder = inOrder(orderRepository, productClient);
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(productClient).commitStockHold("h1");
+        verify(productClient, never()).releaseStockHold(any());
+    }
+
+    // sauvegarde du nouveau statut en échec => réservation ni confirmée ni rendue
+    @Test
+    void updateOrderStatus_shouldNotCommitStockHold_whenSaveFails() {
+        Order order = pendingOrderWithItem("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("db down"));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        assertThrows(IllegalStateException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        verify(productClient, never()).commitStockHold(any());
+        verifyNoInteractions(stockCompensationCoordinator);
+    }
+
+    // confirmation en échec après la sauvegarde => commande repassée PENDING, erreur relancée
+    @Test
+    void updateOrderStatus_shouldRevertToPending_whenCommitFails() {
+        Order order = pendingOrderWithItem("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new ServiceUnavailableException("PRODUCT_SERVICE")).when(productClient).commitStockHold("h1");
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        assertThrows(ServiceUnavailableException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals("h1", order.getStockHoldId());
+        verify(orderRepository, times(2)).save(order);
+        verify(orderEventService).recordStatusChanged(order, OrderStatus.CONFIRMED);
+        verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.CONFIRMED, OrderStatus.PENDING);
+    }
+
+    // réservation expirée (commande PENDING au-delà du TTL) => nouvelle réservation confirmée
+    @Test
+    void updateOrderStatus_shouldRenewStockHold_whenHoldExpired() {
+        Order order = pendingOrderWithItem("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new StockHoldConflictException("h1")).when(productClient).commitStockHold("h1");
+        when(productClient.placeStockHold(List.of(new StockReservationLineDto(5L, 2))))
+                .thenReturn(StockHoldResponseDto.builder().holdId("h2").reserved(true).lines(List.of()).build());
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        verify(stockCompensationCoordinator).releaseStockHold("h1", "STOCK_HOLD_EXPIRED");
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        assertEquals("h2", order.getStockHoldId());
+        // nouvelle réservation enregistrée sur la commande avant d'être confirmée
+        InOrder inOrder = inOrder(orderRepository, productClient);
+        inOrder.verify(orderRepository, times(2)).save(order);
+        inOrder.verify(productClient).commitStockHold("h2");
+    }
+
+    // réservation expirée et stock épuisé => commande annulée, erreur explicite
+    @Test
+    void updateOrderStatus_shouldCancelOrder_whenHoldExpiredAndStockGone() {
+        Order order = pendingOrderWithItem("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new StockHoldConflictException("h1")).when(productClient).commitStockHold("h1");
+        when(productClient.placeStockHold(anyList())).thenReturn(StockHoldResponseDto.builder()
+                .reserved(false)
+                .lines(List.of(new StockReservationLineResultDto(5L, 2, StockReservationLineResultDto.Status.INSUFFICIENT_STOCK)))
+                .build());
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        assertThrows(StockHoldExpiredException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        // CONFIRMED enregistré, puis annulé faute de stock
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(orderRepository, times(2)).save(order);
+        verify(orderEventService).recordStatusChanged(order, OrderStatus.PENDING);
+        verify(orderEventService).recordStatusChanged(order, OrderStatus.CONFIRMED);
+        verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+    }
+
+    // updateOrderStatus : annulation => libération confiée au coordinateur de compensations
+    @Test
+    void updateOrderStatus_shouldCompensateStockHold_whenCancelled() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setStockHoldId("h1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        verify(stockCompensationCoordinator).releaseStockHold("h1", "ORDER_CANCELLED");
+        verify(productClient, never()).commitStockHold(any());
+        verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    // annulation après confirmation => stock remis (réservation confirmée réincrémentée)
+    @Test
+    void updateOrderStatus_shouldRestock_whenConfirmedOrderCancelled() {
+        Order order = pendingOrderWithItem("h1");
+        order.setStatus(OrderStatus.SHIPPED);
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        InOrder inOrder = inOrder(orderRepository, stockCompensationCoordinator);
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(stockCompensationCoordinator).restockStockHold("h1", "ORDER_CANCELLED");
+        verify(stockCompensationCoordinator, never()).releaseStockHold(any(), any());
+    }
+
+    // suppression d'une commande confirmée => stock remis
+    @Test
+    void deleteOrder_shouldRestock_whenOrderConfirmed() {
+        Order order = pendingOrderWithItem("h1");
+        order.setStatus(OrderStatus.CONFIRMED);
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(1L);
+
+        verify(orderRepository).delete(order);
+        verify(stockCompensationCoordinator).restockStockHold("h1", "ORDER_DELETED");
+    }
+
+    // getAllOrders : page bornée, curseur de page suivante, taille plafonnée
+    @Test
+    void getAllOrders_shouldReturnPageWithNextCursor_andCapPageSize() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Order last = Order.builder().id(42L).createdAt(createdAt).build();
+
+        when(orderRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(new Order(), last),
+                        i -> ScrollPosition.forward(Map.of("createdAt", createdAt, "id", 42L)), true));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(new OrderResponseDto());
+
+        OrderPageDto page = orderService.getAllOrders(OrderPageRequestDto.builder().size(10_000).build());
+
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(orderRepository).findBy(eq(ScrollPosition.keyset()),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt", "id")), limit.capture());
+        assertEquals(200, limit.getValue().max());
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+
+        // le curseur renvoyé reprend exactement après la dernière commande
+        OrderCursor cursor = OrderCursor.decode(page.getNextCursor());
+        assertEquals(new OrderCursor(Sort.Direction.DESC, createdAt, 42L), cursor);
+    }
+
+    // curseur obtenu en tri desc réutilisé en tri asc => 400
+    @Test
+    void getAllOrders_shouldRejectCursor_whenSortDiffers() {
+        String cursor = new OrderCursor(Sort.Direction.DESC, LocalDateTime.now(), 1L).encode();
+        OrderPageRequestDto page = OrderPageRequestDto.builder().cursor(cursor).sort("asc").build();
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getAllOrders(page));
+        verifyNoInteractions(orderRepository);
+    }
+
+    // getOrdersByUser : utilisateur inconnu (cache d'existence négatif) => 404, aucune requête SQL
+    @Test
+    void getOrdersByUser_shouldThrowUserNotFound_whenUserDoesNotExist() {
+        when(userClient.existsById(99L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> orderService.getOrdersByUser(99L, new OrderPageRequestDto()));
+
+        verifyNoInteractions(orderRepository);
     }
 
     // createOrder should throw if no items
@@ -121,4 +380,237 @@ class OrderServiceImplTest {
 
         verifyNoInteractions(userClient, productClient, orderRepository, orderMetrics);
     }
-}
\ No newline at end of file
+
+    // createOrder : un seul appel groupé (cache produits) pour tous les produits distincts
+    @Test
+    void createOrder_shouldFetchAllProductsInOneBatchCall() {
+        when(userClient.existsById(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshots(anyList())).thenAnswer(inv -> products(inv.getArgument(0)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto("h1", true, List.of()));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(new OrderResponseDto());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newService(executor);
+
+            service.createOrder(orderRequest(List.of(1L, 2L, 3L, 1L)));
+        }
+
+        verify(productClient).getProductSnapshots(List.of(1L, 2L, 3L));
+        verify(productClient, never()).getProductById(any());
+        verify(productClient).placeStockHold(List.of(
+                new StockReservationLineDto(1L, 1), new StockReservationLineDto(2L, 1),
+                new StockReservationLineDto(3L, 1), new StockReservationLineDto(1L, 1)));
+
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(captor.capture());
+        assertEquals(4, captor.getValue().getItems().size());
+        assertEquals(new BigDecimal("40"), captor.getValue().getTotalAmount());
+        assertEquals("h1", captor.getValue().getStockHoldId());
+        verify(orderEventService).recordCreated(captor.getValue());
+    }
+
+    // createOrder : au-delà d'un lot, les lots sont récupérés en parallèle (chaque appel attend les autres)
+    @Test
+    void createOrder_shouldFetchBatchesConcurrently() {
+        List<Long> productIds = LongStream.rangeClosed(1, 250).boxed().toList();
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        when(userClient.existsById(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshots(anyList())).thenAnswer(inv -> {
+            allStarted.countDown();
+            // ne se débloque que si les 3 lots sont en vol en même temps
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("lots produits séquentiels");
+            }
+            return products(inv.getArgument(0));
+        });
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto("h1", true, List.of()));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(new OrderResponseDto());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newService(executor);
+
+            service.createOrder(orderRequest(productIds));
+        }
+
+        verify(productClient, times(3)).getProductSnapshots(anyList());
+    }
+
+    // createOrder : mode claims-trusted => le token vérifié suffit, pas de vérification via UserClient
+    @Test
+    void createOrder_shouldSkipUserClient_whenTokenClaimsVouchForUser() {
+        when(trustedUserClaims.vouchesFor(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshots(anyList())).thenAnswer(inv -> products(inv.getArgument(0)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto("h1", true, List.of()));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(new OrderResponseDto());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            newService(executor).createOrder(orderRequest(List.of(1L)));
+        }
+
+        verifyNoInteractions(userClient);
+        verify(orderMetrics).incrementUserCheck("token_claims");
+    }
+
+    // createOrder : un produit absent de la réponse groupée => ProductNotFoundException
+    @Test
+    void createOrder_shouldThrowProductNotFound_whenProductMissingFromBatch() {
+        when(userClient.existsById(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(productClient.getProductSnapshots(anyList())).thenReturn(products(List.of(1L, 3L)));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newService(executor);
+
+            assertThrows(ProductNotFoundException.class,
+                    () -> service.createOrder(orderRequest(List.of(1L, 2L, 3L))));
+        }
+
+        verify(productClient, never()).placeStockHold(anyList());
+        verify(orderRepository, never()).save(any());
+    }
+
+    // createOrder : réservation refusée par ms-product => exception métier, commande non sauvegardée
+    @Test
+    void createOrder_shouldThrowInsufficientStock_whenReservationRejected() {
+        when(userClient.existsById(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshots(anyList())).thenAnswer(inv -> products(inv.getArgument(0)));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto(null, false, List.of(
+                new StockReservationLineResultDto(1L, 1, StockReservationLineResultDto.Status.ROLLED_BACK),
+                new StockReservationLineResultDto(2L, 1, StockReservationLineResultDto.Status.INSUFFICIENT_STOCK))));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newService(executor);
+
+            InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                    () -> service.createOrder(orderRequest(List.of(1L, 2L))));
+            assertEquals("Stock insuffisant pour le produit id=2", ex.getMessage());
+        }
+
+        verify(orderRepository, never()).save(any());
+    }
+
+    // createOrder : échec de la sauvegarde => la réservation de stock est compensée
+    @Test
+    void createOrder_shouldCompensateStockHold_whenSaveFails() {
+        when(userClient.existsById(10L)).thenReturn(true);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshots(anyList())).thenAnswer(inv -> products(inv.getArgument(0)));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto("h1", true, List.of()));
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("db down"));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newService(executor);
+
+            assertThrows(IllegalStateException.class, () -> service.createOrder(orderRequest(List.of(1L))));
+        }
+
+        verify(stockCompensationCoordinator).releaseStockHold("h1", "ORDER_SAVE_FAILED");
+        verify(orderMetrics, never()).incrementOrdersCreated(any());
+        verify(orderEventService, never()).recordCreated(any());
+    }
+
+    // mode non bloquant : utilisateur et produits demandés en même temps, réservation après les deux réponses
+    @Test
+    void createOrderAsync_shouldFetchUserAndProductsConcurrently() throws Exception {
+        CompletableFuture<Boolean> userExists = new CompletableFuture<>();
+        when(userClient.existsByIdAsync(10L)).thenReturn(userExists);
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any())).thenAnswer(inv -> new OrderItem());
+        when(productClient.getProductSnapshotsAsync(anyList()))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(products(inv.getArgument(0))));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productClient.placeStockHold(anyList())).thenReturn(new StockHoldResponseDto("h1", true, List.of()));
+        OrderResponseDto expected = new OrderResponseDto();
+        when(orderMapper.toDto(any(Order.class))).thenReturn(expected);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            OrderServiceImpl service = newAsyncService(executor);
+
+            CompletableFuture<OrderResponseDto> created = service.createOrderAsync(orderRequest(List.of(1L, 2L)));
+
+            // produits demandés alors que la réponse de ms-membership est encore attendue
+            verify(productClient).getProductSnapshotsAsync(List.of(1L, 2L));
+            assertFalse(created.isDone());
+            verify(productClient, never()).placeStockHold(anyList());
+
+            userExists.complete(true);
+            assertSame(expected, created.get(5, TimeUnit.SECONDS));
+        }
+
+        verify(productClient, never()).getProductSnapshots(anyList());
+        verify(userClient, never()).existsById(any());
+        verify(orderMetrics).incrementUserCheck("user_client");
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(captor.capture());
+        assertEquals("h1", captor.getValue().getStockHoldId());
+    }
+
+    // mode non bloquant : utilisateur inconnu => future en échec, aucune réservation
+    @Test
+    void createOrderAsync_shouldFailWithUserNotFound_andNotHoldStock() {
+        when(userClient.existsByIdAsync(10L)).thenReturn(CompletableFuture.completedFuture(false));
+        when(orderMapper.toEntityFromRequest(any())).thenReturn(new Order());
+        when(productClient.getProductSnapshotsAsync(anyList()))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(products(inv.getArgument(0))));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<OrderResponseDto> created = newAsyncService(executor).createOrderAsync(orderRequest(List.of(1L)));
+
+            CompletionException ex = assertThrows(CompletionException.class, created::join);
+            assertInstanceOf(UserNotFoundException.class, ex.getCause());
+        }
+
+        verify(productClient, never()).placeStockHold(anyList());
+        verify(orderRepository, never()).save(any());
+    }
+
+    private OrderServiceImpl newAsyncService(ExecutorService executor) {
+        OrderServiceImpl service = newService(executor);
+        ReflectionTestUtils.setField(service, "asyncOutboundCalls", true);
+        return service;
+    }
+
+    private OrderServiceImpl newService(ExecutorService executor) {
+        return new OrderServiceImpl(orderRepository, orderMapper, orderItemMapper,
+                userClient, productClient, orderMetrics, executor, stockCompensationCoordinator,
+                orderEventService, transactionTemplate, trustedUserClaims);
+    }
+
+    private static OrderRequestDto orderRequest(List<Long> productIds) {
+        OrderRequestDto req = new OrderRequestDto();
+        req.setUserId(10L);
+        req.setShippingAddress("1 rue de Paris");
+        req.setItems(productIds.stream()
+                .map(id -> new OrderItemRequestDto(id, 1))
+                .toList());
+        return req;
+    }
+
+    private static List<ProductDto> products(List<Long> ids) {
+        return ids.stream()
+                .map(id -> ProductDto.builder().id(id).name("p" + id).price(BigDecimal.TEN).build())
+                .toList();
+    }
+
+    private static Order pendingOrderWithItem(String stockHoldId) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setStockHoldId(stockHoldId);
+        order.setItems(List.of(OrderItem.builder().productId(5L).quantity(2).build()));
+        return order;
+    }
+}
@@ -0,0 +1,171 @@
+package com.episen.order.application.service;
+
+import com.episen.order.infrastructure.client.ProductClient;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.exception.StockHoldConflictException;
+import com.episen.order.infrastructure.metrics.OrderMetrics;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockCompensationCoordinatorTest {
+
+    @Mock private ProductClient productClient;
+    @Mock private OrderMetrics orderMetrics;
+    @Mock private ExecutorService executor;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+    private StockCompensationCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        // exécution synchrone : la tentative a lieu dans le thread du test
+        lenient().doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any());
+
+        coordinator = new StockCompensationCoordinator(productClient, orderMetrics, executor,
+                clock, 3, Duration.ofSeconds(1), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void releaseStockHold_shouldReleaseImmediately_whenProductServiceAvailable() {
+        coordinator.releaseStockHold("h1", "ORDER_SAVE_FAILED");
+
+        verify(productClient).releaseStockHold("h1", AuthContext.NONE);
+        verify(orderMetrics).incrementStockCompensation("ORDER_SAVE_FAILED", "released");
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    // le contexte de la requête d'origine est rejoué, même depuis la tâche planifiée
+    @Test
+    void releaseStockHold_shouldReuseCapturedAuthContext_onRetry() {
+        AuthContext context = AuthContext.ofAuthorization("Bearer token-1");
+        doThrow(new ServiceUnavailableException("PRODUCT_SERVICE"))
+                .doNothing()
+                .when(productClient).releaseStockHold("h1", context);
+
+        AuthContextHolder.set(context);
+        try {
+            coordinator.releaseStockHold("h1", "ORDER_CANCELLED");
+        } finally {
+            AuthContextHolder.clear();
+        }
+
+        clock.advance(Duration.ofSeconds(1));
+        coordinator.retryDueCompensations();
+
+        verify(productClient, times(2)).releaseStockHold("h1", context);
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    @Test
+    void releaseStockHold_shouldRetryWithBackoff_thenSucceed() {
+        doThrow(new ServiceUnavailableException("PRODUCT_SERVICE"))
+                .doNothing()
+                .when(productClient).releaseStockHold("h1", AuthContext.NONE);
+
+        coordinator.releaseStockHold("h1", "ORDER_SAVE_FAILED");
+        assertEquals(1, coordinator.outstanding());
+
+        // backoff non écoulé : pas de nouvel essai
+        coordinator.retryDueCompensations();
+        verify(productClient, times(1)).releaseStockHold("h1", AuthContext.NONE);
+
+        clock.advance(Duration.ofSeconds(1));
+        coordinator.retryDueCompensations();
+
+        verify(productClient, times(2)).releaseStockHold("h1", AuthContext.NONE);
+        verify(orderMetrics).incrementStockCompensation("ORDER_SAVE_FAILED", "released");
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    @Test
+    void releaseStockHold_shouldAbandon_afterMaxAttempts() {
+        doThrow(new ServiceUnavailableException("PRODUCT_SERVICE"))
+                .when(productClient).releaseStockHold("h1", AuthContext.NONE);
+
+        coordinator.releaseStockHold("h1", "ORDER_CANCELLED");
+        clock.advance(Duration.ofSeconds(1));
+        coordinator.retryDueCompensations();
+        clock.advance(Duration.ofSeconds(2));
+        coordinator.retryDueCompensations();
+
+        verify(productClient, times(3)).releaseStockHold("h1", AuthContext.NONE);
+        verify(orderMetrics).incrementStockCompensation("ORDER_CANCELLED", "abandoned");
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    // 409 sur libération : réservation confirmée entre-temps, le stock est remis
+    @Test
+    void releaseStockHold_shouldRestock_whenHoldAlreadyCommitted() {
+        doThrow(new StockHoldConflictException("h1")).when(productClient).releaseStockHold("h1", AuthContext.NONE);
+
+        coordinator.releaseStockHold("h1", "ORDER_DELETED");
+
+        verify(productClient).restockStockHold("h1", AuthContext.NONE);
+        verify(orderMetrics).incrementStockCompensation("ORDER_DELETED", "restocked");
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    @Test
+    void restockStockHold_shouldRetryRestock_withoutReleasing() {
+        doThrow(new ServiceUnavailableException("PRODUCT_SERVICE"))
+                .doNothing()
+                .when(productClient).restockStockHold("h1", AuthContext.NONE);
+
+        coordinator.restockStockHold("h1", "ORDER_CANCELLED");
+        assertEquals(1, coordinator.outstanding());
+
+        clock.advance(Duration.ofSeconds(1));
+        coordinator.retryDueCompensations();
+
+        verify(productClient, times(2)).restockStockHold("h1", AuthContext.NONE);
+        verify(productClient, never()).releaseStockHold(any(), any());
+        verify(orderMetrics).incrementStockCompensation("ORDER_CANCELLED", "restocked");
+        assertEquals(0, coordinator.outstanding());
+    }
+
+    @Test
+    void backoff_shouldDoubleAndBeCapped() {
+        assertEquals(Duration.ofSeconds(1), coordinator.backoff(1));
+        assertEquals(Duration.ofSeconds(4), coordinator.backoff(3));
+        assertEquals(Duration.ofSeconds(10), coordinator.backoff(20));
+        verify(orderMetrics).registerOutstandingStockCompensations(any(), any());
+        verify(orderMetrics, never()).incrementStockCompensation(any(), eq("released"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
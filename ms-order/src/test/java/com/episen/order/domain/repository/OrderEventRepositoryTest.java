@@ -0,0 +1,55 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.OrderEvent;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderEventRepositoryTest {
+
+    @Autowired private OrderEventRepository orderEventRepository;
+
+    // l'événement de plus petit id, publié en dernier, reste lisible après le curseur déjà avancé
+    @Test
+    void feed_shouldNotSkipEvent_publishedAfterAHigherId() {
+        OrderEvent first = orderEventRepository.save(event());
+        OrderEvent second = orderEventRepository.save(event());
+        assertTrue(first.getId() < second.getId());
+
+        publish(second, 1L);
+        List<OrderEvent> page = feedAfter(0);
+        assertEquals(List.of(second.getId()), page.stream().map(OrderEvent::getId).toList());
+        long cursor = page.get(0).getPublishSeq();
+
+        publish(first, orderEventRepository.findMaxPublishSeq() + 1);
+        assertEquals(List.of(first.getId()), feedAfter(cursor).stream().map(OrderEvent::getId).toList());
+    }
+
+    private List<OrderEvent> feedAfter(long after) {
+        return orderEventRepository.findByPublishSeqGreaterThanOrderByPublishSeqAsc(after, PageRequest.of(0, 10));
+    }
+
+    private void publish(OrderEvent event, long sequence) {
+        event.setPublishSeq(sequence);
+        event.setPublishedAt(LocalDateTime.now());
+        orderEventRepository.saveAndFlush(event);
+    }
+
+    private static OrderEvent event() {
+        return OrderEvent.builder()
+                .eventType(OrderEventType.ORDER_CREATED)
+                .orderId(1L)
+                .userId(10L)
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+}
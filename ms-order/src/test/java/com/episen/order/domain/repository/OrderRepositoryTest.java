@@ -0,0 +1,147 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.mapper.OrderItemMapper;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
+import com.episen.order.domain.enums.OrderStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderMapper.class, OrderItemMapper.class})
+class OrderRepositoryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderMapper orderMapper;
+    @Autowired private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.saveAll(IntStream.range(0, 7)
+                .mapToObj(i -> Order.builder()
+                        .userId(i % 2 == 0 ? 1L : 2L)
+                        .status(i < 3 ? OrderStatus.PENDING : OrderStatus.SHIPPED)
+                        .totalAmount(BigDecimal.TEN)
+                        .shippingAddress("1 rue de Paris")
+                        .build())
+                .toList());
+    }
+
+    // parcours complet par curseur : chaque commande vue une seule fois, dans l'ordre (createdAt, id) desc
+    @Test
+    void findBy_shouldWalkAllOrdersByKeyset_withoutDuplicates() {
+        List<Long> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        int pages = 0;
+
+        Window<Order> window;
+        do {
+            window = orderRepository.findBy(position, NEWEST_FIRST, Limit.of(3));
+            window.forEach(o -> seen.add(o.getId()));
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+            pages++;
+        } while (window.hasNext());
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+        assertEquals(orderRepository.findAll(NEWEST_FIRST).stream().map(Order::getId).toList(), seen);
+    }
+
+    @Test
+    void findByUserIdAndStatus_shouldFilterAndLimit() {
+        Window<Order> user1 = orderRepository.findByUserId(1L, ScrollPosition.keyset(), NEWEST_FIRST, Limit.of(10));
+        Window<Order> pending = orderRepository.findByStatus(OrderStatus.PENDING, ScrollPosition.keyset(), NEWEST_FIRST, Limit.of(2));
+
+        assertEquals(4, user1.size());
+        assertFalse(user1.hasNext());
+        assertTrue(user1.stream().allMatch(o -> o.getUserId() == 1L));
+
+        assertEquals(2, pending.size());
+        assertTrue(pending.hasNext());
+        assertTrue(pending.stream().allMatch(o -> o.getStatus() == OrderStatus.PENDING));
+    }
+
+    // page de 100 commandes mappée en DTO (items compris) : nombre de requêtes constant, pas de N+1
+    @Test
+    void pageOfOrdersWithItems_shouldBeLoadedWithConstantStatementCount() {
+        orderRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> orderWithItems(2))
+                .toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<OrderResponseDto> page = orderRepository
+                .findBy(ScrollPosition.keyset(), NEWEST_FIRST, Limit.of(100))
+                .map(orderMapper::toDto)
+                .getContent();
+
+        assertEquals(100, page.size());
+        assertEquals(200, page.stream().mapToInt(o -> o.getItems().size()).sum());
+        // 1 requête pour la page de commandes + 1 requête groupée pour les items
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithItemsById_shouldLoadOrderAndItemsInOneStatement() {
+        Long id = orderRepository.save(orderWithItems(3)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrderResponseDto dto = orderMapper.toDto(orderRepository.findWithItemsById(id).orElseThrow());
+
+        assertEquals(3, dto.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static Order orderWithItems(int itemCount) {
+        Order order = Order.builder()
+                .userId(3L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.TEN)
+                .shippingAddress("1 rue de Paris")
+                .build();
+        order.setItems(IntStream.range(0, itemCount)
+                .mapToObj(i -> OrderItem.builder()
+                        .order(order)
+                        .productId((long) i)
+                        .productName("p" + i)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.ONE)
+                        .subtotal(BigDecimal.ONE)
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return order;
+    }
+}
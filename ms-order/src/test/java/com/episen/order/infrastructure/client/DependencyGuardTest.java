@@ -0,0 +1,138 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // fenêtre de 4 appels, circuit ouvert à 50 % d'échecs, 1 appel simultané
+    private final DependencyGuard guard = new DependencyGuard("productService", "PRODUCT_SERVICE",
+            new DependencyGuard.Settings(50f, 100f, Duration.ofSeconds(2), 4, 4,
+                    Duration.ofMillis(100), 1, 1, Duration.ZERO),
+            CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), meterRegistry);
+
+    @Test
+    void call_shouldOpenCircuit_andFailFastWithoutCallingService() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(calls::incrementAndGet));
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.get("outbound.calls.rejected").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbound.circuitbreaker.transitions").tag("to", "OPEN").counter().count());
+    }
+
+    // 4xx : le service répond, le circuit reste fermé
+    @Test
+    void call_shouldNotCountClientErrorsAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, guard.state());
+    }
+
+    // après wait-in-open-state, un appel de test réussi referme le circuit
+    @Test
+    void call_shouldCloseCircuit_afterSuccessfulHalfOpenProbe() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> guard.call(() -> {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+
+        Thread.sleep(150);
+
+        assertEquals("ok", guard.call(() -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.state());
+    }
+
+    @Test
+    void call_shouldRejectImmediately_whenBulkheadFull() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> slow = executor.submit(() -> guard.call(() -> {
+                inCall.countDown();
+                awaitQuietly(release);
+                return "slow";
+            }));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceUnavailableException.class, () -> guard.call(() -> "second"));
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1.0, meterRegistry.get("outbound.calls.rejected").tag("reason", "bulkhead_full").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.state());
+    }
+
+    // appel non bloquant : la place du bulkhead est tenue jusqu'à la complétion de la future,
+    // les 5xx comptent pour le circuit comme en mode bloquant
+    @Test
+    void callAsync_shouldHoldBulkheadUntilCompletion_andCountServerErrors() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = guard.callAsync(() -> pending);
+
+        CompletionException rejected = assertThrows(CompletionException.class,
+                () -> guard.callAsync(() -> CompletableFuture.completedFuture("second")).join());
+        assertInstanceOf(ServiceUnavailableException.class, rejected.getCause());
+
+        pending.complete("first");
+        assertEquals("first", first.join());
+
+        // fenêtre de 4 : 1 succès + 3 échecs => 75 % d'échecs, circuit ouvert
+        for (int i = 0; i < 3; i++) {
+            CompletionException failed = assertThrows(CompletionException.class, () -> guard.<String>callAsync(
+                    () -> CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))).join());
+            assertInstanceOf(HttpServerErrorException.class, failed.getCause());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+        CompletionException open = assertThrows(CompletionException.class,
+                () -> guard.callAsync(() -> CompletableFuture.completedFuture("open")).join());
+        assertInstanceOf(ServiceUnavailableException.class, open.getCause());
+
+        assertEquals(1.0, meterRegistry.get("outbound.calls.rejected").tag("reason", "bulkhead_full").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbound.calls.rejected").tag("reason", "circuit_open").counter().count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.StockHoldResponseDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.infrastructure.config.ResilienceConfig;
+import com.episen.order.infrastructure.exception.ServiceForbiddenException;
+import com.episen.order.infrastructure.exception.ServiceUnauthorizedException;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.episen.order.infrastructure.security.AuthContextHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductClientTest {
+
+    private final Queue<String> receivedAuthorizations = new ConcurrentLinkedQueue<>();
+    private final Queue<String> receivedIdempotencyKeys = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger holdAttempts = new AtomicInteger();
+    private final AtomicInteger productsStatus = new AtomicInteger(200);
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/products", exchange -> {
+            receivedAuthorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            if (productsStatus.get() != 200) {
+                exchange.sendResponseHeaders(productsStatus.get(), -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "[{\"id\":1,\"name\":\"p1\",\"price\":10,\"stock\":5}]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        // première tentative en 503, la suivante réussit
+        server.createContext("/api/v1/products/stock/holds", exchange -> {
+            receivedIdempotencyKeys.add(String.valueOf(exchange.getRequestHeaders().getFirst("Idempotency-Key")));
+            exchange.getRequestBody().readAllBytes();
+            if (holdAttempts.incrementAndGet() == 1) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "{\"holdId\":\"h1\",\"reserved\":true,\"lines\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    // mode threads virtuels : la requête entrante est traitée par un thread virtuel,
+    // le JWT de l'AuthContext courant doit toujours être propagé (y compris par le cache produits)
+    @Test
+    void getProducts_shouldPropagateJwt_whenRequestHandledOnVirtualThread() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ProductClient productClient = productClient(executor);
+
+            Future<?> request = executor.submit(() -> {
+                assertTrue(Thread.currentThread().isVirtual());
+
+                AuthContextHolder.set(AuthContext.ofAuthorization("Bearer vt-token"));
+                try {
+                    assertEquals(1, productClient.getProductsByIds(List.of(1L)).size());
+                    assertEquals(1, productClient.getProductSnapshots(List.of(1L)).size());
+                } finally {
+                    AuthContextHolder.clear();
+                }
+            });
+            request.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("Bearer vt-token", "Bearer vt-token"), List.copyOf(receivedAuthorizations));
+    }
+
+    // 503 transitoire : nouvelle tentative avec la même Idempotency-Key (une seule réservation côté ms-product)
+    @Test
+    void placeStockHold_shouldRetryWithSameIdempotencyKey_whenServiceUnavailable() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            StockHoldResponseDto hold = productClient(executor).placeStockHold(
+                    List.of(StockReservationLineDto.builder().productId(1L).quantity(2).build()));
+
+            assertEquals("h1", hold.getHoldId());
+        }
+
+        assertEquals(2, receivedIdempotencyKeys.size());
+        assertEquals(1, receivedIdempotencyKeys.stream().distinct().count());
+        assertNotEquals("null", receivedIdempotencyKeys.peek());
+    }
+
+    // client non bloquant : JWT propagé, réponse désérialisée sans thread en attente
+    @Test
+    void getProductSnapshotsAsync_shouldPropagateJwt() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ProductClient productClient = productClient(executor, asyncExchange(executor));
+
+            AuthContextHolder.set(AuthContext.ofAuthorization("Bearer async-token"));
+            List<ProductDto> products;
+            try {
+                products = productClient.getProductSnapshotsAsync(List.of(1L)).get(5, TimeUnit.SECONDS);
+            } finally {
+                AuthContextHolder.clear();
+            }
+
+            assertEquals(1, products.size());
+            assertEquals("p1", products.get(0).getName());
+        }
+
+        assertEquals(List.of("Bearer async-token"), List.copyOf(receivedAuthorizations));
+    }
+
+    // client non bloquant : même traduction des erreurs que le RestTemplate (401 / 403 / autres)
+    @Test
+    void getProductSnapshotsAsync_shouldMapErrorsLikeBlockingClient() {
+        Map<Integer, Class<? extends RuntimeException>> expected = Map.of(
+                401, ServiceUnauthorizedException.class,
+                403, ServiceForbiddenException.class,
+                500, ServiceUnavailableException.class);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ProductClient productClient = productClient(executor, asyncExchange(executor));
+
+            expected.forEach((status, exceptionType) -> {
+                productsStatus.set(status);
+                CompletionException ex = assertThrows(CompletionException.class,
+                        () -> productClient.getProductSnapshotsAsync(List.of(1L)).join());
+                assertInstanceOf(exceptionType, ex.getCause(), "HTTP " + status);
+            });
+        }
+    }
+
+    private ProductClient productClient(ExecutorService executor) {
+        return productClient(executor, null);
+    }
+
+    private static AsyncHttpExchange asyncExchange(ExecutorService executor) {
+        return new AsyncHttpExchange(HttpClient.newBuilder().executor(executor).build(),
+                new ObjectMapper(), Duration.ofSeconds(2));
+    }
+
+    private ProductClient productClient(ExecutorService executor, AsyncHttpExchange asyncExchange) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResilienceConfig resilience = new ResilienceConfig();
+        return new ProductClient(new RestTemplate(), Optional.ofNullable(asyncExchange),
+                "http://localhost:" + server.getAddress().getPort(),
+                resilience.productServiceGuard(new MockEnvironment(), CircuitBreakerRegistry.ofDefaults(),
+                        BulkheadRegistry.ofDefaults(), meterRegistry),
+                resilience.productReadHedger(new MockEnvironment(), executor, meterRegistry),
+                new TransientRetry("productService",
+                        new TransientRetry.Settings(3, Duration.ofMillis(10), Duration.ofMillis(50)), meterRegistry),
+                executor, meterRegistry,
+                100, Duration.ofSeconds(30), Duration.ofSeconds(20));
+    }
+}
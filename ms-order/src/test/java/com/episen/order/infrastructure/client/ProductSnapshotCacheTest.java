@@ -0,0 +1,150 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotCacheTest {
+
+    private static final AuthContext TOKEN = AuthContext.ofAuthorization("Bearer t");
+    private static final AuthContext TOKEN_2 = AuthContext.ofAuthorization("Bearer t2");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    /** Appels reçus par le chargeur (ids demandés) */
+    private final List<List<Long>> loads = new CopyOnWriteArrayList<>();
+
+    /** Prix renvoyé par le chargeur (modifiable pour simuler un changement côté ms-product) */
+    private volatile BigDecimal price = BigDecimal.TEN;
+
+    private ProductSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // rafraîchissements exécutés dans le thread du test
+        cache = new ProductSnapshotCache(this::load, Runnable::run, ticker,
+                100, Duration.ofSeconds(30), Duration.ofSeconds(20));
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyMissingProducts_andNotReturnStock() {
+        cache.getAll(List.of(1L, 2L), TOKEN);
+        List<ProductDto> products = cache.getAll(List.of(1L, 2L, 3L), TOKEN);
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), loads);
+        assertEquals(3, products.size());
+        assertTrue(products.stream().allMatch(p -> p.getStock() == null));
+    }
+
+    @Test
+    void getAll_shouldNotCacheUnknownProducts() {
+        assertTrue(cache.getAll(List.of(404L), TOKEN).isEmpty());
+        assertTrue(cache.getAll(List.of(404L), TOKEN).isEmpty());
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void getAll_shouldShareInFlightLoad_betweenConcurrentCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Long>> calls = new CopyOnWriteArrayList<>();
+        ProductSnapshotCache slow = new ProductSnapshotCache((ids, auth) -> {
+            calls.add(ids);
+            loading.countDown();
+            await(release);
+            return products(ids);
+        }, Runnable::run, ticker, 100, Duration.ofSeconds(30), Duration.ofSeconds(20));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<ProductDto>> first = executor.submit(() -> slow.getAll(List.of(1L), TOKEN));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            List<Future<List<ProductDto>>> others = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                others.add(executor.submit(() -> slow.getAll(List.of(1L), TOKEN)));
+            }
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+            for (Future<List<ProductDto>> other : others) {
+                assertEquals(1, other.get(5, TimeUnit.SECONDS).size());
+            }
+        }
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void getAll_shouldServeCachedValue_andRefreshAhead_afterRefreshDelay() {
+        cache.getAll(List.of(1L), TOKEN);
+        price = BigDecimal.ONE;
+
+        nanos.addAndGet(Duration.ofSeconds(21).toNanos());
+        // valeur en cache servie immédiatement, rechargement déclenché en arrière-plan
+        assertEquals(BigDecimal.TEN, cache.getAll(List.of(1L), TOKEN_2).get(0).getPrice());
+        assertEquals(2, loads.size());
+
+        assertEquals(BigDecimal.ONE, cache.getAll(List.of(1L), TOKEN_2).get(0).getPrice());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void getAll_shouldReloadSynchronously_afterTtl() {
+        cache.getAll(List.of(1L), TOKEN);
+        price = BigDecimal.ONE;
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertEquals(BigDecimal.ONE, cache.getAll(List.of(1L), TOKEN).get(0).getPrice());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void getAll_shouldPropagateLoaderFailure_withoutCachingIt() {
+        ProductSnapshotCache failing = new ProductSnapshotCache((ids, auth) -> {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }, Runnable::run, ticker, 100, Duration.ofSeconds(30), Duration.ofSeconds(20));
+
+        assertThrows(ServiceUnavailableException.class, () -> failing.getAll(List.of(1L), TOKEN));
+        assertEquals(0, failing.cache().synchronous().estimatedSize());
+    }
+
+    private List<ProductDto> load(List<Long> ids, AuthContext authContext) {
+        loads.add(ids);
+        return products(ids);
+    }
+
+    private List<ProductDto> products(List<Long> ids) {
+        return ids.stream()
+                .filter(id -> id != 404L)
+                .map(id -> ProductDto.builder().id(id).name("p" + id).price(price).stock(5).build())
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
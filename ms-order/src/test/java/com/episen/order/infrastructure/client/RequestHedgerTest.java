@@ -0,0 +1,119 @@
+package com.episen.order.infrastructure.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    // premier appel bloqué : le hedge part après le délai et sa réponse l'emporte
+    @Test
+    void call_shouldReturnHedgeResponse_whenPrimaryIsSlow() {
+        RequestHedger hedger = hedger(true, 100, 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String value = hedger.call(() -> attempts.incrementAndGet() == 1 ? blockUntilReleased("primary") : "hedge");
+
+        assertEquals("hedge", value);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, count("outbound.hedge.requests", "outcome", "sent"));
+        assertEquals(1.0, count("outbound.hedge.wins", "winner", "hedge"));
+    }
+
+    // réponse rapide : aucun hedge
+    @Test
+    void call_shouldNotHedge_whenPrimaryAnswersInTime() {
+        // délai large : le démarrage du thread virtuel ne doit pas déclencher de hedge
+        RequestHedger hedger = hedger(true, 100, 10, Duration.ofSeconds(5));
+
+        assertEquals("ok", hedger.call(() -> "ok"));
+        assertEquals(0.0, count("outbound.hedge.requests", "outcome", "sent"));
+    }
+
+    // budget épuisé : on attend l'appel initial sans charge supplémentaire
+    @Test
+    void call_shouldSkipHedge_whenBudgetExhausted() {
+        RequestHedger hedger = hedger(true, 0, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        hedger.call(() -> attempts.incrementAndGet() == 1 ? sleep("first", 50) : "hedge");
+        attempts.set(0);
+        assertEquals("second", hedger.call(() -> attempts.incrementAndGet() == 1 ? sleep("second", 50) : "hedge"));
+
+        assertEquals(1, attempts.get());
+        assertEquals(1.0, count("outbound.hedge.requests", "outcome", "sent"));
+        assertEquals(1.0, count("outbound.hedge.requests", "outcome", "budget_exhausted"));
+    }
+
+    // les deux appels échouent : l'exception d'origine est relancée
+    @Test
+    void call_shouldRethrowFailure_whenAllAttemptsFail() {
+        RequestHedger hedger = hedger(true, 100, 10);
+
+        assertThrows(ResourceAccessException.class, () -> hedger.call(() -> {
+            sleep("x", 20);
+            throw new ResourceAccessException("timeout");
+        }));
+    }
+
+    @Test
+    void call_shouldRunInCallerThread_whenDisabled() {
+        RequestHedger hedger = hedger(false, 100, 10);
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, hedger.call(Thread::currentThread));
+    }
+
+    private RequestHedger hedger(boolean enabled, double budgetPercent, int budgetBurst) {
+        return hedger(enabled, budgetPercent, budgetBurst, Duration.ofMillis(10));
+    }
+
+    private RequestHedger hedger(boolean enabled, double budgetPercent, int budgetBurst, Duration initialDelay) {
+        return new RequestHedger("productService", "PRODUCT_SERVICE",
+                new RequestHedger.Settings(enabled, 0.95, Duration.ofMillis(1), initialDelay,
+                        budgetPercent, budgetBurst),
+                executor, meterRegistry);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private String blockUntilReleased(String value) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static String sleep(String value, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransientRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TransientRetry retry = new TransientRetry("productService",
+            new TransientRetry.Settings(3, Duration.ofMillis(1), Duration.ofMillis(4)), meterRegistry);
+
+    @Test
+    void call_shouldRetryTransientErrors_thenSucceed() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.call(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ResourceAccessException("timeout");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("outbound.calls.retried").tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void call_shouldRethrowLastError_whenAttemptsExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> retry.call(() -> {
+            attempts.incrementAndGet();
+            throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "down", HttpHeaders.EMPTY, null, null);
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("outbound.calls.retried").tag("outcome", "exhausted").counter().count());
+    }
+
+    // 4xx, 500, circuit ouvert : pas de nouvelle tentative
+    @Test
+    void call_shouldNotRetry_nonTransientErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> retry.call(() -> {
+            attempts.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.CONFLICT, "conflict", HttpHeaders.EMPTY, null, null);
+        }));
+        assertThrows(ServiceUnavailableException.class, () -> retry.call(() -> {
+            attempts.incrementAndGet();
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }));
+        assertFalse(TransientRetry.isTransient(
+                HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "boom", HttpHeaders.EMPTY, null, null)));
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void backoff_shouldStayWithinCappedExponentialBound() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retry.backoff(1).toMillis() <= 1);
+            assertTrue(retry.backoff(2).toMillis() <= 2);
+            assertTrue(retry.backoff(10).toMillis() <= 4);
+        }
+    }
+
+    @Test
+    void idempotentHeaders_shouldAddKeyToCopy() {
+        HttpHeaders base = new HttpHeaders();
+        base.setBearerAuth("token");
+
+        HttpHeaders headers = TransientRetry.idempotentHeaders(HttpHeaders.readOnlyHttpHeaders(base));
+
+        assertEquals("Bearer token", headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertNotNull(headers.getFirst(TransientRetry.IDEMPOTENCY_KEY_HEADER));
+        assertNull(base.getFirst(TransientRetry.IDEMPOTENCY_KEY_HEADER));
+    }
+}
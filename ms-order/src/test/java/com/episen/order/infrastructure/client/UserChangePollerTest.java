@@ -0,0 +1,101 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.UserChangeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangePollerTest {
+
+    @Mock private UserClient userClient;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+    private UserChangePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new UserChangePoller(userClient, clock, 500, Duration.ofMinutes(1));
+    }
+
+    // le changement 1, validé après le 2, est encore relu et appliqué : le curseur ne l'a pas dépassé
+    @Test
+    void pollUserChanges_shouldApplyChangeCommittedOutOfIdOrder() {
+        when(userClient.getUserChanges(anyLong(), anyInt()))
+                .thenReturn(List.of(change(2L, 20L)))
+                .thenReturn(List.of(change(1L, 10L), change(2L, 20L)));
+
+        poller.pollUserChanges();
+        clock.advance(Duration.ofSeconds(5));
+        poller.pollUserChanges();
+
+        verify(userClient, times(2)).getUserChanges(0L, 500);
+        verify(userClient).invalidateUsers(List.of(20L));
+        verify(userClient).invalidateUsers(List.of(10L));
+        assertEquals(0L, poller.settledChangeId());
+    }
+
+    // passé la fenêtre de relecture, le curseur avance et les changements ne sont plus relus
+    @Test
+    void pollUserChanges_shouldAdvanceCursor_afterTrailingWindow() {
+        when(userClient.getUserChanges(anyLong(), anyInt()))
+                .thenReturn(List.of(change(1L, 10L), change(2L, 20L)))
+                .thenReturn(List.of(change(1L, 10L), change(2L, 20L)))
+                .thenReturn(List.of());
+
+        poller.pollUserChanges();
+        clock.advance(Duration.ofMinutes(1));
+        poller.pollUserChanges();
+        poller.pollUserChanges();
+
+        assertEquals(2L, poller.settledChangeId());
+        verify(userClient).getUserChanges(2L, 500);
+        verify(userClient, times(1)).invalidateUsers(List.of(10L, 20L));
+    }
+
+    // échec de lecture : le curseur reste en place
+    @Test
+    void pollUserChanges_shouldKeepCursor_whenFeedUnavailable() {
+        when(userClient.getUserChanges(anyLong(), anyInt())).thenThrow(new IllegalStateException("down"));
+
+        poller.pollUserChanges();
+
+        assertEquals(0L, poller.settledChangeId());
+        verify(userClient, never()).invalidateUsers(any());
+    }
+
+    private static UserChangeDto change(Long id, Long userId) {
+        return UserChangeDto.builder().id(id).userId(userId).type("DEACTIVATED").build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,133 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.ServiceUnauthorizedException;
+import com.episen.order.infrastructure.security.AuthContext;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserExistenceCacheTest {
+
+    private static final AuthContext TOKEN = AuthContext.ofAuthorization("Bearer t");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    /** Utilisateurs demandés au chargeur */
+    private final List<Long> loads = new CopyOnWriteArrayList<>();
+
+    /** Utilisateurs connus de ms-membership (modifiable pendant le test) */
+    private volatile Set<Long> existing = Set.of(1L, 2L);
+
+    private UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // chargements et rafraîchissements exécutés dans le thread du test
+        cache = new UserExistenceCache(this::load, Runnable::run, ticker, 100,
+                Duration.ofMinutes(10), Duration.ofSeconds(30), Duration.ofMinutes(8), 3);
+    }
+
+    @Test
+    void exists_shouldCachePositiveAndNegativeResults() {
+        assertTrue(cache.exists(1L, TOKEN));
+        assertTrue(cache.exists(1L, TOKEN));
+        assertFalse(cache.exists(404L, TOKEN));
+        assertFalse(cache.exists(404L, TOKEN));
+
+        assertEquals(List.of(1L, 404L), loads);
+    }
+
+    @Test
+    void exists_shouldExpireNegativeResultsSooner() {
+        cache.exists(1L, TOKEN);
+        cache.exists(3L, TOKEN);
+        existing = Set.of(1L, 3L);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertTrue(cache.exists(3L, TOKEN));
+        assertTrue(cache.exists(1L, TOKEN));
+        assertEquals(List.of(1L, 3L, 3L), loads);
+    }
+
+    @Test
+    void exists_shouldRefreshPopularUsersAhead_andKeepOthersUntilExpiry() {
+        cache.exists(1L, TOKEN);
+        cache.exists(2L, TOKEN);
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+
+        // 1 est lu souvent : rechargé avant expiration ; 2 n'est lu qu'une fois : pas de rechargement
+        cache.exists(1L, TOKEN);
+        cache.exists(1L, TOKEN);
+        cache.exists(1L, TOKEN);
+        cache.exists(2L, TOKEN);
+        assertEquals(List.of(1L, 2L, 1L), loads);
+
+        // après l'expiration initiale, 1 est toujours servi par le cache
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertTrue(cache.exists(1L, TOKEN));
+        assertEquals(List.of(1L, 2L, 1L), loads);
+    }
+
+    @Test
+    void invalidateAll_shouldForceReload() {
+        cache.exists(1L, TOKEN);
+        existing = Set.of();
+
+        cache.invalidateAll(List.of(1L));
+
+        assertFalse(cache.exists(1L, TOKEN));
+        assertEquals(List.of(1L, 1L), loads);
+    }
+
+    // invalidation pendant un chargement en vol : la valeur lue avant la désactivation est écartée
+    @Test
+    void exists_shouldDiscardLoadStartedBeforeInvalidation() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicReference<UserExistenceCache> racing = new AtomicReference<>();
+        try {
+            racing.set(new UserExistenceCache((userId, auth) -> {
+                boolean exists = load(userId, auth);
+                if (loads.size() == 1) {
+                    // désactivation validée puis invalidée pendant le premier chargement
+                    existing = Set.of();
+                    racing.get().invalidateAll(List.of(userId));
+                }
+                return exists;
+            }, executor, ticker, 100, Duration.ofMinutes(10), Duration.ofSeconds(30), Duration.ofMinutes(8), 3));
+
+            assertFalse(racing.get().exists(1L, TOKEN));
+            assertFalse(racing.get().exists(1L, TOKEN));
+            assertEquals(List.of(1L, 1L), loads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exists_shouldPropagateErrors_withoutCachingThem() {
+        UserExistenceCache failing = new UserExistenceCache((id, auth) -> {
+            throw new ServiceUnauthorizedException("USER_SERVICE");
+        }, Runnable::run, ticker, 100, Duration.ofMinutes(10), Duration.ofSeconds(30), Duration.ofMinutes(8), 3);
+
+        assertThrows(ServiceUnauthorizedException.class, () -> failing.exists(1L, TOKEN));
+        assertEquals(0, failing.cache().synchronous().estimatedSize());
+    }
+
+    private boolean load(Long userId, AuthContext authContext) {
+        loads.add(userId);
+        return existing.contains(userId);
+    }
+}
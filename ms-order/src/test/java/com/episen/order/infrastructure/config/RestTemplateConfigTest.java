@@ -0,0 +1,84 @@
+package com.episen.order.infrastructure.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    private final RestTemplateConfig config = new RestTemplateConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    // appels réussis => lease mesuré par route, connexion réutilisée, jauges du pool publiées
+    @Test
+    void restTemplate_shouldReuseConnections_andPublishPoolMetrics() throws IOException {
+        PoolingHttpClientConnectionManager connectionManager = config.interServiceConnectionManager(meterRegistry,
+                20, 5, Duration.ofSeconds(1), Duration.ofMinutes(5), Duration.ofSeconds(2));
+
+        try (CloseableHttpClient httpClient = config.interServiceHttpClient(connectionManager,
+                Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(30), Duration.ofSeconds(30))) {
+            RestTemplate restTemplate = config.restTemplate(new RestTemplateBuilder(), httpClient);
+            String url = "http://localhost:" + server.getAddress().getPort() + "/ping";
+
+            assertEquals("pong", restTemplate.getForObject(url, String.class));
+            assertEquals("pong", restTemplate.getForObject(url, String.class));
+
+            assertEquals(2, meterRegistry.get(InstrumentedPoolingConnectionManager.LEASE_TIMER)
+                    .tag("pool", "inter-service")
+                    .tag("outcome", "acquired")
+                    .timer().count());
+            assertEquals(20, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+            assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+            assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        }
+    }
+
+    // Keep-Alive annoncé par le serveur respecté s'il est plus court, sinon borné
+    @Test
+    void boundedKeepAlive_shouldCapServerAnnouncedDuration() {
+        var strategy = RestTemplateConfig.boundedKeepAlive(TimeValue.ofSeconds(30));
+
+        BasicClassicHttpResponse shortKeepAlive = new BasicClassicHttpResponse(200);
+        shortKeepAlive.addHeader("Keep-Alive", "timeout=5");
+        BasicClassicHttpResponse longKeepAlive = new BasicClassicHttpResponse(200);
+        longKeepAlive.addHeader("Keep-Alive", "timeout=300");
+
+        assertEquals(TimeValue.ofSeconds(5), strategy.getKeepAliveDuration(shortKeepAlive, new BasicHttpContext()));
+        assertEquals(TimeValue.ofSeconds(30), strategy.getKeepAliveDuration(longKeepAlive, new BasicHttpContext()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.mapper.OrderEventMapper;
+import com.episen.order.domain.entity.OrderEvent;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderEventRepository;
+import com.episen.order.infrastructure.metrics.OrderMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventRelayTest {
+
+    @Mock private OrderEventRepository orderEventRepository;
+    @Mock private OrderEventSink orderEventSink;
+    @Mock private OrderMetrics orderMetrics;
+
+    private OrderEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OrderEventRelay(orderEventRepository, new OrderEventMapper(), orderEventSink, orderMetrics,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+    }
+
+    // un lot plein => on enchaîne sur le lot suivant jusqu'à un lot incomplet
+    @Test
+    void relayPendingEvents_shouldPublishInBatchesUntilDrained() {
+        Map<Long, OrderEvent> table = table(events(1, 2, 3));
+        when(orderEventRepository.findByPublishedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(events(1, 2), events(3))
+                .thenReturn(List.of());
+
+        relay.relayPendingEvents();
+
+        verify(orderEventSink, times(2)).publish(anyList());
+        assertEquals(1L, table.get(1L).getPublishSeq());
+        assertEquals(2L, table.get(2L).getPublishSeq());
+        assertEquals(3L, table.get(3L).getPublishSeq());
+        assertNotNull(table.get(3L).getPublishedAt());
+        verify(orderMetrics).incrementOrderEventsPublished(2);
+        verify(orderMetrics).incrementOrderEventsPublished(1);
+    }
+
+    // événements validés dans le désordre des ids : l'événement 1, validé après le 2,
+    // reçoit un numéro de publication plus grand et reste visible après le curseur du 2
+    @Test
+    void relayBatch_shouldNumberEventsInPublicationOrder_whenCommittedOutOfIdOrder() {
+        Map<Long, OrderEvent> table = table(events(1, 2));
+        when(orderEventRepository.findByPublishedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(table.get(2L)))   // l'insertion 1 n'est pas encore validée
+                .thenReturn(List.of(table.get(1L)));
+
+        relay.relayBatch();
+        relay.relayBatch();
+
+        assertEquals(1L, table.get(2L).getPublishSeq());
+        assertEquals(2L, table.get(1L).getPublishSeq());
+    }
+
+    // échec du sink => rien n'est marqué publié, le lot sera repris
+    @Test
+    void relayBatch_shouldNotMarkPublished_whenSinkFails() {
+        when(orderEventRepository.findByPublishedAtIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(events(1, 2));
+        doThrow(new IllegalStateException("sink down")).when(orderEventSink).publish(anyList());
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(orderEventRepository, never()).findMaxPublishSeq();
+        verify(orderEventRepository, never()).saveAll(anyCollection());
+        verify(orderMetrics).incrementOrderEventsPublishFailed();
+    }
+
+    /** Table order_events simulée : findAllById / findMaxPublishSeq lisent ces lignes */
+    private Map<Long, OrderEvent> table(List<OrderEvent> rows) {
+        Map<Long, OrderEvent> table = new HashMap<>();
+        rows.forEach(row -> table.put(row.getId(), row));
+        lenient().when(orderEventRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<OrderEvent> found = new ArrayList<>();
+            inv.<Iterable<Long>>getArgument(0).forEach(id -> found.add(table.get(id)));
+            return found;
+        });
+        lenient().when(orderEventRepository.findMaxPublishSeq()).thenAnswer(inv -> table.values().stream()
+                .map(OrderEvent::getPublishSeq)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max().orElse(0L));
+        return table;
+    }
+
+    private static List<OrderEvent> events(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> OrderEvent.builder()
+                        .id(id)
+                        .eventType(OrderEventType.ORDER_CREATED)
+                        .orderId(id)
+                        .userId(10L)
+                        .status(OrderStatus.PENDING)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.episen.order.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthContextHolderTest {
+
+    @AfterEach
+    void tearDown() {
+        AuthContextHolder.clear();
+    }
+
+    @Test
+    void current_shouldReturnNone_whenNothingBound() {
+        assertSame(AuthContext.NONE, AuthContextHolder.current());
+        assertNull(AuthContextHolder.current().headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void headers_shouldBeBuiltOnceAndReadOnly() {
+        AuthContext context = AuthContext.of("Bearer t", 10L, Instant.EPOCH);
+
+        assertSame(context.headers(), context.headers());
+        assertEquals("Bearer t", context.headers().getFirst(HttpHeaders.AUTHORIZATION));
+        assertThrows(UnsupportedOperationException.class,
+                () -> context.headers().set(HttpHeaders.AUTHORIZATION, "Bearer other"));
+    }
+
+    // le contexte du thread qui soumet est visible dans la tâche (thread virtuel), puis retiré
+    @Test
+    void propagating_shouldRunTasksWithSubmitterContext() throws Exception {
+        ExecutorService executor = AuthContextHolder.propagating(Executors.newVirtualThreadPerTaskExecutor());
+        try {
+            AuthContext context = AuthContext.ofAuthorization("Bearer t");
+            AuthContextHolder.set(context);
+
+            assertSame(context, executor.submit(AuthContextHolder::current).get(5, TimeUnit.SECONDS));
+
+            AuthContextHolder.clear();
+            assertSame(AuthContext.NONE, executor.submit(AuthContextHolder::current).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void wrap_shouldRestorePreviousContext() throws Exception {
+        AuthContext outer = AuthContext.ofAuthorization("Bearer outer");
+        AuthContextHolder.set(AuthContext.ofAuthorization("Bearer inner"));
+        var task = AuthContextHolder.wrap(AuthContextHolder::current);
+
+        AuthContextHolder.set(outer);
+        assertEquals("Bearer inner", task.call().authorization());
+        assertSame(outer, AuthContextHolder.current());
+    }
+}
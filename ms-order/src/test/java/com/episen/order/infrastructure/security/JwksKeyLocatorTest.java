@@ -0,0 +1,181 @@
+package com.episen.order.infrastructure.security;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyLocatorTest {
+
+    private static final KeyPair BOOTSTRAP = rsaKeyPair();
+    private static final KeyPair ROTATED = rsaKeyPair();
+
+    private final AtomicReference<String> jwksBody = new AtomicReference<>("{\"keys\":[]}");
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private JwksKeyLocator locator;
+    private JwtTokenService tokenService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwksBody.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        locator = newLocator(true);
+        tokenService = new JwtTokenService(locator, meterRegistry, 100, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    // clé du classpath : tokens sans kid (émis avant la rotation) et kid = empreinte, sans appel réseau
+    @Test
+    void locate_shouldUseBootstrapKey_withoutFetching() {
+        String thumbprint = Jwks.builder().key(BOOTSTRAP.getPublic()).idFromThumbprint().build().getId();
+
+        assertEquals(10, userId(tokenService.validate(token(BOOTSTRAP, null))));
+        assertEquals(10, userId(tokenService.validate(token(BOOTSTRAP, thumbprint))));
+        assertEquals(0, fetches.get());
+    }
+
+    // nouvelle clé publiée : un kid inconnu déclenche une seule relecture du key set
+    @Test
+    void locate_shouldRefreshOnce_whenKidUnknown() {
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(ROTATED.getPublic()).id("k2").build()) + "]}");
+
+        assertEquals(10, userId(tokenService.validate(token(ROTATED, "k2"))));
+        assertEquals(1, fetches.get());
+
+        // kid fantaisiste : pas de nouvelle relecture avant min-refresh-interval
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> tokenService.validate(token(ROTATED, "k3")));
+        assertEquals(1, fetches.get());
+        assertEquals(1, locator.size());
+    }
+
+    // key set lu : l'amorce non publiée n'est plus acceptée, claims déjà en cache compris
+    @Test
+    void refresh_shouldDropBootstrapKey_onceKeySetFetched() {
+        String bootstrapToken = token(BOOTSTRAP, null);
+        assertEquals(10, userId(tokenService.validate(bootstrapToken)));
+
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(ROTATED.getPublic()).id("k2").build()) + "]}");
+        locator.refresh();
+
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> tokenService.validate(bootstrapToken));
+        assertEquals(10, userId(tokenService.validate(token(ROTATED, "k2"))));
+    }
+
+    // clé révoquée par ms-membership : les tokens déjà vérifiés sont refusés dès la relecture
+    @Test
+    void refresh_shouldInvalidateVerifiedClaims_whenKidRemoved() {
+        KeyPair next = rsaKeyPair();
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(ROTATED.getPublic()).id("k2").build()) + "]}");
+        String k2Token = token(ROTATED, "k2");
+        assertEquals(10, userId(tokenService.validate(k2Token)));
+
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(next.getPublic()).id("k3").build()) + "]}");
+        locator.refresh();
+
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> tokenService.validate(k2Token));
+    }
+
+    // trust-bootstrap-key=false : la clé du classpath n'est jamais acceptée d'office
+    @Test
+    void locate_shouldRejectBootstrapKey_whenNotTrusted() {
+        JwtTokenService strict = new JwtTokenService(newLocator(false), new SimpleMeterRegistry(), 100,
+                Duration.ofHours(1));
+
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> strict.validate(token(BOOTSTRAP, null)));
+    }
+
+    // ms-membership indisponible : les clés connues restent utilisables
+    @Test
+    void refresh_shouldKeepKnownKeys_whenKeySetUnavailable() {
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(ROTATED.getPublic()).id("k2").build()) + "]}");
+        locator.refresh();
+        server.stop(0);
+
+        locator.refresh();
+
+        assertEquals(10, userId(tokenService.validate(token(ROTATED, "k2"))));
+        assertEquals(1.0, meterRegistry.get("security.jwks.refresh").tag("outcome", "failure").counter().count());
+    }
+
+    // migration RS256 -> ES256 : les deux algorithmes sont acceptés ; hors liste, refusé
+    @Test
+    void locate_shouldAcceptConfiguredAlgorithmsOnly() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        KeyPair ec = generator.generateKeyPair();
+        jwksBody.set("{\"keys\":[" + Jwks.json(Jwks.builder().key(ec.getPublic()).id("ec-1").build()) + ","
+                + Jwks.json(Jwks.builder().key(BOOTSTRAP.getPublic()).idFromThumbprint().build()) + "]}");
+
+        assertEquals(10, userId(tokenService.validate(token(ec, "ec-1"))));
+        assertEquals(10, userId(tokenService.validate(token(BOOTSTRAP, null))));
+
+        JwksKeyLocator ecOnly = new JwksKeyLocator(BOOTSTRAP.getPublic(), new SimpleMeterRegistry(), "",
+                Duration.ofSeconds(2), Duration.ofMinutes(1), List.of("ES256"), true);
+        JwtTokenService ecOnlyService = new JwtTokenService(ecOnly, new SimpleMeterRegistry(), 100,
+                Duration.ofHours(1), Clock.systemUTC());
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> ecOnlyService.validate(token(BOOTSTRAP, null)));
+    }
+
+    private JwksKeyLocator newLocator(boolean trustBootstrapKey) {
+        return new JwksKeyLocator(BOOTSTRAP.getPublic(), meterRegistry,
+                "http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json",
+                Duration.ofSeconds(2), Duration.ofMinutes(1), List.of("RS256", "ES256", "EdDSA"), trustBootstrapKey);
+    }
+
+    private static String token(KeyPair keys, String kid) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .claim("userId", 10)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keys.getPrivate())
+                .compact();
+    }
+
+    private static int userId(Claims claims) {
+        return claims.get("userId", Integer.class);
+    }
+
+    private static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.episen.order.infrastructure.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.security.KeyPairGenerator;
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Coût par requête de JwtAuthFilter (token déjà vérifié, claims en cache).
+ *
+ *  - filterRequestBefore : ancien chemin (stream des rôles, préfixe ROLE_ et
+ *    SimpleGrantedAuthority recréés à chaque requête, logs debug non gardés) ;
+ *  - filterRequest : chemin actuel (RoleAuthorities, logs debug gardés).
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthFilterBenchmark -prof gc"
+ * (gc.alloc.rate.norm = octets alloués par requête).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthFilter filter;
+    private LegacyJwtAuthFilter legacyFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        // niveau de production : les logs debug ne doivent rien coûter
+        ((Logger) LoggerFactory.getLogger(JwtAuthFilter.class)).setLevel(Level.INFO);
+        ((Logger) LoggerFactory.getLogger(LegacyJwtAuthFilter.class)).setLevel(Level.INFO);
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+
+        JwtTokenService tokenService = new JwtTokenService(header -> keys.getPublic(), new SimpleMeterRegistry(),
+                10_000, Duration.ofHours(1), Clock.systemUTC());
+        filter = new JwtAuthFilter(tokenService);
+        legacyFilter = new LegacyJwtAuthFilter(tokenService);
+
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim("userId", 10)
+                .claim("roles", List.of("USER", "ADMIN"))
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(keys.getPrivate())
+                .compact();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+
+        // première vérification RSA hors mesure : les itérations lisent le cache de claims
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void filterRequest() throws ServletException, IOException {
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void filterRequestBefore() throws ServletException, IOException {
+        legacyFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    /** Chemin nominal de JwtAuthFilter avant les listes d'autorités précalculées */
+    static final class LegacyJwtAuthFilter {
+
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(LegacyJwtAuthFilter.class);
+
+        private final JwtTokenService jwtTokenService;
+
+        LegacyJwtAuthFilter(JwtTokenService jwtTokenService) {
+            this.jwtTokenService = jwtTokenService;
+        }
+
+        @SuppressWarnings("unchecked")
+        void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String path = request.getRequestURI();
+            log.debug("JWT filter triggered for path={}", path);
+
+            String auth = request.getHeader("Authorization");
+            String token = auth.substring(7);
+            try {
+                Claims claims = jwtTokenService.validate(token);
+
+                Object userId = claims.get("userId");
+                List<String> roles = claims.get("roles", List.class);
+
+                log.debug("JWT valid userId={} roles={} path={}", userId, roles, path);
+
+                request.setAttribute("userId", userId);
+                request.setAttribute("roles", roles);
+
+                AuthContextHolder.set(AuthContext.of(
+                        auth,
+                        userId instanceof Number n ? n.longValue() : null,
+                        claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant()));
+
+                var authorities = (roles == null)
+                        ? new ArrayList<SimpleGrantedAuthority>()
+                        : roles.stream()
+                               .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
+                               .map(SimpleGrantedAuthority::new)
+                               .collect(Collectors.toList());
+
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userId, null, authorities));
+
+                filterChain.doFilter(request, response);
+            } finally {
+                SecurityContextHolder.clearContext();
+                AuthContextHolder.clear();
+            }
+        }
+    }
+}
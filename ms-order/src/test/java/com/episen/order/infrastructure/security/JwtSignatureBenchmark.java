@@ -0,0 +1,83 @@
+package com.episen.order.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de signature (ms-membership) et de vérification (ms-order, ms-product)
+ * d'un token applicatif, par algorithme : RS256 (RSA 2048), ES256 (P-256), EdDSA (Ed25519).
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtSignatureBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSignatureBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private KeyPair keys;
+    private SignatureAlgorithm signatureAlgorithm;
+    private JwtParser parser;
+    private String token;
+    private Date expiration;
+
+    @Setup
+    public void setUp() {
+        signatureAlgorithm = switch (algorithm) {
+            case "RS256" -> Jwts.SIG.RS256;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException(algorithm);
+        };
+        keys = "EdDSA".equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signatureAlgorithm.keyPair().build();
+
+        parser = Jwts.parser().verifyWith(keys.getPublic()).build();
+        expiration = Date.from(Instant.now().plus(Duration.ofHours(1)));
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .header().keyId("bench").and()
+                .claim("userId", 10L)
+                .claim("email", "alice@example.com")
+                .claim("roles", List.of("USER"))
+                .expiration(expiration)
+                .signWith(keys.getPrivate(), signatureAlgorithm)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,109 @@
+package com.episen.order.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenServiceTest {
+
+    private static final KeyPair KEYS = rsaKeyPair();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+    private final JwtTokenService service =
+            new JwtTokenService(header -> KEYS.getPublic(), meterRegistry, 100, Duration.ofHours(1), clock);
+
+    // même token : une seule vérification RSA, la suivante vient du cache
+    @Test
+    void validate_shouldVerifySignatureOnce_forRepeatedToken() {
+        String token = token(Duration.ofMinutes(30));
+
+        Claims first = service.validate(token);
+        Claims second = service.validate(token);
+
+        assertEquals(10, second.get("userId", Integer.class));
+        assertSame(first, second);
+        assertEquals(1, verifications("valid"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwtValidation").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    // entrée encore présente mais token expiré : refusé sans nouvelle vérification
+    @Test
+    void validate_shouldRejectCachedToken_onceExpired() {
+        String token = token(Duration.ofMinutes(1));
+        service.validate(token);
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertThrows(JwtTokenService.TokenExpiredException.class, () -> service.validate(token));
+        assertThrows(JwtTokenService.TokenExpiredException.class, () -> service.validate(token));
+        assertEquals(1, verifications("expired"));
+    }
+
+    // token refusé : jamais mis en cache, chaque tentative est revérifiée
+    @Test
+    void validate_shouldNotCacheInvalidToken() {
+        String token = token(Duration.ofMinutes(30));
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> service.validate(tampered));
+        assertThrows(JwtTokenService.TokenInvalidException.class, () -> service.validate(tampered));
+        assertEquals(2, verifications("invalid"));
+    }
+
+    private String token(Duration ttl) {
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .subject("alice")
+                .claim("userId", 10)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(KEYS.getPrivate())
+                .compact();
+    }
+
+    private long verifications(String outcome) {
+        return meterRegistry.get("security.jwt.verify").tag("outcome", outcome).timer().count();
+    }
+
+    private static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
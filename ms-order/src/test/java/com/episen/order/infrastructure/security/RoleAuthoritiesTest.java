@@ -0,0 +1,54 @@
+package com.episen.order.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleAuthoritiesTest {
+
+    private final RoleAuthorities roleAuthorities = new RoleAuthorities();
+
+    @Test
+    void of_shouldPrefixRoles_andShareListPerRoleSet() {
+        List<GrantedAuthority> first = roleAuthorities.of(new ArrayList<>(List.of("USER", "ROLE_ADMIN")));
+        List<GrantedAuthority> second = roleAuthorities.of(List.of("USER", "ROLE_ADMIN"));
+
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                first.stream().map(GrantedAuthority::getAuthority).toList());
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(() -> "ROLE_X"));
+    }
+
+    // clé indépendante de l'ordre des rôles dans le token
+    @Test
+    void of_shouldShareListRegardlessOfRoleOrder() {
+        List<GrantedAuthority> userFirst = roleAuthorities.of(List.of("USER", "ADMIN"));
+        List<GrantedAuthority> adminFirst = roleAuthorities.of(List.of("ADMIN", "USER"));
+
+        assertSame(userFirst, adminFirst);
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                adminFirst.stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    // la liste du token est copiée : la modifier ne change pas l'entrée partagée
+    @Test
+    void of_shouldNotBeAffectedByLaterChangesToClaimList() {
+        List<String> roles = new ArrayList<>(List.of("USER"));
+        List<GrantedAuthority> authorities = roleAuthorities.of(roles);
+
+        roles.add("ADMIN");
+
+        assertEquals(1, roleAuthorities.of(List.of("USER")).size());
+        assertSame(authorities, roleAuthorities.of(List.of("USER")));
+    }
+
+    @Test
+    void of_shouldReturnEmpty_whenNoRoles() {
+        assertTrue(roleAuthorities.of(null).isEmpty());
+        assertTrue(roleAuthorities.of(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.episen.order.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrustedUserClaimsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final TrustedUserClaims trusted =
+            new TrustedUserClaims(true, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @AfterEach
+    void tearDown() {
+        AuthContextHolder.clear();
+    }
+
+    @Test
+    void vouchesFor_shouldAccept_whenSameUserAndYoungToken() {
+        bindRequest(10, NOW.minusSeconds(60));
+
+        assertTrue(trusted.vouchesFor(10L));
+    }
+
+    @Test
+    void vouchesFor_shouldReject_whenUserDiffers() {
+        bindRequest(11, NOW.minusSeconds(60));
+
+        assertFalse(trusted.vouchesFor(10L));
+    }
+
+    @Test
+    void vouchesFor_shouldReject_whenTokenTooOld() {
+        bindRequest(10, NOW.minus(Duration.ofMinutes(6)));
+
+        assertFalse(trusted.vouchesFor(10L));
+    }
+
+    @Test
+    void vouchesFor_shouldReject_whenDisabledOrOutsideRequest() {
+        assertFalse(trusted.vouchesFor(10L));
+
+        bindRequest(10, NOW);
+        TrustedUserClaims disabled = new TrustedUserClaims(false, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        assertFalse(disabled.vouchesFor(10L));
+    }
+
+    private static void bindRequest(long userId, Instant issuedAt) {
+        AuthContextHolder.set(AuthContext.of("Bearer token", userId, issuedAt));
+    }
+}
@@ -0,0 +1,21 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour le stock disponible d'un produit : stock - réservations actives.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductAvailabilityDTO {
+
+    private Long productId;
+    private Integer stock;
+    private Integer reserved;
+    private Integer available;
+}
@@ -0,0 +1,29 @@
+package com.episen.ms_product.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la création d'une réservation temporaire de stock (POST /api/v1/products/stock/holds).
+ * Sans ttlSeconds, la durée par défaut (app.stock.holds.default-ttl) s'applique.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequestDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins une ligne")
+    @Valid
+    private List<StockReservationLineDTO> lines;
+
+    @Min(value = 1, message = "La durée de réservation doit être d'au moins 1 seconde")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,29 @@
+package com.episen.ms_product.application.dto;
+
+import com.episen.ms_product.domain.entity.StockHoldStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO pour la réponse d'une réservation temporaire de stock.
+ * holdId est null si la réservation a été refusée (reserved = false).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldResponseDTO {
+
+    private String holdId;
+    private StockHoldStatus status;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+    private boolean reserved;
+    private List<StockReservationLineResultDTO> lines;
+}
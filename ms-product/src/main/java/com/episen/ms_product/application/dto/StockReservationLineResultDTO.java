@@ -0,0 +1,31 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une ligne de réservation de stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLineResultDTO {
+
+    private Long productId;
+    private Integer quantity;
+    private Status status;
+
+    public enum Status {
+        /** Stock décrémenté */
+        RESERVED,
+        /** Stock disponible inférieur à la quantité demandée */
+        INSUFFICIENT_STOCK,
+        /** Produit inconnu */
+        NOT_FOUND,
+        /** Ligne valide mais annulée car une autre ligne a échoué */
+        ROLLED_BACK
+    }
+}
@@ -0,0 +1,25 @@
+package com.episen.ms_product.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la réservation groupée de stock (POST /api/v1/products/stock/reservations).
+ * Toutes les lignes sont appliquées dans une seule transaction : tout ou rien.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequestDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins une ligne")
+    @Valid
+    private List<StockReservationLineDTO> lines;
+}
@@ -0,0 +1,22 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la réponse d'une réservation groupée de stock.
+ * reserved = true uniquement si toutes les lignes ont été appliquées.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponseDTO {
+
+    private boolean reserved;
+    private List<StockReservationLineResultDTO> lines;
+}
@@ -0,0 +1,229 @@
+package com.episen.ms_product.application.service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.episen.ms_product.domain.entity.IdempotencyRecord;
+import com.episen.ms_product.domain.repository.IdempotencyRecordRepository;
+import com.episen.ms_product.infrastructure.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotence des mutations de stock (header Idempotency-Key).
+ *
+ * - sans clé : la mutation est exécutée normalement ;
+ * - première requête avec une clé : la clé est insérée puis la mutation exécutée
+ *   dans la même transaction, la réponse est mémorisée avec la clé ; si la mutation
+ *   échoue, la transaction est annulée et la clé n'est pas conservée ;
+ * - rejeu (même clé, même requête) : la réponse mémorisée est renvoyée, la mutation
+ *   n'est pas rejouée (pas de double décrément) ;
+ * - même clé, requête différente : 422 (IdempotencyKeyMismatchException) ;
+ * - deux requêtes simultanées avec la même clé : l'insertion de la seconde attend
+ *   la fin de la première (clé primaire), puis la réponse de la première est renvoyée.
+ *
+ * Les clés sont conservées app.idempotency.retention puis purgées en tâche de fond.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /** Header ajouté aux réponses rejouées */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration retention;
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter mismatchCounter;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.retention:PT24H}") Duration retention) {
+        this(repository, transactionTemplate, objectMapper, meterRegistry, Clock.systemDefaultZone(), retention);
+    }
+
+    IdempotencyService(IdempotencyRecordRepository repository,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       Clock clock,
+                       Duration retention) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.retention = retention;
+
+        this.executedCounter = requestCounter(meterRegistry, "executed");
+        this.replayedCounter = requestCounter(meterRegistry, "replayed");
+        this.mismatchCounter = requestCounter(meterRegistry, "mismatch");
+    }
+
+    /**
+     * Exécute une mutation au plus une fois par clé d'idempotence.
+     *
+     * @param idempotencyKey valeur du header Idempotency-Key (null : pas d'idempotence)
+     * @param operation      identifiant de l'opération (méthode + chemin), inclus dans l'empreinte
+     * @param request        corps de la requête, inclus dans l'empreinte
+     * @param responseType   type du corps de réponse (relecture de la réponse mémorisée)
+     * @param mutation       mutation à exécuter
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey,
+                                         String operation,
+                                         Object request,
+                                         Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> mutation) {
+        if (idempotencyKey == null) {
+            return mutation.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Le header " + HEADER + " doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères");
+        }
+
+        String requestHash = fingerprint(operation, request);
+
+        Optional<ResponseEntity<T>> replay = replay(idempotencyKey, requestHash, responseType);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        try {
+            ResponseEntity<T> response = transactionTemplate.execute(status -> {
+                IdempotencyRecord record = insertKey(idempotencyKey, requestHash);
+                ResponseEntity<T> result = mutation.get();
+                record.setResponseStatus(result.getStatusCode().value());
+                record.setResponseBody(toJson(result.getBody()));
+                URI location = result.getHeaders().getLocation();
+                record.setResponseLocation(location == null ? null : location.toString());
+                return result;
+            });
+            executedCounter.increment();
+            return response;
+
+        } catch (DuplicateKeyException e) {
+            // requête concurrente avec la même clé, validée entre-temps
+            return replay(idempotencyKey, requestHash, responseType)
+                    .orElseThrow(() -> new IllegalStateException("Clé d'idempotence " + idempotencyKey + " introuvable"));
+        }
+    }
+
+    /**
+     * Purge les clés plus anciennes que la durée de rétention.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(retention);
+        Integer purged = transactionTemplate.execute(status -> repository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.info("{} clés d'idempotence purgées (antérieures à {})", purged, cutoff);
+        }
+    }
+
+    private IdempotencyRecord insertKey(String idempotencyKey, String requestHash) {
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .createdAt(LocalDateTime.now(clock))
+                .build();
+        try {
+            // persist immédiat : la contrainte de clé primaire sérialise les requêtes de même clé
+            return repository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateKeyException();
+        }
+    }
+
+    private <T> Optional<ResponseEntity<T>> replay(String idempotencyKey, String requestHash, Class<T> responseType) {
+        Optional<IdempotencyRecord> stored = repository.findById(idempotencyKey);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = stored.get();
+        if (!record.getRequestHash().equals(requestHash)) {
+            mismatchCounter.increment();
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+
+        log.info("Requête rejouée pour la clé d'idempotence {} (statut {})", idempotencyKey, record.getResponseStatus());
+        replayedCounter.increment();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true");
+        if (record.getResponseLocation() != null) {
+            response.location(URI.create(record.getResponseLocation()));
+        }
+        return Optional.of(response.body(fromJson(record.getResponseBody(), responseType)));
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Empreinte de requête impossible", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse non sérialisable", e);
+        }
+    }
+
+    private <T> T fromJson(String body, Class<T> responseType) {
+        try {
+            return body == null ? null : objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse mémorisée illisible", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("products.idempotency.requests")
+                .description("Mutations de stock reçues avec une clé d'idempotence")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /** Clé déjà présente : annule la transaction de la requête concurrente */
+    private static final class DuplicateKeyException extends RuntimeException {
+        DuplicateKeyException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.episen.ms_product.application.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.episen.ms_product.application.dto.ProductRequestDTO;
 import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
 import com.episen.ms_product.application.mapper.ProductMapper;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.entity.ProductCategory;
@@ -14,8 +26,10 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.episen.ms_product.infrastructure.cache.ProductCache;
 import com.episen.ms_product.infrastructure.exception.ResourceAlreadyExistsException;
 import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.exception.StockReservationException;
 
 /**
  * Service pour la gestion des produits.
@@ -31,19 +45,28 @@ import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
 @Transactional(readOnly = true)
 public class ProductService {
 
+        /** Nombre maximum d'identifiants acceptés par une recherche groupée */
+        public static final int MAX_BATCH_SIZE = 100;
+
         private final ProductRepository productRepository;
         private final ProductMapper productMapper;
         private final MeterRegistry meterRegistry;
+        private final StockHoldIndex stockHoldIndex;
+        private final ProductCache productCache;
         private final Counter createdCounter;
         private final Counter deletedCounter;
         private final Counter updatedCounter;
 
     public ProductService(ProductRepository productRepository,
                     ProductMapper productMapper,
-                    MeterRegistry meterRegistry) {
+                    MeterRegistry meterRegistry,
+                    StockHoldIndex stockHoldIndex,
+                    ProductCache productCache) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.meterRegistry = meterRegistry;
+        this.stockHoldIndex = stockHoldIndex;
+        this.productCache = productCache;
 
         this.createdCounter = Counter.builder("products.created")
                             .description("Nombre de produits créés")
@@ -63,7 +86,9 @@ public class ProductService {
 
     /**
      * Lister tous les produits : Récupère tous les produits
+     * (mis en cache, évincé à chaque écriture sur le catalogue)
      */
+    @Cacheable(cacheNames = ProductCache.PRODUCT_LIST, key = "'" + ProductCache.ALL_KEY + "'")
     public List<ProductResponseDTO> getAllProducts() {
         log.debug("Récupération de tous les produits");
         
@@ -78,7 +103,9 @@ public class ProductService {
 
     /**
      * Détails d'un prouit : Récupère un produit par son ID
+     * (mis en cache par ID, évincé quand ce produit est modifié)
      */
+    @Cacheable(cacheNames = ProductCache.PRODUCTS, key = "#id")
     public ProductResponseDTO getProductById(Long id) {
         log.debug("Récupération du produit avec l'ID: {}", id);
 
@@ -90,11 +117,37 @@ public class ProductService {
         return productMapper.toDto(product);
     }
 
+    /**
+     * Récupère plusieurs produits par leurs IDs en une seule requête.
+     * Les IDs inconnus sont simplement absents du résultat.
+     */
+    public List<ProductResponseDTO> getProductsByIds(List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        log.debug("Récupération groupée de {} produits", distinctIds.size());
+
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Trop d'identifiants demandés (max " + MAX_BATCH_SIZE + ") : " + distinctIds.size());
+        }
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Product> products = productRepository.findByIdIn(distinctIds);
+
+        log.info("Nombre de produits trouvés: {}/{}", products.size(), distinctIds.size());
+
+        return products.stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Créer un produit : Crée un nouveau produit
      * (Pas besoin de faire +1 au stock car on créé un modle de produit : stock est à entrer par l'utilisateur)
      */
     @Transactional
+    @CacheEvict(cacheNames = ProductCache.PRODUCT_LIST, key = "'" + ProductCache.ALL_KEY + "'")
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
         log.debug("Création d'un nouveau produit : {}", productRequestDTO.getName());
         
@@ -120,6 +173,10 @@ public class ProductService {
      * Modifier un produit : Met à jour un produit existant
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ProductCache.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = ProductCache.PRODUCT_LIST, key = "'" + ProductCache.ALL_KEY + "'")
+    })
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
         log.debug("Mise à jour du produit avec l'ID: {}", id);
 
@@ -149,6 +206,10 @@ public class ProductService {
      * Supprimer un produit
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ProductCache.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = ProductCache.PRODUCT_LIST, key = "'" + ProductCache.ALL_KEY + "'")
+    })
     public void deleteProduct(Long id) {
         log.debug("Suppression du produit avec l'ID: {}", id);
 
@@ -212,6 +273,10 @@ public class ProductService {
      * Mettre à jour le stock d'un produit
      */
         @Transactional
+        @Caching(evict = {
+                @CacheEvict(cacheNames = ProductCache.PRODUCTS, key = "#id"),
+                @CacheEvict(cacheNames = ProductCache.PRODUCT_LIST, key = "'" + ProductCache.ALL_KEY + "'")
+        })
         public ProductResponseDTO updateStock(Long id, Integer newStock) {
                 log.debug("Modification du stock du produit {}", id);
 
@@ -221,6 +286,66 @@ public class ProductService {
                 product.setStock(newStock);
                 Product savedProduct = productRepository.save(product);
 
+                // appelé dans une transaction englobante (Idempotency-Key) : nouvelle éviction
+                // après son commit, les annotations ci-dessus évinçant avant
+                productCache.evictProducts(List.of(id));
+
                 return productMapper.toDto(savedProduct);
         }
+
+        /**
+         * Réserve (décrémente) le stock de plusieurs produits en une seule transaction.
+         *
+         * - chaque ligne est un UPDATE conditionnel exécuté par la base : le stock restant
+         *   doit couvrir les réservations temporaires actives (StockHoldIndex) ;
+         * - les quantités d'un même produit sont cumulées et les produits traités par ID
+         *   croissant (ordre de verrouillage stable entre réservations concurrentes) ;
+         * - si une ligne échoue, StockReservationException annule toute la transaction
+         *   et transporte le résultat de chaque ligne.
+         */
+        @Transactional
+        public StockReservationResponseDTO reserveStock(StockReservationRequestDTO request) {
+                Map<Long, Integer> quantities = new TreeMap<>();
+                for (StockReservationLineDTO line : request.getLines()) {
+                        quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+                }
+                log.debug("Réservation de stock pour {} produits", quantities.size());
+
+                List<StockReservationLineResultDTO> results = new ArrayList<>(quantities.size());
+                boolean reserved = true;
+
+                for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                        StockReservationLineResultDTO.Status status;
+                        int held = stockHoldIndex.reserved(entry.getKey());
+                        if (productRepository.decrementStockIfAvailable(entry.getKey(), entry.getValue(), held) == 1) {
+                                status = StockReservationLineResultDTO.Status.RESERVED;
+                        } else {
+                                reserved = false;
+                                status = productRepository.existsById(entry.getKey())
+                                                ? StockReservationLineResultDTO.Status.INSUFFICIENT_STOCK
+                                                : StockReservationLineResultDTO.Status.NOT_FOUND;
+                        }
+                        results.add(StockReservationLineResultDTO.builder()
+                                        .productId(entry.getKey())
+                                        .quantity(entry.getValue())
+                                        .status(status)
+                                        .build());
+                }
+
+                if (!reserved) {
+                        results.stream()
+                                        .filter(r -> r.getStatus() == StockReservationLineResultDTO.Status.RESERVED)
+                                        .forEach(r -> r.setStatus(StockReservationLineResultDTO.Status.ROLLED_BACK));
+
+                        log.warn("Réservation de stock refusée : {}", results);
+                        throw new StockReservationException(new StockReservationResponseDTO(false, results));
+                }
+
+                // stock modifié : les produits concernés sont évincés du cache (après commit)
+                productCache.evictProducts(quantities.keySet());
+
+                log.info("Stock réservé pour {} produits", results.size());
+
+                return new StockReservationResponseDTO(true, results);
+        }
 }
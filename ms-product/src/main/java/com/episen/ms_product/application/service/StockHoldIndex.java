@@ -0,0 +1,76 @@
+package com.episen.ms_product.application.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import com.episen.ms_product.domain.entity.StockHold;
+
+/**
+ * Index mémoire des quantités réservées (réservations ACTIVE) par produit.
+ *
+ * - stock disponible = stock - réservé, calculé sans verrouiller la ligne products ;
+ * - chaque opération est atomique par produit (ConcurrentHashMap.compute) ;
+ * - l'index est reconstruit depuis la table stock_holds au démarrage :
+ *   la base reste la source de vérité, l'index n'est qu'une projection.
+ *
+ * Remarque : l'index est propre à une instance. Avec plusieurs instances de ms-product,
+ * chacune ignore les réservations des autres : le disponible calculé est surestimé.
+ * Les réservations doivent alors être routées vers une même instance (ex : par produit),
+ * sinon ms-product doit tourner en une seule instance (voir application.yml).
+ */
+@Component
+public class StockHoldIndex {
+
+    private final Map<Long, Integer> reservedByProduct = new ConcurrentHashMap<>();
+
+    /**
+     * Quantité actuellement réservée pour un produit
+     */
+    public int reserved(Long productId) {
+        return reservedByProduct.getOrDefault(productId, 0);
+    }
+
+    /**
+     * Quantité totale réservée, tous produits confondus
+     */
+    public long totalReserved() {
+        return reservedByProduct.values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Réserve quantity si stock - réservé >= quantity.
+     *
+     * @return true si la quantité a été ajoutée aux réservations du produit
+     */
+    public boolean tryReserve(Long productId, int stock, int quantity) {
+        boolean[] reserved = {false};
+        reservedByProduct.compute(productId, (id, current) -> {
+            int alreadyReserved = current == null ? 0 : current;
+            if (stock - alreadyReserved < quantity) {
+                return current;
+            }
+            reserved[0] = true;
+            return alreadyReserved + quantity;
+        });
+        return reserved[0];
+    }
+
+    /**
+     * Rend quantity au stock disponible d'un produit
+     */
+    public void release(Long productId, int quantity) {
+        reservedByProduct.computeIfPresent(productId,
+                (id, current) -> current - quantity <= 0 ? null : current - quantity);
+    }
+
+    /**
+     * Remplace le contenu de l'index par les réservations actives fournies
+     */
+    public void rebuild(Collection<StockHold> activeHolds) {
+        reservedByProduct.clear();
+        for (StockHold hold : activeHolds) {
+            reservedByProduct.merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+        }
+    }
+}
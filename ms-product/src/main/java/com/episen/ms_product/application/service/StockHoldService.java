@@ -0,0 +1,391 @@
+package com.episen.ms_product.application.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.episen.ms_product.application.dto.ProductAvailabilityDTO;
+import com.episen.ms_product.application.dto.StockHoldRequestDTO;
+import com.episen.ms_product.application.dto.StockHoldResponseDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.entity.StockHold;
+import com.episen.ms_product.domain.entity.StockHoldStatus;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.StockHoldRepository;
+import com.episen.ms_product.infrastructure.cache.ProductCache;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.exception.StockHoldConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service pour les réservations temporaires de stock (holds).
+ *
+ * Cycle de vie :
+ * - placeHold   : réserve les quantités en mémoire (StockHoldIndex) et trace les lignes
+ *                 dans stock_holds, sans écrire dans la table products ;
+ * - commitHold  : décrémente réellement le stock (commande confirmée) ;
+ * - releaseHold : rend les quantités (commande annulée) ;
+ * - restockHold : remet en stock une réservation, même confirmée (commande annulée après confirmation) ;
+ * - expireHolds : balayage périodique qui libère les réservations expirées.
+ *
+ * L'index mémoire n'est modifié qu'après le commit de la transaction correspondante,
+ * pour rester aligné avec la base.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class StockHoldService {
+
+        private final StockHoldRepository stockHoldRepository;
+        private final ProductRepository productRepository;
+        private final StockHoldIndex stockHoldIndex;
+        private final ProductCache productCache;
+        private final Duration defaultTtl;
+        private final Duration maxTtl;
+        private final Counter placedCounter;
+        private final Counter rejectedCounter;
+        private final Counter committedCounter;
+        private final Counter releasedCounter;
+        private final Counter expiredCounter;
+        private final Counter restockedCounter;
+
+    public StockHoldService(StockHoldRepository stockHoldRepository,
+                    ProductRepository productRepository,
+                    StockHoldIndex stockHoldIndex,
+                    ProductCache productCache,
+                    MeterRegistry meterRegistry,
+                    @Value("${app.stock.holds.default-ttl:PT15M}") Duration defaultTtl,
+                    @Value("${app.stock.holds.max-ttl:PT2H}") Duration maxTtl) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.productRepository = productRepository;
+        this.stockHoldIndex = stockHoldIndex;
+        this.productCache = productCache;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+
+        this.placedCounter = holdCounter(meterRegistry, "placed");
+        this.rejectedCounter = holdCounter(meterRegistry, "rejected");
+        this.committedCounter = holdCounter(meterRegistry, "committed");
+        this.releasedCounter = holdCounter(meterRegistry, "released");
+        this.expiredCounter = holdCounter(meterRegistry, "expired");
+        this.restockedCounter = holdCounter(meterRegistry, "restocked");
+
+        Gauge.builder("products.stock.holds.reserved_units", stockHoldIndex, StockHoldIndex::totalReserved)
+                        .description("Quantité totale de stock réservée par des réservations actives")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Reconstruit l'index mémoire depuis les réservations actives en base
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        List<StockHold> activeHolds = stockHoldRepository.findByStatus(StockHoldStatus.ACTIVE);
+        stockHoldIndex.rebuild(activeHolds);
+        log.info("Index des réservations de stock chargé: {} lignes actives", activeHolds.size());
+    }
+
+    /**
+     * Stock disponible d'un produit : stock - réservations actives (calculé en mémoire)
+     */
+    public ProductAvailabilityDTO getAvailability(Long productId) {
+        Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+
+        int reserved = stockHoldIndex.reserved(productId);
+
+        return ProductAvailabilityDTO.builder()
+                        .productId(productId)
+                        .stock(product.getStock())
+                        .reserved(reserved)
+                        .available(Math.max(0, product.getStock() - reserved))
+                        .build();
+    }
+
+    /**
+     * Crée une réservation temporaire pour toutes les lignes (tout ou rien).
+     * Une seule requête de lecture sur products, aucune écriture sur products.
+     */
+    @Transactional
+    public StockHoldResponseDTO placeHold(StockHoldRequestDTO request) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationLineDTO line : request.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        log.debug("Réservation temporaire de stock pour {} produits", quantities.size());
+
+        Map<Long, Product> products = productRepository.findByIdIn(quantities.keySet()).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<StockReservationLineResultDTO> results = new ArrayList<>(quantities.size());
+        boolean reserved = true;
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            StockReservationLineResultDTO.Status status;
+            if (product == null) {
+                status = StockReservationLineResultDTO.Status.NOT_FOUND;
+                reserved = false;
+            } else if (stockHoldIndex.tryReserve(entry.getKey(), product.getStock(), entry.getValue())) {
+                status = StockReservationLineResultDTO.Status.RESERVED;
+            } else {
+                status = StockReservationLineResultDTO.Status.INSUFFICIENT_STOCK;
+                reserved = false;
+            }
+            results.add(new StockReservationLineResultDTO(entry.getKey(), entry.getValue(), status));
+        }
+
+        if (!reserved) {
+            for (StockReservationLineResultDTO result : results) {
+                if (result.getStatus() == StockReservationLineResultDTO.Status.RESERVED) {
+                    stockHoldIndex.release(result.getProductId(), result.getQuantity());
+                    result.setStatus(StockReservationLineResultDTO.Status.ROLLED_BACK);
+                }
+            }
+            rejectedCounter.increment();
+            log.warn("Réservation temporaire de stock refusée : {}", results);
+            return StockHoldResponseDTO.builder().reserved(false).lines(results).build();
+        }
+
+        String holdId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(resolveTtl(request.getTtlSeconds()));
+
+        List<StockHold> holds = results.stream()
+                        .map(r -> StockHold.builder()
+                                        .holdId(holdId)
+                                        .productId(r.getProductId())
+                                        .quantity(r.getQuantity())
+                                        .status(StockHoldStatus.ACTIVE)
+                                        .expiresAt(expiresAt)
+                                        .build())
+                        .toList();
+
+        Runnable undo = () -> holds.forEach(h -> stockHoldIndex.release(h.getProductId(), h.getQuantity()));
+        try {
+            stockHoldRepository.saveAll(holds);
+        } catch (RuntimeException ex) {
+            undo.run();
+            throw ex;
+        }
+        onRollback(undo);
+
+        placedCounter.increment();
+        log.info("Réservation de stock créée: holdId={}, produits={}, expire à {}", holdId, holds.size(), expiresAt);
+
+        return StockHoldResponseDTO.builder()
+                        .holdId(holdId)
+                        .status(StockHoldStatus.ACTIVE)
+                        .expiresAt(expiresAt)
+                        .reserved(true)
+                        .lines(results)
+                        .build();
+    }
+
+    /**
+     * Confirme une réservation : le stock réservé est réellement décrémenté.
+     * Idempotent si la réservation est déjà confirmée.
+     */
+    @Transactional
+    public StockHoldResponseDTO commitHold(String holdId) {
+        List<StockHold> holds = findHold(holdId);
+        StockHoldStatus status = holds.get(0).getStatus();
+
+        if (status == StockHoldStatus.COMMITTED) {
+            return toResponse(holdId, holds);
+        }
+        if (status != StockHoldStatus.ACTIVE) {
+            throw new StockHoldConflictException("Réservation " + holdId + " non confirmable (statut " + status + ")");
+        }
+
+        for (StockHold hold : holds) {
+            // les autres réservations actives du produit doivent rester couvertes par le stock
+            int otherHolds = stockHoldIndex.reserved(hold.getProductId()) - hold.getQuantity();
+            if (productRepository.decrementStockIfAvailable(hold.getProductId(), hold.getQuantity(), Math.max(0, otherHolds)) == 0) {
+                throw new StockHoldConflictException(
+                                "Stock insuffisant pour confirmer la réservation " + holdId + " (produit " + hold.getProductId() + ")");
+            }
+            hold.setStatus(StockHoldStatus.COMMITTED);
+        }
+        stockHoldRepository.saveAll(holds);
+        afterCommit(() -> holds.forEach(h -> stockHoldIndex.release(h.getProductId(), h.getQuantity())));
+
+        // stock décrémenté : les produits concernés sont évincés du cache (après commit)
+        productCache.evictProducts(holds.stream().map(StockHold::getProductId).toList());
+
+        committedCounter.increment();
+        log.info("Réservation de stock confirmée: holdId={}", holdId);
+
+        return toResponse(holdId, holds);
+    }
+
+    /**
+     * Libère une réservation : les quantités redeviennent disponibles.
+     * Idempotent si la réservation est déjà libérée ou expirée.
+     */
+    @Transactional
+    public StockHoldResponseDTO releaseHold(String holdId) {
+        List<StockHold> holds = findHold(holdId);
+        StockHoldStatus status = holds.get(0).getStatus();
+
+        if (status == StockHoldStatus.COMMITTED) {
+            throw new StockHoldConflictException("Réservation " + holdId + " déjà confirmée");
+        }
+        if (status != StockHoldStatus.ACTIVE) {
+            return toResponse(holdId, holds);
+        }
+
+        holds.forEach(h -> h.setStatus(StockHoldStatus.RELEASED));
+        stockHoldRepository.saveAll(holds);
+        afterCommit(() -> holds.forEach(h -> stockHoldIndex.release(h.getProductId(), h.getQuantity())));
+
+        releasedCounter.increment();
+        log.info("Réservation de stock libérée: holdId={}", holdId);
+
+        return toResponse(holdId, holds);
+    }
+
+    /**
+     * Remet en stock les quantités d'une réservation, quel que soit son état :
+     * - confirmée : le stock décrémenté par commitHold est réincrémenté ;
+     * - active : libérée, comme releaseHold ;
+     * - libérée, expirée ou déjà remise en stock : sans effet (idempotent).
+     */
+    @Transactional
+    public StockHoldResponseDTO restockHold(String holdId) {
+        List<StockHold> holds = findHold(holdId);
+        StockHoldStatus status = holds.get(0).getStatus();
+
+        if (status == StockHoldStatus.ACTIVE) {
+            return releaseHold(holdId);
+        }
+        if (status != StockHoldStatus.COMMITTED) {
+            return toResponse(holdId, holds);
+        }
+
+        for (StockHold hold : holds) {
+            productRepository.incrementStock(hold.getProductId(), hold.getQuantity());
+            hold.setStatus(StockHoldStatus.RESTOCKED);
+        }
+        stockHoldRepository.saveAll(holds);
+
+        // stock réincrémenté : les produits concernés sont évincés du cache (après commit)
+        productCache.evictProducts(holds.stream().map(StockHold::getProductId).toList());
+
+        restockedCounter.increment();
+        log.info("Réservation de stock remise en stock: holdId={}", holdId);
+
+        return toResponse(holdId, holds);
+    }
+
+    /**
+     * Libère périodiquement les réservations actives dont la date d'expiration est passée
+     */
+    @Scheduled(fixedDelayString = "${app.stock.holds.sweep-interval-ms:30000}")
+    @Transactional
+    public void expireHolds() {
+        List<StockHold> expired = stockHoldRepository.findByStatusAndExpiresAtBefore(
+                        StockHoldStatus.ACTIVE, LocalDateTime.now());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        expired.forEach(h -> h.setStatus(StockHoldStatus.EXPIRED));
+        stockHoldRepository.saveAll(expired);
+        afterCommit(() -> expired.forEach(h -> stockHoldIndex.release(h.getProductId(), h.getQuantity())));
+
+        expiredCounter.increment(expired.stream().map(StockHold::getHoldId).distinct().count());
+        log.info("Réservations de stock expirées: {} lignes libérées", expired.size());
+    }
+
+    private List<StockHold> findHold(String holdId) {
+        List<StockHold> holds = stockHoldRepository.findByHoldId(holdId);
+        if (holds.isEmpty()) {
+            throw new ResourceNotFoundException("StockHold", "holdId", holdId);
+        }
+        return holds;
+    }
+
+    private Duration resolveTtl(Integer ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultTtl;
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+
+    private StockHoldResponseDTO toResponse(String holdId, List<StockHold> holds) {
+        StockHoldStatus status = holds.get(0).getStatus();
+        StockReservationLineResultDTO.Status lineStatus = status == StockHoldStatus.ACTIVE
+                        || status == StockHoldStatus.COMMITTED
+                        ? StockReservationLineResultDTO.Status.RESERVED
+                        : StockReservationLineResultDTO.Status.ROLLED_BACK;
+
+        return StockHoldResponseDTO.builder()
+                        .holdId(holdId)
+                        .status(status)
+                        .expiresAt(holds.get(0).getExpiresAt())
+                        .reserved(lineStatus == StockReservationLineResultDTO.Status.RESERVED)
+                        .lines(holds.stream()
+                                        .map(h -> new StockReservationLineResultDTO(h.getProductId(), h.getQuantity(), lineStatus))
+                                        .toList())
+                        .build();
+    }
+
+    private static Counter holdCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("products.stock.holds")
+                        .description("Nombre de réservations temporaires de stock, par issue")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Exécute l'action après le commit de la transaction courante (ou immédiatement hors transaction)
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Exécute l'action si la transaction courante est annulée
+     */
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
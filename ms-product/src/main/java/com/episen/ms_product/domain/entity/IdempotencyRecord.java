@@ -0,0 +1,51 @@
+package com.episen.ms_product.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité IdempotencyRecord : réponse mémorisée d'une mutation de stock reçue avec
+ * un header Idempotency-Key.
+ *
+ * La ligne est insérée dans la même transaction que la mutation : elle n'existe
+ * que si la mutation a été validée. Un rejeu de la même clé renvoie la réponse
+ * mémorisée sans rejouer la mutation. Les lignes sont purgées après la durée de
+ * rétention (app.idempotency.retention).
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    /** Valeur du header Idempotency-Key (clé primaire : unicité garantie par la base) */
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    /** Empreinte SHA-256 de l'opération et du corps de la requête */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "response_location", length = 500)
+    private String responseLocation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
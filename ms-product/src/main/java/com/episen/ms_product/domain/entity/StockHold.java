@@ -0,0 +1,64 @@
+package com.episen.ms_product.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité StockHold : une ligne de réservation temporaire de stock.
+ *
+ * Une réservation (holdId) regroupe une ligne par produit. Tant qu'elle est ACTIVE,
+ * sa quantité est retirée du stock disponible sans modifier la table products ;
+ * elle devient COMMITTED (stock réellement décrémenté), RELEASED (annulée)
+ * ou EXPIRED (libérée automatiquement après expiresAt). Une réservation COMMITTED
+ * devient RESTOCKED quand sa commande est annulée après confirmation (stock réincrémenté).
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_hold_id", columnList = "hold_id"),
+        @Index(name = "idx_stock_holds_status_expires", columnList = "status, expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hold_id", nullable = false, length = 36)
+    private String holdId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StockHoldStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Verrou optimiste : confirmation, libération et expiration concurrentes d'une même ligne */
+    @Version
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,5 @@
+package com.episen.ms_product.domain.entity;
+
+public enum StockHoldStatus {
+    ACTIVE, COMMITTED, RELEASED, EXPIRED, RESTOCKED
+}
@@ -0,0 +1,25 @@
+package com.episen.ms_product.domain.repository;
+
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.episen.ms_product.domain.entity.IdempotencyRecord;
+
+/**
+ * Repository de la table de déduplication des mutations de stock (Idempotency-Key).
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Supprime les clés plus anciennes que la date limite (rétention bornée)
+     *
+     * @return nombre de clés supprimées
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,12 @@
 package com.episen.ms_product.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.entity.ProductCategory;
@@ -23,6 +26,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findById(Long id);
 
+    /**
+     * Récupère plusieurs produits en une seule requête SQL (WHERE id IN (...))
+     */
+    List<Product> findByIdIn(Collection<Long> ids);
+
     /**
      * Recherche un produit par nom (méthode de requête dérivée)
      */
@@ -50,6 +58,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByName(String name);
 
+    /**
+     * Décrémente le stock de manière atomique si (et seulement si) il reste au moins
+     * "keep" unités après le décrément (unités réservées par d'autres réservations actives).
+     * Le calcul est fait par la base : pas de perte de décrément sous concurrence.
+     *
+     * @return 1 si le stock a été décrémenté, 0 si produit inconnu ou stock insuffisant
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :qty WHERE p.id = :id AND p.stock - :qty >= :keep")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("qty") int qty, @Param("keep") int keep);
+
+    /**
+     * Réincrémente le stock de manière atomique (remise en stock d'une réservation confirmée).
+     *
+     * @return 1 si le stock a été réincrémenté, 0 si produit inconnu
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :qty WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("qty") int qty);
+
     long countByStock(int stock);
 
     long countByStockLessThan(int threshold);
@@ -0,0 +1,30 @@
+package com.episen.ms_product.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.episen.ms_product.domain.entity.StockHold;
+import com.episen.ms_product.domain.entity.StockHoldStatus;
+
+/**
+ * Repository pour le registre des réservations temporaires de stock.
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    /**
+     * Lignes d'une réservation
+     */
+    List<StockHold> findByHoldId(String holdId);
+
+    /**
+     * Lignes par statut (reconstruction de l'index mémoire au démarrage)
+     */
+    List<StockHold> findByStatus(StockHoldStatus status);
+
+    /**
+     * Lignes encore actives mais expirées (balayage périodique)
+     */
+    List<StockHold> findByStatusAndExpiresAtBefore(StockHoldStatus status, LocalDateTime now);
+}
@@ -0,0 +1,64 @@
+package com.episen.ms_product.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Noms des caches du catalogue et évictions programmatiques.
+ *
+ * Les lectures / écritures simples utilisent les annotations @Cacheable / @CacheEvict ;
+ * ce composant sert aux écritures qui touchent plusieurs produits à la fois
+ * (réservation de stock, confirmation d'une réservation).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+
+    /** Produit par id (clé : id) */
+    public static final String PRODUCTS = "products";
+
+    /** Liste complète des produits (clé unique : ALL_KEY) */
+    public static final String PRODUCT_LIST = "productList";
+
+    public static final String ALL_KEY = "all";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Évince les produits modifiés et la liste complète.
+     * Appelé dans une transaction, l'éviction est différée après le commit
+     * (rien n'est évincé si la transaction est annulée).
+     */
+    public void evictProducts(Collection<Long> productIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(productIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(ids);
+                }
+            });
+            return;
+        }
+        evictNow(productIds);
+    }
+
+    private void evictNow(Collection<Long> productIds) {
+        Cache products = cacheManager.getCache(PRODUCTS);
+        if (products != null) {
+            productIds.forEach(products::evict);
+        }
+        Cache productList = cacheManager.getCache(PRODUCT_LIST);
+        if (productList != null) {
+            productList.evict(ALL_KEY);
+        }
+    }
+}
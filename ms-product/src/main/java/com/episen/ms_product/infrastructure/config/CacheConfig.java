@@ -0,0 +1,20 @@
+package com.episen.ms_product.infrastructure.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration du cache du catalogue produits (Spring Cache + Caffeine).
+ *
+ * - taille et durée de vie bornées : spring.cache.caffeine.spec (application.yml) ;
+ * - recordStats : hits / misses / évictions exposés par Actuator dans le MeterRegistry
+ *   (métriques cache.gets, cache.puts, cache.evictions, cache.size) ;
+ * - order = HIGHEST_PRECEDENCE : l'intercepteur de cache enveloppe celui des transactions,
+ *   les @CacheEvict sont donc appliqués après le commit (sinon une lecture concurrente
+ *   pourrait remettre en cache l'ancienne valeur avant la validation).
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+}
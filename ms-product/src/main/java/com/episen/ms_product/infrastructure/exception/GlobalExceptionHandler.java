@@ -1,5 +1,6 @@
 package com.episen.ms_product.infrastructure.exception;
 
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -72,6 +73,64 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Gère les changements d'état impossibles d'une réservation temporaire de stock (409)
+     */
+    @ExceptionHandler(StockHoldConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleStockHoldConflictException(
+            StockHoldConflictException ex,
+            HttpServletRequest request) {
+
+        log.warn("Conflit sur une réservation de stock: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Gère la réutilisation d'une clé d'idempotence pour une autre requête (422)
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex,
+            HttpServletRequest request) {
+
+        log.warn("Clé d'idempotence réutilisée: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error(HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Gère les réservations de stock refusées (409)
+     * Le corps contient le résultat de chaque ligne pour que l'appelant sache laquelle a échoué
+     */
+    @ExceptionHandler(StockReservationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<StockReservationResponseDTO> handleStockReservationException(
+            StockReservationException ex) {
+
+        log.warn("Réservation de stock refusée: {}", ex.getResult().getLines());
+
+        return new ResponseEntity<>(ex.getResult(), HttpStatus.CONFLICT);
+    }
+
     /**
      * Gère les erreurs de validation (400)
      * Déclenché par @Valid dans les contrôleurs
@@ -0,0 +1,12 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'une clé d'idempotence déjà utilisée est réutilisée
+ * pour une requête différente (autre opération ou autre corps).
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("La clé d'idempotence " + idempotencyKey + " a déjà été utilisée pour une autre requête");
+    }
+}
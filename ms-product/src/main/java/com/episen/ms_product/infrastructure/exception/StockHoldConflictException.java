@@ -0,0 +1,12 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'une réservation de stock ne peut pas changer d'état
+ * (ex : confirmation d'une réservation expirée ou déjà libérée).
+ */
+public class StockHoldConflictException extends RuntimeException {
+
+    public StockHoldConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.episen.ms_product.infrastructure.exception;
+
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
+
+/**
+ * Exception levée lorsqu'au moins une ligne d'une réservation groupée de stock échoue.
+ * Provoque le rollback de la transaction et transporte le résultat de chaque ligne.
+ */
+public class StockReservationException extends RuntimeException {
+
+    private final StockReservationResponseDTO result;
+
+    public StockReservationException(StockReservationResponseDTO result) {
+        super("Réservation de stock refusée");
+        this.result = result;
+    }
+
+    public StockReservationResponseDTO getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,228 @@
+package com.episen.ms_product.infrastructure.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clés de vérification des JWT, publiées par ms-membership (JWKS, /.well-known/jwks.json).
+ *
+ * - vérification : lecture du kid du header puis simple lecture de map, une seule
+ *   vérification RSA ensuite (JwtTokenService) ;
+ * - le key set est relu en tâche de fond (refresh-interval-ms) : une clé publiée avant
+ *   d'être active est connue avant le premier token qu'elle signe, sans pic de latence ;
+ * - kid inconnu : relecture immédiate, une seule à la fois et au plus une par
+ *   min-refresh-interval (des kids fantaisistes ne déclenchent pas une rafale d'appels) ;
+ * - échec de lecture : le key set précédent est conservé ;
+ * - algorithmes acceptés (accepted-algorithms) : RS256, ES256 et EdDSA par défaut, pour couvrir
+ *   une migration de l'algorithme de signature ; le type de la clé doit correspondre à l'alg du header ;
+ * - la clé du classpath (public_key.pem) sert d'amorce (trust-bootstrap-key, true par défaut) :
+ *   connue sous son empreinte RFC 7638 (kid par défaut de ms-membership) et utilisée pour
+ *   les tokens sans kid, jusqu'à la première lecture réussie du key set. Ensuite seul le key
+ *   set fait foi : une clé retirée par ms-membership (amorce comprise) n'est plus acceptée,
+ *   sans redéploiement des vérificateurs ; un token sans kid n'est accepté que si l'empreinte
+ *   de l'amorce est encore publiée. trust-bootstrap-key=false : aucune confiance avant lecture ;
+ * - clé retirée du key set : les écouteurs (onKeysRemoved) sont prévenus, JwtTokenService
+ *   vide son cache de claims vérifiés.
+ *
+ * Métriques : security.jwks.refresh{outcome=success|failure}, security.jwks.keys.
+ */
+@Slf4j
+@Component
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+    private final String bootstrapKid;
+    private final Set<String> acceptedAlgorithms;
+    private final URI jwksUri;
+    private final Duration timeout;
+    private final long minRefreshIntervalNanos;
+    private final HttpClient httpClient;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+    private final List<Runnable> keysRemovedListeners = new CopyOnWriteArrayList<>();
+
+    /** Remplacée en bloc à chaque lecture du key set */
+    private volatile Map<String, Key> keys;
+    private volatile long lastRefreshNanos;
+
+    @Autowired
+    public JwksKeyLocator(PublicKey publicKey,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.jwt.jwks.uri:}") String jwksUri,
+                          @Value("${app.security.jwt.jwks.timeout:PT2S}") Duration timeout,
+                          @Value("${app.security.jwt.jwks.min-refresh-interval:PT10S}") Duration minRefreshInterval,
+                          @Value("${app.security.jwt.accepted-algorithms:RS256,ES256,EdDSA}") List<String> acceptedAlgorithms,
+                          @Value("${app.security.jwt.jwks.trust-bootstrap-key:true}") boolean trustBootstrapKey) {
+        this.bootstrapKid = thumbprint(publicKey);
+        this.acceptedAlgorithms = Set.copyOf(acceptedAlgorithms);
+        this.jwksUri = jwksUri == null || jwksUri.isBlank() ? null : URI.create(jwksUri);
+        this.timeout = timeout;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        if (!trustBootstrapKey && this.jwksUri == null) {
+            throw new IllegalStateException("app.security.jwt.jwks.trust-bootstrap-key=false exige app.security.jwt.jwks.uri");
+        }
+        this.keys = trustBootstrapKey ? Map.of(bootstrapKid, publicKey) : Map.of();
+        this.lastRefreshNanos = System.nanoTime() - minRefreshIntervalNanos;
+
+        this.refreshSuccess = refreshCounter(meterRegistry, "success");
+        this.refreshFailure = refreshCounter(meterRegistry, "failure");
+        Gauge.builder("security.jwks.keys", this, locator -> locator.keys.size())
+                .description("Clés de vérification JWT connues")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        if (!acceptedAlgorithms.contains(header.getAlgorithm())) {
+            throw new IllegalArgumentException("Algorithme de signature refusé : " + header.getAlgorithm());
+        }
+
+        // sans kid : clé d'amorce, tant qu'elle est de confiance ou publiée
+        String kid = header.getKeyId() == null ? bootstrapKid : header.getKeyId();
+
+        Key key = keys.get(kid);
+        if (key == null && refreshForUnknownKid(kid)) {
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Clé de vérification inconnue kid=" + kid);
+        }
+        return key;
+    }
+
+    /** Relecture périodique du key set (et au démarrage) */
+    @Scheduled(fixedDelayString = "${app.security.jwt.jwks.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (jwksUri == null) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            fetch();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /** Nombre de clés connues (amorce comprise tant qu'elle est de confiance) */
+    public int size() {
+        return keys.size();
+    }
+
+    /** Action exécutée après chaque lecture du key set qui retire au moins une clé */
+    public void onKeysRemoved(Runnable listener) {
+        keysRemovedListeners.add(listener);
+    }
+
+    /**
+     * Relecture déclenchée par un kid inconnu. Les requêtes concurrentes attendent la même
+     * lecture ; hors de l'intervalle minimal, aucune nouvelle lecture n'est lancée.
+     *
+     * @return true si le key set a pu être relu (ou l'a été pendant l'attente)
+     */
+    boolean refreshForUnknownKid(String kid) {
+        if (jwksUri == null) {
+            return false;
+        }
+        refreshLock.lock();
+        try {
+            if (keys.containsKey(kid)) {
+                return true;
+            }
+            if (System.nanoTime() - lastRefreshNanos < minRefreshIntervalNanos) {
+                return false;
+            }
+            log.info("kid={} inconnu, relecture du key set {}", kid, jwksUri);
+            return fetch();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean fetch() {
+        lastRefreshNanos = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(timeout).GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+
+            JwkSet jwkSet = Jwks.setParser().build().parse(response.body());
+            Map<String, Key> fetched = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet) {
+                if (jwk instanceof PublicJwk<?> publicJwk && publicJwk.getId() != null) {
+                    fetched.put(publicJwk.getId(), publicJwk.toKey());
+                }
+            }
+            if (fetched.isEmpty()) {
+                throw new IllegalStateException("key set vide");
+            }
+
+            // le key set fait foi : l'amorce n'est conservée que si ms-membership la publie encore
+            Set<String> removed = new HashSet<>(keys.keySet());
+            removed.removeAll(fetched.keySet());
+            if (!fetched.keySet().equals(keys.keySet())) {
+                log.info("Key set JWT mis à jour : kids={} retirés={}", fetched.keySet(), removed);
+            }
+            keys = Map.copyOf(fetched);
+            refreshSuccess.increment();
+
+            if (!removed.isEmpty()) {
+                keysRemovedListeners.forEach(Runnable::run);
+            }
+            return true;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            refreshFailure.increment();
+            return false;
+
+        } catch (Exception e) {
+            log.warn("Lecture du key set {} impossible, clés précédentes conservées : {}", jwksUri, e.getMessage());
+            refreshFailure.increment();
+            return false;
+        }
+    }
+
+    private static String thumbprint(PublicKey key) {
+        return Jwks.builder().key(key).idFromThumbprint().build().getId();
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.jwks.refresh")
+                .description("Lectures du key set de ms-membership")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
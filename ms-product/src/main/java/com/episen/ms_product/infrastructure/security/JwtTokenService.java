@@ -1,36 +1,182 @@
 package com.episen.ms_product.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.PublicKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Validation des JWT émis par ms-membership (signature RS256, ES256 ou EdDSA + expiration).
+ *
+ * - clé de vérification choisie d'après le kid du header (JwksKeyLocator, key set de ms-membership) ;
+ * - le parser est construit une seule fois : immuable et thread-safe ;
+ * - les claims vérifiés sont mis en cache, indexés par empreinte SHA-256 du token
+ *   (le token lui-même n'est pas conservé) : un client réutilise son token pendant
+ *   toute sa durée de vie, les requêtes suivantes évitent la vérification de signature ;
+ * - une entrée expire au plus tard à l'exp du token (et au plus après max-ttl) ;
+ *   l'expiration est de toute façon revérifiée à chaque lecture du cache ;
+ * - les tokens refusés ne sont pas mis en cache ;
+ * - une clé retirée du key set (JwksKeyLocator) vide le cache : un token signé par une
+ *   clé révoquée est revérifié, donc refusé, dès la relecture du key set.
+ *
+ * Métriques : cache.gets{cache="jwtValidation",result="hit|miss"}, cache.size...
+ * et security.jwt.verify{outcome=valid|expired|invalid} (vérifications complètes uniquement).
+ */
 @Service
 public class JwtTokenService {
 
-    private final PublicKey publicKey;
+    /** Prototype cloné à chaque empreinte : évite la recherche du provider à chaque requête */
+    private static final MessageDigest SHA_256 = sha256();
 
-    public JwtTokenService(PublicKey publicKey) {
-        this.publicKey = publicKey;
+    private final JwtParser parser;
+    private final Clock clock;
+    private final Cache<String, Claims> verifiedClaims;
+    private final Timer verifiedValid;
+    private final Timer verifiedExpired;
+    private final Timer verifiedInvalid;
+
+    @Autowired
+    public JwtTokenService(JwksKeyLocator keyLocator,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.security.jwt.validation-cache.max-size:10000}") long cacheMaxSize,
+                           @Value("${app.security.jwt.validation-cache.max-ttl:PT1H}") Duration cacheMaxTtl) {
+        this(keyLocator, meterRegistry, cacheMaxSize, cacheMaxTtl, Clock.systemUTC());
+        keyLocator.onKeysRemoved(verifiedClaims::invalidateAll);
+    }
+
+    JwtTokenService(Locator<Key> keyLocator,
+                    MeterRegistry meterRegistry,
+                    long cacheMaxSize,
+                    Duration cacheMaxTtl,
+                    Clock clock) {
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry(clock, cacheMaxTtl))
+                .recordStats()
+                .build();
+        this.verifiedValid = verifyTimer(meterRegistry, "valid");
+        this.verifiedExpired = verifyTimer(meterRegistry, "expired");
+        this.verifiedInvalid = verifyTimer(meterRegistry, "invalid");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwtValidation");
     }
 
     public Claims validate(String token) {
+        String digest = digest(token);
+
+        Claims cached = verifiedClaims.getIfPresent(digest);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedClaims.invalidate(digest);
+                throw new TokenExpiredException();
+            }
+            return cached;
+        }
+
+        Claims claims = verify(token);
+        verifiedClaims.put(digest, claims);
+        return claims;
+    }
+
+    private Claims verify(String token) {
+        long start = System.nanoTime();
         try {
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
         } catch (ExpiredJwtException ex) {
+            verifiedExpired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             throw new TokenExpiredException();
         } catch (Exception ex) {
+            verifiedInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             throw new TokenInvalidException();
         }
     }
 
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && !clock.instant().isBefore(expiration.toInstant());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = (MessageDigest) SHA_256.clone();
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 non clonable", e);
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.verify")
+                .description("Vérification complète d'un JWT (signature), hors cache")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /** Durée de vie d'une entrée : jusqu'à l'exp du token, bornée par maxTtl */
+    private record UntilTokenExpiry(Clock clock, Duration maxTtl) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(clock.instant(), expiration.toInstant());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     public static class TokenExpiredException extends RuntimeException {}
     public static class TokenInvalidException extends RuntimeException {}
-}
\ No newline at end of file
+}
@@ -10,15 +10,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.episen.ms_product.application.dto.ProductAvailabilityDTO;
 import com.episen.ms_product.application.dto.ProductRequestDTO;
 import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.StockHoldRequestDTO;
+import com.episen.ms_product.application.dto.StockHoldResponseDTO;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
 import com.episen.ms_product.application.dto.StockUpdateDTO;
+import com.episen.ms_product.application.service.IdempotencyService;
 import com.episen.ms_product.application.service.ProductService;
+import com.episen.ms_product.application.service.StockHoldService;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.entity.ProductCategory;
 
@@ -47,6 +55,8 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final StockHoldService stockHoldService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * GET /api/v1/products
@@ -70,6 +80,34 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET /api/v1/products?ids=1,2,3
+     * Récupère plusieurs produits en un seul appel (une seule requête SQL IN)
+     *
+     * @param ids Les identifiants des produits (100 maximum)
+     * @return Les produits trouvés (les IDs inconnus sont ignorés) avec code 200 OK
+     */
+    @Operation(summary = "Récupérer plusieurs produits par IDs",
+               description = "Retourne les produits correspondant aux IDs fournis, les IDs inconnus sont ignorés")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                     schema = @Schema(implementation = ProductResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Trop d'identifiants demandés",
+                    content = @Content)
+    })
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductResponseDTO>> getProductsByIds(
+            @Parameter(description = "IDs des produits", required = true)
+            @RequestParam List<Long> ids) {
+
+        log.info("GET /api/v1/products?ids={} - Récupération groupée de produits", ids);
+
+        List<ProductResponseDTO> products = productService.getProductsByIds(ids);
+
+        return ResponseEntity.ok(products);
+    }
+
      /**
      * GET /api/v1/products/{id}
      * Récupère un produit par son ID
@@ -262,6 +300,9 @@ public class ProductController {
      * PATCH /api/v1/products/{id}/stock
      * Met à jour le stock d'un produit existant
      * 
+     * Header Idempotency-Key optionnel : un rejeu de la même requête renvoie
+     * la réponse d'origine sans réappliquer la mise à jour.
+     *
      * @param id       L'identifiant du produit
      * @param newStock Les nouveau stock du produit
      * @return Le produit mis à jour avec code 200 OK
@@ -271,16 +312,186 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Produit mis à jour avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
             @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Clé d'idempotence déjà utilisée pour une autre requête", content = @Content)
     })
     @PatchMapping(value = "/{id}/stock", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductResponseDTO> updateProductStock(
             @PathVariable Long id,
-            @Valid @RequestBody StockUpdateDTO stockUpdateDTO) {
+            @Valid @RequestBody StockUpdateDTO stockUpdateDTO,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         log.info("PATCH /api/v1/products/{}/stock - Nouveau stock : {}", id, stockUpdateDTO.getNewStock());
 
-        ProductResponseDTO updatedProduct = productService.updateStock(id, stockUpdateDTO.getNewStock());
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/v1/products/" + id + "/stock",
+                stockUpdateDTO, ProductResponseDTO.class,
+                () -> ResponseEntity.ok(productService.updateStock(id, stockUpdateDTO.getNewStock())));
+    }
+
+    /**
+     * POST /api/v1/products/stock/reservations
+     * Réserve (décrémente) le stock de plusieurs produits en un seul appel, de façon atomique
+     *
+     * Header Idempotency-Key optionnel (voir IdempotencyService).
+     *
+     * @param request Les lignes à réserver (productId + quantité)
+     * @return Le résultat de chaque ligne avec code 200 OK, ou 409 CONFLICT si une ligne échoue
+     */
+    @Operation(summary = "Réserver le stock de plusieurs produits",
+               description = "Décrémente le stock de chaque produit si suffisant, dans une seule transaction (tout ou rien)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock réservé pour toutes les lignes", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Au moins une ligne refusée, aucun stock modifié", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationResponseDTO.class)))
+    })
+    @PostMapping(value = "/stock/reservations", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockReservationResponseDTO> reserveStock(
+            @Valid @RequestBody StockReservationRequestDTO request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        log.info("POST /api/v1/products/stock/reservations - {} lignes", request.getLines().size());
+
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/products/stock/reservations",
+                request, StockReservationResponseDTO.class,
+                () -> ResponseEntity.ok(productService.reserveStock(request)));
+    }
+
+    /**
+     * GET /api/v1/products/{id}/availability
+     * Récupère le stock disponible d'un produit (stock - réservations temporaires actives)
+     *
+     * @param id L'identifiant du produit
+     * @return Le stock, la quantité réservée et le stock disponible avec code 200 OK
+     */
+    @Operation(summary = "Stock disponible d'un produit", description = "Retourne le stock, la quantité réservée et le stock disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilité récupérée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductAvailabilityDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content)
+    })
+    @GetMapping(value = "/{id}/availability", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductAvailabilityDTO> getProductAvailability(
+            @Parameter(description = "ID du produit", required = true) @PathVariable Long id) {
+
+        log.info("GET /api/v1/products/{}/availability - Stock disponible", id);
+
+        return ResponseEntity.ok(stockHoldService.getAvailability(id));
+    }
+
+    /**
+     * POST /api/v1/products/stock/holds
+     * Réserve temporairement du stock pour plusieurs produits (sans modifier le stock)
+     *
+     * Header Idempotency-Key optionnel (voir IdempotencyService).
+     *
+     * @param request Les lignes à réserver et la durée de la réservation
+     * @return La réservation avec code 201 CREATED, ou 409 CONFLICT avec le résultat de chaque ligne
+     */
+    @Operation(summary = "Réserver temporairement du stock",
+               description = "Retire les quantités du stock disponible jusqu'à confirmation, libération ou expiration (tout ou rien)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Réservation créée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Au moins une ligne refusée, rien n'est réservé", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldResponseDTO.class)))
+    })
+    @PostMapping(value = "/stock/holds", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldResponseDTO> placeStockHold(
+            @Valid @RequestBody StockHoldRequestDTO request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        log.info("POST /api/v1/products/stock/holds - {} lignes", request.getLines().size());
+
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/products/stock/holds",
+                request, StockHoldResponseDTO.class, () -> holdResponse(stockHoldService.placeHold(request)));
+    }
+
+    /**
+     * Réponse d'une réservation : 201 CREATED + Location, ou 409 CONFLICT avec le résultat de chaque ligne
+     */
+    private static ResponseEntity<StockHoldResponseDTO> holdResponse(StockHoldResponseDTO hold) {
+        if (!hold.isReserved()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(hold);
+        }
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{holdId}")
+                .buildAndExpand(hold.getHoldId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(hold);
+    }
+
+    /**
+     * POST /api/v1/products/stock/holds/{holdId}/commit
+     * Confirme une réservation : le stock réservé est définitivement décrémenté
+     *
+     * Header Idempotency-Key optionnel (voir IdempotencyService).
+     *
+     * @param holdId L'identifiant de la réservation
+     * @return La réservation confirmée avec code 200 OK
+     */
+    @Operation(summary = "Confirmer une réservation de stock", description = "Décrémente définitivement le stock réservé")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation confirmée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Réservation expirée ou libérée", content = @Content)
+    })
+    @PostMapping(value = "/stock/holds/{holdId}/commit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldResponseDTO> commitStockHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        log.info("POST /api/v1/products/stock/holds/{}/commit - Confirmation de la réservation", holdId);
 
-        return ResponseEntity.ok(updatedProduct);
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/products/stock/holds/" + holdId + "/commit",
+                holdId, StockHoldResponseDTO.class, () -> ResponseEntity.ok(stockHoldService.commitHold(holdId)));
+    }
+
+    /**
+     * POST /api/v1/products/stock/holds/{holdId}/restock
+     * Remet en stock une réservation, même confirmée (commande annulée après confirmation)
+     *
+     * Header Idempotency-Key optionnel (voir IdempotencyService).
+     *
+     * @param holdId L'identifiant de la réservation
+     * @return La réservation remise en stock avec code 200 OK
+     */
+    @Operation(summary = "Remettre en stock une réservation", description = "Réincrémente le stock d'une réservation confirmée, libère une réservation active")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation remise en stock", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content)
+    })
+    @PostMapping(value = "/stock/holds/{holdId}/restock", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldResponseDTO> restockStockHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        log.info("POST /api/v1/products/stock/holds/{}/restock - Remise en stock de la réservation", holdId);
+
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/products/stock/holds/" + holdId + "/restock",
+                holdId, StockHoldResponseDTO.class, () -> ResponseEntity.ok(stockHoldService.restockHold(holdId)));
+    }
+
+    /**
+     * DELETE /api/v1/products/stock/holds/{holdId}
+     * Libère une réservation : les quantités redeviennent disponibles
+     *
+     * @param holdId L'identifiant de la réservation
+     * @return Code 204 NO CONTENT
+     */
+    @Operation(summary = "Libérer une réservation de stock", description = "Rend les quantités réservées au stock disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Réservation libérée", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Réservation déjà confirmée", content = @Content)
+    })
+    @DeleteMapping("/stock/holds/{holdId}")
+    public ResponseEntity<Void> releaseStockHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId) {
+
+        log.info("DELETE /api/v1/products/stock/holds/{} - Libération de la réservation", holdId);
+
+        stockHoldService.releaseHold(holdId);
+
+        return ResponseEntity.noContent().build();
     }
 }
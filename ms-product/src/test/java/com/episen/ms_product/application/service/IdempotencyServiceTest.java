@@ -0,0 +1,141 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockUpdateDTO;
+import com.episen.ms_product.domain.entity.IdempotencyRecord;
+import com.episen.ms_product.domain.repository.IdempotencyRecordRepository;
+import com.episen.ms_product.infrastructure.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "PATCH /api/v1/products/1/stock";
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private final AtomicInteger mutations = new AtomicInteger();
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ObjectMapper(), new SimpleMeterRegistry(),
+                Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC), Duration.ofHours(24));
+    }
+
+    @Test
+    void execute_shouldRunMutation_withoutKey() {
+        assertEquals("stock=5", service.execute(null, OPERATION, new StockUpdateDTO(5), String.class, this::mutate).getBody());
+
+        assertEquals(1, mutations.get());
+        verifyNoInteractions(repository);
+    }
+
+    // première requête : mutation exécutée, réponse mémorisée avec la clé
+    @Test
+    void execute_shouldStoreResponse_onFirstRequest() {
+        when(repository.findById("k1")).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.execute("k1", OPERATION, new StockUpdateDTO(5), String.class, this::mutate);
+
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(stored.capture());
+        assertEquals(200, stored.getValue().getResponseStatus());
+        assertEquals("\"stock=5\"", stored.getValue().getResponseBody());
+        assertEquals(1, mutations.get());
+    }
+
+    // rejeu : réponse mémorisée renvoyée, pas de seconde mutation
+    @Test
+    void execute_shouldReplayStoredResponse_withoutRunningMutationAgain() {
+        when(repository.findById("k1")).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+        service.execute("k1", OPERATION, new StockUpdateDTO(5), String.class, this::mutate);
+
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(stored.capture());
+        when(repository.findById("k1")).thenReturn(Optional.of(stored.getValue()));
+
+        ResponseEntity<String> replayed = service.execute("k1", OPERATION, new StockUpdateDTO(5), String.class, this::mutate);
+
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertEquals("stock=5", replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, mutations.get());
+    }
+
+    @Test
+    void execute_shouldReject_whenKeyReusedForAnotherRequest() {
+        when(repository.findById("k1")).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+        service.execute("k1", OPERATION, new StockUpdateDTO(5), String.class, this::mutate);
+
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(stored.capture());
+        when(repository.findById("k1")).thenReturn(Optional.of(stored.getValue()));
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> service.execute("k1", OPERATION, new StockUpdateDTO(6), String.class, this::mutate));
+        assertEquals(1, mutations.get());
+    }
+
+    // requête concurrente de même clé validée entre-temps : sa réponse est renvoyée
+    @Test
+    void execute_shouldReplay_whenConcurrentRequestCommittedFirst() {
+        IdempotencyRecord committed = IdempotencyRecord.builder()
+                .idempotencyKey("k1")
+                .responseStatus(200)
+                .responseBody("\"stock=5\"")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            committed.setRequestHash(inv.<IdempotencyRecord>getArgument(0).getRequestHash());
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+        when(repository.findById("k1")).thenReturn(Optional.empty(), Optional.of(committed));
+
+        ResponseEntity<String> response = service.execute("k1", OPERATION, new StockUpdateDTO(5), String.class, this::mutate);
+
+        assertEquals("stock=5", response.getBody());
+        assertEquals(0, mutations.get());
+    }
+
+    @Test
+    void purgeExpiredKeys_shouldDeleteKeysOlderThanRetention() {
+        service.purgeExpiredKeys();
+
+        verify(repository).deleteCreatedBefore(LocalDateTime.parse("2024-12-31T10:00:00"));
+    }
+
+    private ResponseEntity<String> mutate() {
+        mutations.incrementAndGet();
+        return ResponseEntity.ok("stock=5");
+    }
+}
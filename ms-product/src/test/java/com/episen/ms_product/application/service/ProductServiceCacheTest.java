@@ -0,0 +1,112 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.ProductRequestDTO;
+import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.cache.ProductCache;
+import com.episen.ms_product.infrastructure.config.CacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.cache.CacheMetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cache du catalogue : lectures servies par le cache, évictions ciblées sur écriture,
+ * statistiques exportées dans le MeterRegistry.
+ */
+@SpringBootTest(
+        classes = {ProductService.class, ProductMapper.class, ProductCache.class, CacheConfig.class},
+        properties = {
+                "spring.cache.type=caffeine",
+                "spring.cache.cache-names=products,productList",
+                "spring.cache.caffeine.spec=maximumSize=100,recordStats"
+        })
+@ImportAutoConfiguration({
+        CacheAutoConfiguration.class,
+        MetricsAutoConfiguration.class,
+        CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class,
+        CacheMetricsAutoConfiguration.class
+})
+class ProductServiceCacheTest {
+
+    @MockitoBean
+    private ProductRepository productRepository;
+    @MockitoBean
+    private StockHoldIndex stockHoldIndex;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getProductById_shouldHitDatabaseOnce_andExportHitMissMetrics() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
+
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    // updateStock n'évince que le produit modifié (+ la liste)
+    @Test
+    void updateStock_shouldEvictOnlyAffectedProduct() {
+        when(productRepository.findById(any())).thenAnswer(inv -> Optional.of(product(inv.getArgument(0))));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productRepository.findAll()).thenReturn(List.of(product(2L), product(3L)));
+
+        productService.getProductById(2L);
+        productService.getProductById(3L);
+        productService.getAllProducts();
+
+        productService.updateStock(2L, 7);
+        clearInvocations(productRepository);
+
+        productService.getProductById(2L);
+        productService.getProductById(3L);
+        productService.getAllProducts();
+
+        verify(productRepository).findById(2L);
+        verify(productRepository, never()).findById(3L);
+        verify(productRepository).findAll();
+    }
+
+    @Test
+    void createProduct_shouldEvictProductList() {
+        when(productRepository.findAll()).thenReturn(List.of(product(4L)));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.getAllProducts();
+        productService.getAllProducts();
+        productService.createProduct(ProductRequestDTO.builder().name("new").price(BigDecimal.ONE).stock(1).build());
+        productService.getAllProducts();
+
+        verify(productRepository, times(2)).findAll();
+    }
+
+    private static Product product(Long id) {
+        return Product.builder().id(id).name("p" + id).price(BigDecimal.TEN).stock(5).build();
+    }
+}
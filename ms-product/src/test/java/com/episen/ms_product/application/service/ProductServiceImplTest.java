@@ -2,20 +2,30 @@ package com.episen.ms_product.application.service;
 
 import com.episen.ms_product.application.dto.ProductRequestDTO;
 import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
 import com.episen.ms_product.application.mapper.ProductMapper;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.cache.ProductCache;
 import com.episen.ms_product.infrastructure.exception.ResourceAlreadyExistsException;
 import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.exception.StockReservationException;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +37,10 @@ class ProductServiceTest {
     private ProductMapper productMapper;
     @Mock
     private MeterRegistry meterRegistry;
+    @Mock
+    private StockHoldIndex stockHoldIndex;
+    @Mock
+    private ProductCache productCache;
 
     @InjectMocks
     private ProductService productService;
@@ -76,4 +90,84 @@ class ProductServiceTest {
         // When + Then
         assertThrows(ResourceNotFoundException.class, () -> productService.updateStock(99L, 10));
     }
-}
\ No newline at end of file
+
+    // --- TEST 4 : Récupération groupée en une seule requête (IDs dédoublonnés) ---
+    @Test
+    void getProductsByIds_shouldQueryOnce_withDistinctIds() {
+        // Given
+        Product p1 = Product.builder().id(1L).build();
+        Product p2 = Product.builder().id(2L).build();
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(List.of(p1, p2));
+        when(productMapper.toDto(any(Product.class)))
+                .thenAnswer(inv -> ProductResponseDTO.builder().id(((Product) inv.getArgument(0)).getId()).build());
+
+        // When
+        List<ProductResponseDTO> result = productService.getProductsByIds(List.of(1L, 2L, 1L));
+
+        // Then
+        assertEquals(2, result.size());
+        verify(productRepository).findByIdIn(Set.of(1L, 2L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    // --- TEST 5 : Récupération groupée refusée au-delà de la taille maximale ---
+    @Test
+    void getProductsByIds_shouldThrow_whenTooManyIds() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, ProductService.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        // When + Then
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsByIds(ids));
+        verify(productRepository, never()).findByIdIn(anyCollection());
+    }
+
+    // --- TEST 6 : Réservation groupée OK : quantités cumulées par produit ---
+    @Test
+    void reserveStock_shouldDecrementEachProduct_whenStockIsSufficient() {
+        // Given
+        when(productRepository.decrementStockIfAvailable(1L, 3, 0)).thenReturn(1);
+        when(productRepository.decrementStockIfAvailable(2L, 1, 0)).thenReturn(1);
+
+        StockReservationRequestDTO req = new StockReservationRequestDTO(List.of(
+                new StockReservationLineDTO(2L, 1),
+                new StockReservationLineDTO(1L, 1),
+                new StockReservationLineDTO(1L, 2)));
+
+        // When
+        StockReservationResponseDTO result = productService.reserveStock(req);
+
+        // Then
+        assertTrue(result.isReserved());
+        assertEquals(List.of(1L, 2L), result.getLines().stream().map(StockReservationLineResultDTO::getProductId).toList());
+        assertTrue(result.getLines().stream()
+                .allMatch(l -> l.getStatus() == StockReservationLineResultDTO.Status.RESERVED));
+    }
+
+    // --- TEST 7 : Réservation groupée refusée si une ligne échoue (résultat par ligne) ---
+    @Test
+    void reserveStock_shouldThrowWithLineResults_whenOneLineFails() {
+        // Given
+        when(productRepository.decrementStockIfAvailable(1L, 1, 0)).thenReturn(1);
+        when(productRepository.decrementStockIfAvailable(2L, 5, 0)).thenReturn(0);
+        when(productRepository.decrementStockIfAvailable(3L, 1, 0)).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(productRepository.existsById(3L)).thenReturn(false);
+
+        StockReservationRequestDTO req = new StockReservationRequestDTO(List.of(
+                new StockReservationLineDTO(1L, 1),
+                new StockReservationLineDTO(2L, 5),
+                new StockReservationLineDTO(3L, 1)));
+
+        // When
+        StockReservationException ex =
+                assertThrows(StockReservationException.class, () -> productService.reserveStock(req));
+
+        // Then
+        assertFalse(ex.getResult().isReserved());
+        assertEquals(List.of(
+                        StockReservationLineResultDTO.Status.ROLLED_BACK,
+                        StockReservationLineResultDTO.Status.INSUFFICIENT_STOCK,
+                        StockReservationLineResultDTO.Status.NOT_FOUND),
+                ex.getResult().getLines().stream().map(StockReservationLineResultDTO::getStatus).toList());
+    }
+}
@@ -0,0 +1,204 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockHoldRequestDTO;
+import com.episen.ms_product.application.dto.StockHoldResponseDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.entity.StockHold;
+import com.episen.ms_product.domain.entity.StockHoldStatus;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.StockHoldRepository;
+import com.episen.ms_product.infrastructure.cache.ProductCache;
+import com.episen.ms_product.infrastructure.exception.StockHoldConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockHoldServiceTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCache productCache;
+
+    private StockHoldIndex stockHoldIndex;
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldIndex = new StockHoldIndex();
+        stockHoldService = new StockHoldService(stockHoldRepository, productRepository, stockHoldIndex,
+                productCache, new SimpleMeterRegistry(), Duration.ofMinutes(15), Duration.ofHours(2));
+    }
+
+    // --- Démarrage : l'index est reconstruit depuis les réservations actives de stock_holds ---
+    @Test
+    void loadActiveHolds_shouldRebuildIndexFromLedger() {
+        // Given
+        stockHoldIndex.tryReserve(9L, 10, 5);
+        when(stockHoldRepository.findByStatus(StockHoldStatus.ACTIVE)).thenReturn(List.of(
+                StockHold.builder().holdId("h1").productId(1L).quantity(3).status(StockHoldStatus.ACTIVE).build(),
+                StockHold.builder().holdId("h2").productId(1L).quantity(2).status(StockHoldStatus.ACTIVE).build()));
+
+        // When
+        stockHoldService.loadActiveHolds();
+
+        // Then
+        assertEquals(5, stockHoldIndex.reserved(1L));
+        assertEquals(0, stockHoldIndex.reserved(9L));
+    }
+
+    // --- TEST 1 : Réservation OK : quantités retirées du disponible, stock products inchangé ---
+    @Test
+    void placeHold_shouldReserveInMemory_withoutTouchingProductStock() {
+        // Given
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(List.of(product(1L, 10)));
+
+        // When
+        StockHoldResponseDTO hold = stockHoldService.placeHold(holdRequest(1L, 4));
+
+        // Then
+        assertTrue(hold.isReserved());
+        assertNotNull(hold.getHoldId());
+        assertEquals(4, stockHoldIndex.reserved(1L));
+        verify(stockHoldRepository).saveAll(anyCollection());
+        verify(productRepository, never()).decrementStockIfAvailable(any(), anyInt(), anyInt());
+    }
+
+    // --- TEST 2 : Réservation refusée si le disponible (stock - réservé) est insuffisant ---
+    @Test
+    void placeHold_shouldReject_whenAvailableStockIsInsufficient() {
+        // Given
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(List.of(product(1L, 10)));
+        stockHoldIndex.tryReserve(1L, 10, 8);
+
+        // When
+        StockHoldResponseDTO hold = stockHoldService.placeHold(holdRequest(1L, 3));
+
+        // Then
+        assertFalse(hold.isReserved());
+        assertEquals(StockReservationLineResultDTO.Status.INSUFFICIENT_STOCK, hold.getLines().get(0).getStatus());
+        assertEquals(8, stockHoldIndex.reserved(1L));
+        verify(stockHoldRepository, never()).saveAll(anyCollection());
+    }
+
+    // --- TEST 3 : Confirmation : stock décrémenté en base, réservation retirée de l'index ---
+    @Test
+    void commitHold_shouldDecrementStockAndReleaseIndex() {
+        // Given
+        StockHold line = activeHold("h1", 1L, 4, LocalDateTime.now().plusMinutes(5));
+        stockHoldIndex.tryReserve(1L, 10, 4);
+        stockHoldIndex.tryReserve(1L, 10, 2); // autre réservation active du même produit
+        when(stockHoldRepository.findByHoldId("h1")).thenReturn(List.of(line));
+        when(productRepository.decrementStockIfAvailable(1L, 4, 2)).thenReturn(1);
+
+        // When
+        StockHoldResponseDTO hold = stockHoldService.commitHold("h1");
+
+        // Then
+        assertEquals(StockHoldStatus.COMMITTED, hold.getStatus());
+        assertEquals(StockHoldStatus.COMMITTED, line.getStatus());
+        assertEquals(2, stockHoldIndex.reserved(1L));
+    }
+
+    // --- TEST 4 : Confirmation impossible d'une réservation expirée ---
+    @Test
+    void commitHold_shouldThrow_whenHoldExpired() {
+        // Given
+        StockHold line = activeHold("h1", 1L, 4, LocalDateTime.now().minusMinutes(5));
+        line.setStatus(StockHoldStatus.EXPIRED);
+        when(stockHoldRepository.findByHoldId("h1")).thenReturn(List.of(line));
+
+        // When + Then
+        assertThrows(StockHoldConflictException.class, () -> stockHoldService.commitHold("h1"));
+        verify(productRepository, never()).decrementStockIfAvailable(any(), anyInt(), anyInt());
+    }
+
+    // --- Remise en stock d'une réservation confirmée (commande annulée après confirmation) ---
+    @Test
+    void restockHold_shouldIncrementStock_whenHoldCommitted() {
+        // Given
+        StockHold line = activeHold("h1", 1L, 4, LocalDateTime.now().plusMinutes(5));
+        line.setStatus(StockHoldStatus.COMMITTED);
+        when(stockHoldRepository.findByHoldId("h1")).thenReturn(List.of(line));
+
+        // When
+        StockHoldResponseDTO hold = stockHoldService.restockHold("h1");
+
+        // Then
+        assertEquals(StockHoldStatus.RESTOCKED, hold.getStatus());
+        verify(productRepository).incrementStock(1L, 4);
+        verify(productCache).evictProducts(List.of(1L));
+
+        // rejeu : sans effet
+        stockHoldService.restockHold("h1");
+        verify(productRepository, times(1)).incrementStock(any(), anyInt());
+    }
+
+    // --- Remise en stock d'une réservation encore active : simple libération ---
+    @Test
+    void restockHold_shouldRelease_whenHoldActive() {
+        // Given
+        StockHold line = activeHold("h1", 1L, 4, LocalDateTime.now().plusMinutes(5));
+        stockHoldIndex.tryReserve(1L, 10, 4);
+        when(stockHoldRepository.findByHoldId("h1")).thenReturn(List.of(line));
+
+        // When
+        StockHoldResponseDTO hold = stockHoldService.restockHold("h1");
+
+        // Then
+        assertEquals(StockHoldStatus.RELEASED, hold.getStatus());
+        assertEquals(0, stockHoldIndex.reserved(1L));
+        verify(productRepository, never()).incrementStock(any(), anyInt());
+    }
+
+    // --- TEST 5 : Le balayage libère les réservations expirées ---
+    @Test
+    void expireHolds_shouldReleaseExpiredHolds() {
+        // Given
+        StockHold line = activeHold("h1", 1L, 4, LocalDateTime.now().minusSeconds(1));
+        stockHoldIndex.tryReserve(1L, 10, 4);
+        when(stockHoldRepository.findByStatusAndExpiresAtBefore(eq(StockHoldStatus.ACTIVE), any()))
+                .thenReturn(List.of(line));
+
+        // When
+        stockHoldService.expireHolds();
+
+        // Then
+        assertEquals(StockHoldStatus.EXPIRED, line.getStatus());
+        assertEquals(0, stockHoldIndex.reserved(1L));
+    }
+
+    private static Product product(Long id, int stock) {
+        return Product.builder().id(id).stock(stock).build();
+    }
+
+    private static StockHoldRequestDTO holdRequest(Long productId, int quantity) {
+        return new StockHoldRequestDTO(List.of(new StockReservationLineDTO(productId, quantity)), null);
+    }
+
+    private static StockHold activeHold(String holdId, Long productId, int quantity, LocalDateTime expiresAt) {
+        return StockHold.builder()
+                .holdId(holdId)
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockHoldStatus.ACTIVE)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}